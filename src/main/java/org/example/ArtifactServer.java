@@ -0,0 +1,360 @@
+package org.example;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+// Роздача сховища артефактів у локальній мережі: GET/HEAD /objects/<sha1>.
+// Віддаються лише об'єкти, що вже пройшли перевірку хешу при записі у сховище; клієнт перевіряє хеш ще раз.
+// Тіло відповіді йде через FileChannel.transferTo (sendfile), без копіювання в user space.
+public class ArtifactServer implements Closeable {
+    public static final int DEFAULT_PORT = 8090;
+    public static final int DEFAULT_THREADS = 64;
+    private static final int MAX_HEAD_BYTES = 8 * 1024;
+    private static final int IDLE_TIMEOUT_MS = 15_000;
+
+    private final ArtifactStore store;
+    private final ServerSocketChannel server;
+    private final ExecutorService pool;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private volatile boolean closed;
+
+    public ArtifactServer(ArtifactStore store, int port, int threads) throws IOException {
+        this.store = store;
+        this.server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port), 256);
+        this.pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "pl-artifact-server");
+            t.setDaemon(true);
+            return t;
+        });
+        Thread acceptor = new Thread(this::acceptLoop, "pl-artifact-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                SocketChannel ch = server.accept();
+                ch.socket().setTcpNoDelay(true);
+                ch.socket().setSoTimeout(IDLE_TIMEOUT_MS);
+                connections.add(ch);
+                pool.execute(() -> serve(ch));
+            } catch (RejectedExecutionException | IOException ex) {
+                if (closed) return;
+            }
+        }
+    }
+
+    // keep-alive: кілька запитів на одне з'єднання, доки клієнт не закриє його або не мовчатиме IDLE_TIMEOUT_MS
+    private void serve(SocketChannel ch) {
+        try (ch) {
+            InputStream in = new BufferedInputStream(ch.socket().getInputStream());
+            while (!closed) {
+                List<String> head = readHead(in);
+                if (head == null) return;
+                requests.increment();
+                if (!respond(ch, head)) return;
+            }
+        } catch (SocketTimeoutException ignored) {
+        } catch (IOException ignored) {
+            // клієнт обірвав з'єднання
+        } finally {
+            connections.remove(ch);
+        }
+    }
+
+    private static List<String> readHead(InputStream in) throws IOException {
+        List<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+        int total = 0;
+        int c;
+        while ((c = in.read()) != -1) {
+            if (++total > MAX_HEAD_BYTES) throw new IOException("Завеликий заголовок запиту");
+            if (c == '\n') {
+                int len = line.length();
+                if (len > 0 && line.charAt(len - 1) == '\r') line.setLength(len - 1);
+                if (line.length() == 0) {
+                    if (lines.isEmpty()) continue;
+                    return lines;
+                }
+                lines.add(line.toString());
+                line.setLength(0);
+            } else {
+                line.append((char) c);
+            }
+        }
+        return null;
+    }
+
+    // false — з'єднання треба закрити
+    private boolean respond(SocketChannel ch, List<String> head) throws IOException {
+        String[] requestLine = head.get(0).split(" ");
+        Map<String, String> headers = new HashMap<>();
+        for (int i = 1; i < head.size(); i++) {
+            String h = head.get(i);
+            int colon = h.indexOf(':');
+            if (colon > 0) headers.put(h.substring(0, colon).trim().toLowerCase(Locale.ROOT), h.substring(colon + 1).trim());
+        }
+        boolean keepAlive = !"close".equalsIgnoreCase(headers.get("connection"))
+                && (requestLine.length < 3 || !"HTTP/1.0".equals(requestLine[2]));
+        if (requestLine.length < 2) {
+            sendStatus(ch, 400, "Bad Request", false);
+            return false;
+        }
+        String method = requestLine[0];
+        String path = requestLine[1];
+        boolean headOnly = method.equals("HEAD");
+        if (!headOnly && !method.equals("GET")) {
+            sendStatus(ch, 405, "Method Not Allowed", keepAlive);
+            return keepAlive;
+        }
+        if (path.equals("/")) {
+            // відповідь на пробний HEAD із Mirrors
+            sendStatus(ch, 200, "OK", keepAlive);
+            return keepAlive;
+        }
+        String sha1 = path.startsWith("/objects/") ? path.substring("/objects/".length()) : "";
+        if (!sha1.matches("[0-9a-f]{40}") || store.size(sha1) < 0) {
+            sendStatus(ch, 404, "Not Found", keepAlive);
+            return keepAlive;
+        }
+        Path file = store.objectFile(sha1).toPath();
+        try (FileChannel fc = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = fc.size();
+            long from = 0;
+            long to = length - 1;
+            boolean partial = false;
+            String range = headers.get("range");
+            if (range != null && range.startsWith("bytes=") && !range.contains(",")) {
+                String[] bounds = range.substring(6).split("-", -1);
+                // "bytes=100" без дефіса чи з кількома дефісами
+                if (bounds.length != 2) {
+                    sendStatus(ch, 400, "Bad Request", false);
+                    return false;
+                }
+                try {
+                    if (bounds[0].isEmpty()) {
+                        from = Math.max(0, length - Long.parseLong(bounds[1]));
+                    } else {
+                        from = Long.parseLong(bounds[0]);
+                        if (!bounds[1].isEmpty()) to = Math.min(to, Long.parseLong(bounds[1]));
+                    }
+                } catch (NumberFormatException ex) {
+                    sendStatus(ch, 400, "Bad Request", false);
+                    return false;
+                }
+                if (from >= length || from > to) {
+                    write(ch, "HTTP/1.1 416 Range Not Satisfiable\r\nContent-Range: bytes */" + length
+                            + "\r\nContent-Length: 0\r\n" + connectionHeader(keepAlive) + "\r\n");
+                    return keepAlive;
+                }
+                partial = true;
+            }
+            long count = to - from + 1;
+            StringBuilder sb = new StringBuilder();
+            sb.append(partial ? "HTTP/1.1 206 Partial Content\r\n" : "HTTP/1.1 200 OK\r\n");
+            sb.append("Content-Type: application/octet-stream\r\n");
+            sb.append("Content-Length: ").append(count).append("\r\n");
+            if (partial) sb.append("Content-Range: bytes ").append(from).append('-').append(to).append('/').append(length).append("\r\n");
+            sb.append("Accept-Ranges: bytes\r\n");
+            sb.append("ETag: \"").append(sha1).append("\"\r\n");
+            sb.append("Cache-Control: public, max-age=31536000, immutable\r\n");
+            sb.append(connectionHeader(keepAlive)).append("\r\n");
+            write(ch, sb.toString());
+            if (!headOnly) {
+                long pos = from;
+                long end = from + count;
+                while (pos < end) {
+                    long n = fc.transferTo(pos, end - pos, ch);
+                    if (n <= 0 && pos >= fc.size()) throw new EOFException(sha1);
+                    pos += n;
+                }
+                bytesSent.add(count);
+            }
+        } catch (NoSuchFileException ex) {
+            sendStatus(ch, 404, "Not Found", keepAlive);
+        }
+        return keepAlive;
+    }
+
+    private static String connectionHeader(boolean keepAlive) {
+        return keepAlive ? "Connection: keep-alive\r\n" : "Connection: close\r\n";
+    }
+
+    private static void sendStatus(SocketChannel ch, int code, String reason, boolean keepAlive) throws IOException {
+        write(ch, "HTTP/1.1 " + code + " " + reason + "\r\nContent-Length: 0\r\n" + connectionHeader(keepAlive) + "\r\n");
+    }
+
+    private static void write(SocketChannel ch, String s) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(s.getBytes(StandardCharsets.ISO_8859_1));
+        while (buf.hasRemaining()) ch.write(buf);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        for (SocketChannel ch : connections) {
+            try {
+                ch.close();
+            } catch (IOException ignored) {}
+        }
+        pool.shutdownNow();
+    }
+
+    public static class LoadResult {
+        public int clients;
+        public int objects;
+        public long requests;
+        public long errors;
+        public long bytes;
+        public long millis;
+        public long p50Micros;
+        public long p99Micros;
+
+        public double requestsPerSecond() {
+            return millis > 0 ? requests * 1000.0 / millis : 0;
+        }
+
+        public double megabytesPerSecond() {
+            return millis > 0 ? bytes / 1048576.0 * 1000.0 / millis : 0;
+        }
+    }
+
+    // Навантажувальна перевірка на localhost: тимчасове сховище з випадковими об'єктами різного розміру,
+    // сервер на вільному порту і clients потоків, кожен з яких rounds разів забирає всі об'єкти та перевіряє SHA-1
+    public static LoadResult loadTest(int clients, int rounds) throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("pl-loadtest");
+        ArtifactStore store = new ArtifactStore(dir.toFile());
+        try {
+            Random random = new Random(42);
+            List<String> ids = new ArrayList<>();
+            int[] sizes = {0, 1, 4 * 1024, 64 * 1024, 512 * 1024, 2 * 1024 * 1024, 8 * 1024 * 1024};
+            for (int i = 0; i < 48; i++) {
+                byte[] data = new byte[sizes[i % sizes.length]];
+                random.nextBytes(data);
+                String sha1 = ArtifactStore.toHex(ArtifactStore.newSha1().digest(data));
+                if (store.size(sha1) >= 0) continue;
+                File tmp = new File(dir.toFile(), sha1 + ".tmp");
+                Files.write(tmp.toPath(), data);
+                FileUtil.mkdirs(store.objectFile(sha1).getParentFile());
+                store.commit(tmp, sha1, data.length, data.length, sha1);
+                ids.add(sha1);
+            }
+            try (ArtifactServer server = new ArtifactServer(store, 0, Math.max(DEFAULT_THREADS, clients))) {
+                String base = "http://127.0.0.1:" + server.getPort() + "/objects/";
+                LongAdder errors = new LongAdder();
+                LongAdder bytes = new LongAdder();
+                Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+                ExecutorService pool = Executors.newFixedThreadPool(clients);
+                CountDownLatch startGate = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int c = 0; c < clients; c++) {
+                    long seed = c;
+                    futures.add(pool.submit(() -> {
+                        List<String> order = new ArrayList<>(ids);
+                        Collections.shuffle(order, new Random(seed));
+                        startGate.await();
+                        byte[] buffer = new byte[64 * 1024];
+                        for (int r = 0; r < rounds; r++) {
+                            for (String sha1 : order) {
+                                long t0 = System.nanoTime();
+                                try {
+                                    bytes.add(fetchAndVerify(base + sha1, sha1, buffer));
+                                } catch (IOException ex) {
+                                    errors.increment();
+                                }
+                                latencies.add((System.nanoTime() - t0) / 1000);
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                long start = System.nanoTime();
+                startGate.countDown();
+                for (Future<?> f : futures) {
+                    try {
+                        f.get();
+                    } catch (ExecutionException ex) {
+                        errors.increment();
+                    }
+                }
+                pool.shutdownNow();
+                LoadResult result = new LoadResult();
+                result.millis = (System.nanoTime() - start) / 1_000_000;
+                result.clients = clients;
+                result.objects = ids.size();
+                result.requests = latencies.size();
+                result.errors = errors.sum();
+                result.bytes = bytes.sum();
+                List<Long> sorted = new ArrayList<>(latencies);
+                Collections.sort(sorted);
+                if (!sorted.isEmpty()) {
+                    result.p50Micros = sorted.get(sorted.size() / 2);
+                    result.p99Micros = sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * 0.99)));
+                }
+                return result;
+            }
+        } finally {
+            // індекс і index.lock тимчасового сховища відкриті — закриваємо до видалення теки
+            store.close();
+            deleteTree(dir.toFile());
+        }
+    }
+
+    private static long fetchAndVerify(String url, String sha1, byte[] buffer) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        conn.setConnectTimeout(10_000);
+        conn.setReadTimeout(30_000);
+        MessageDigest md = ArtifactStore.newSha1();
+        long total = 0;
+        try (InputStream in = conn.getInputStream()) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                md.update(buffer, 0, n);
+                total += n;
+            }
+        }
+        if (!sha1.equals(ArtifactStore.toHex(md.digest()))) throw new IOException("Невірний вміст " + url);
+        return total;
+    }
+
+    private static void deleteTree(File f) {
+        File[] children = f.listFiles();
+        if (children != null) {
+            for (File c : children) deleteTree(c);
+        }
+        f.delete();
+    }
+}
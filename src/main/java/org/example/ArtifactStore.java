@@ -0,0 +1,424 @@
+package org.example;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ArtifactStore implements Closeable {
+    private static final int LOCK_STRIPES = 4096;
+    private static ArtifactStore defaultStore;
+
+    private final File root;
+    private final File objectsDir;
+    private final File indexFile;
+    // sha1 -> розмір об'єкта у сховищі
+    private final Map<String, Long> objects = new ConcurrentHashMap<>();
+    // абсолютний шлях встановленого файлу -> sha1
+    private final Map<String, String> links = new ConcurrentHashMap<>();
+    // sha1 -> потоки, що зараз отримують цей об'єкт; запис живе, доки є хоч один
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final File locksDir;
+    private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+    private Writer indexWriter;
+    // спільне блокування index.lock на весь час роботи: поки воно є, інший процес не стискатиме індекс
+    private FileChannel indexLock;
+
+    public interface ByteCounter {
+        void add(long n);
+    }
+
+    private static final class Flight {
+        int users;
+    }
+
+    public ArtifactStore(File root) {
+        this.root = root;
+        this.objectsDir = new File(root, "objects");
+        this.indexFile = new File(root, "index.txt");
+        this.locksDir = new File(root, "locks");
+        for (int i = 0; i < LOCK_STRIPES; i++) stripes[i] = new ReentrantLock();
+        loadIndex();
+    }
+
+    public static synchronized ArtifactStore getDefault() {
+        if (defaultStore == null) {
+            defaultStore = new ArtifactStore(new File("store"));
+        }
+        return defaultStore;
+    }
+
+    public File objectFile(String sha1) {
+        return new File(new File(objectsDir, sha1.substring(0, 2)), sha1);
+    }
+
+    public boolean contains(String sha1) {
+        return objects.containsKey(sha1);
+    }
+
+    // розмір об'єкта або -1, якщо його немає у сховищі
+    public long size(String sha1) {
+        Long size = objects.get(sha1);
+        return size != null ? size : -1;
+    }
+
+    public boolean isInstalled(File dest, String sha1) {
+        return sha1 != null && contains(sha1) && sha1.equals(links.get(dest.getAbsolutePath()));
+    }
+
+    public void fetch(String url, String sha1, long size, File dest, ByteCounter counter) throws IOException {
+        Flight flight = inFlight.compute(sha1, (k, f) -> {
+            if (f == null) f = new Flight();
+            f.users++;
+            return f;
+        });
+        try {
+            synchronized (flight) {
+                Closeable lock = lock(sha1);
+                try {
+                    if (!contains(sha1)) {
+                        adoptCommitted(sha1, size);
+                    }
+                    if (!contains(sha1) && dest.isFile()) {
+                        adopt(dest, sha1, size);
+                    }
+                    if (!contains(sha1)) {
+                        download(url, sha1, size, counter);
+                    } else {
+                        cacheHit(url, objects.get(sha1));
+                        if (counter != null) counter.add(objects.get(sha1));
+                    }
+                    link(sha1, dest);
+                } finally {
+                    lock.close();
+                }
+            }
+        } finally {
+            inFlight.computeIfPresent(sha1, (k, f) -> --f.users == 0 ? null : f);
+        }
+    }
+
+    // Блокування об'єкта між потоками та між процесами (кілька лаунчерів над одним сховищем).
+    // Смуга за хешем: ReentrantLock у процесі та FileLock на locks/<смуга>.lock для інших процесів;
+    // вкладені блокування не використовуються, тож FileLock у межах JVM не перетинаються.
+    // Блокування процесу (fcntl) належать процесу, а не потоку: два лаунчери, що чекають кожен
+    // у кількох потоках, ядро вважає взаємним блокуванням (EDEADLK), тому tryLock з паузою.
+    public Closeable lock(String sha1) throws IOException {
+        int stripe = Math.floorMod(sha1.hashCode(), LOCK_STRIPES);
+        ReentrantLock local = stripes[stripe];
+        try {
+            local.lockInterruptibly();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Очікування блокування перервано");
+        }
+        FileChannel channel = null;
+        try {
+            FileUtil.mkdirs(locksDir);
+            channel = FileChannel.open(new File(locksDir, String.format("%03x.lock", stripe)).toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock fileLock;
+            for (long pause = 1; (fileLock = channel.tryLock()) == null; pause = Math.min(pause * 2, 50)) {
+                try {
+                    Thread.sleep(pause);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Очікування блокування перервано");
+                }
+            }
+            FileChannel ch = channel;
+            FileLock held = fileLock;
+            return () -> {
+                try {
+                    held.release();
+                    ch.close();
+                } finally {
+                    local.unlock();
+                }
+            };
+        } catch (IOException | RuntimeException ex) {
+            if (channel != null) channel.close();
+            local.unlock();
+            throw ex;
+        }
+    }
+
+    // Об'єкт міг записати інший процес; у сховищі він з'являється лише атомарним move після перевірки хешу
+    private void adoptCommitted(String sha1, long size) throws IOException {
+        File file = objectFile(sha1);
+        long length = file.length();
+        if (file.isFile() && (size <= 0 || length == size)) {
+            objects.put(sha1, length);
+            appendIndex("O " + sha1 + " " + length);
+        }
+    }
+
+    // об'єкт уже у сховищі (спільний з іншою версією) — лише посилання, без мережі
+    static void cacheHit(String url, long bytes) {
+        LauncherEvents.ArtifactDownload event = new LauncherEvents.ArtifactDownload();
+        if (event.shouldCommit()) {
+            event.url = url;
+            event.bytes = bytes;
+            event.cacheHit = true;
+            event.commit();
+        }
+        Metrics.increment("download.cache.hit");
+    }
+
+    private void download(String url, String sha1, long size, ByteCounter counter) throws IOException {
+        File target = objectFile(sha1);
+        FileUtil.mkdirs(target.getParentFile());
+        File part = new File(target.getParentFile(), sha1 + ".part");
+        HttpDownloader.Result result = new HttpDownloader().download(url, part, size, sha1, counter != null ? counter : n -> {});
+        commit(part, sha1, size, result.length, result.sha1);
+    }
+
+    // файл, завантажений до появи сховища: перевіряємо хеш один раз і переносимо у сховище
+    private void adopt(File existing, String sha1, long size) throws IOException {
+        File target = objectFile(sha1);
+        FileUtil.mkdirs(target.getParentFile());
+        File tmp = FileUtil.tempFile(target);
+        MessageDigest md = newSha1();
+        long read = 0;
+        try (InputStream in = new FileInputStream(existing);
+             OutputStream out = new FileOutputStream(tmp)) {
+            byte[] buffer = new byte[64 * 1024];
+            int bytesRead;
+            while ((bytesRead = in.read(buffer)) != -1) {
+                md.update(buffer, 0, bytesRead);
+                out.write(buffer, 0, bytesRead);
+                read += bytesRead;
+            }
+        }
+        try {
+            commit(tmp, sha1, size, read, toHex(md.digest()));
+        } catch (IOException ignored) {
+            // пошкоджений або неповний файл — буде завантажено заново
+        }
+    }
+
+    void commit(File tmp, String sha1, long expectedSize, long written, String actual) throws IOException {
+        if (!actual.equals(sha1) || (expectedSize > 0 && written != expectedSize)) {
+            Files.deleteIfExists(tmp.toPath());
+            throw new IOException("Контрольна сума не збігається для " + sha1 + ": отримано " + actual + ", " + written + " байт");
+        }
+        Files.move(tmp.toPath(), objectFile(sha1).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        objects.put(sha1, written);
+        appendIndex("O " + sha1 + " " + written);
+    }
+
+    // Пошкоджений об'єкт (знайдено перевіркою цілісності) прибирається зі сховища; посилання на нього
+    // перестають вважатися встановленими, а наступний fetch завантажить його заново
+    public void evict(String sha1) throws IOException {
+        Closeable lock = lock(sha1);
+        try {
+            objects.remove(sha1);
+            Files.deleteIfExists(objectFile(sha1).toPath());
+            appendIndex("R " + sha1 + " 0");
+        } finally {
+            lock.close();
+        }
+    }
+
+    // Файл більше не належить жодній версії (збирання сміття): посилання не рахується до використань об'єкта
+    public void unlink(File dest) throws IOException {
+        String sha1 = links.remove(dest.getAbsolutePath());
+        if (sha1 != null) appendIndex("U " + sha1 + " " + dest.getAbsolutePath());
+    }
+
+    // Знімки індексу для збирання сміття: шлях посилання → sha1 та sha1 → розмір
+    public Map<String, String> links() {
+        return new HashMap<>(links);
+    }
+
+    public Map<String, Long> objects() {
+        return new HashMap<>(objects);
+    }
+
+    // Ексклюзивне index.lock на час збирання сміття: ні встановлення, ні запуск в іншому лаунчері не йдуть
+    // паралельно. null — сховищем зараз користується інший процес. close() стискає індекс і повертає
+    // спільне блокування.
+    public synchronized Closeable tryExclusive() throws IOException {
+        FileChannel channel = null;
+        FileLock exclusive = null;
+        try {
+            // спільне блокування цієї ж JVM перетнулося б з ексклюзивним
+            FileChannel shared = indexLock;
+            indexLock = null;
+            if (shared != null) shared.close();
+            FileUtil.mkdirs(root);
+            channel = openIndexLock();
+            exclusive = channel.tryLock();
+        } catch (OverlappingFileLockException ex) {
+            exclusive = null;
+        } finally {
+            if (exclusive == null) {
+                // за будь-якого результату повертаємо спільне блокування, не чекаючи на чуже ексклюзивне
+                closeQuietly(channel);
+                compactIndex();
+            }
+        }
+        if (exclusive == null) return null;
+        FileChannel ch = channel;
+        FileLock held = exclusive;
+        return () -> {
+            synchronized (ArtifactStore.this) {
+                try {
+                    held.release();
+                } finally {
+                    ch.close();
+                    compactIndex();
+                }
+            }
+        };
+    }
+
+    public void link(String sha1, File dest) throws IOException {
+        Path object = objectFile(sha1).toPath();
+        Path target = dest.toPath();
+        FileUtil.mkdirs(dest.getParentFile());
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, object);
+        } catch (IOException | UnsupportedOperationException ex) {
+            // інша файлова система — копіюємо
+            Files.copy(object, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        links.put(dest.getAbsolutePath(), sha1);
+        appendIndex("L " + sha1 + " " + dest.getAbsolutePath());
+    }
+
+    // Дописувач індексу та спільне index.lock; після close() сховище більше не використовується
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (indexWriter != null) indexWriter.close();
+        } finally {
+            indexWriter = null;
+            if (indexLock != null) {
+                FileChannel lock = indexLock;
+                indexLock = null;
+                lock.close();
+            }
+        }
+    }
+
+    private void loadIndex() {
+        if (!indexFile.exists()) return;
+        try (BufferedReader r = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                if (line.length() < 44) continue;
+                String sha1 = line.substring(2, 42);
+                String rest = line.substring(43);
+                if (line.charAt(0) == 'O') {
+                    objects.put(sha1, Long.parseLong(rest));
+                } else if (line.charAt(0) == 'L') {
+                    links.put(rest, sha1);
+                } else if (line.charAt(0) == 'R') {
+                    objects.remove(sha1);
+                } else if (line.charAt(0) == 'U') {
+                    links.remove(rest, sha1);
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {}
+        compactIndex();
+    }
+
+    // Стискаємо індекс лише тоді, коли сховищем не користується інший процес: інакше його дописані
+    // рядки потрапили б у старий файл. Після цього тримаємо спільне блокування до виходу; якщо інший
+    // лаунчер саме тримає ексклюзивне (збирання сміття), працюємо без нього, а не чекаємо.
+    private synchronized void compactIndex() {
+        FileChannel channel = null;
+        try {
+            FileUtil.mkdirs(root);
+            channel = openIndexLock();
+            FileLock exclusive = channel.tryLock();
+            if (exclusive != null) {
+                rewriteIndex();
+                exclusive.release();
+            }
+            if (channel.tryLock(0, Long.MAX_VALUE, true) != null) {
+                indexLock = channel;
+                channel = null;
+            }
+        } catch (IOException | OverlappingFileLockException ignored) {
+            // сховище вже відкрите в цій JVM або файлова система без блокувань — без стискання
+        } finally {
+            closeQuietly(channel);
+        }
+    }
+
+    private FileChannel openIndexLock() throws IOException {
+        return FileChannel.open(new File(root, "index.lock").toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void closeQuietly(Closeable c) {
+        if (c == null) return;
+        try {
+            c.close();
+        } catch (IOException ignored) {}
+    }
+
+    private void rewriteIndex() {
+        if (indexWriter != null) {
+            // дописування після стискання має йти в новий файл, а не в замінений
+            try {
+                indexWriter.close();
+            } catch (IOException ignored) {}
+            indexWriter = null;
+        }
+        File tmp = new File(root, "index.txt.tmp");
+        try (Writer w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8))) {
+            Map<String, Long> objectsCopy = new HashMap<>(objects);
+            for (Map.Entry<String, Long> e : objectsCopy.entrySet()) {
+                w.write("O " + e.getKey() + " " + e.getValue() + "\n");
+            }
+            for (Map.Entry<String, String> e : links.entrySet()) {
+                if (objectsCopy.containsKey(e.getValue())) {
+                    w.write("L " + e.getValue() + " " + e.getKey() + "\n");
+                }
+            }
+        } catch (IOException ex) {
+            return;
+        }
+        try {
+            Files.move(tmp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ignored) {}
+    }
+
+    private synchronized void appendIndex(String line) throws IOException {
+        if (indexWriter == null) {
+            FileUtil.mkdirs(root);
+            indexWriter = new OutputStreamWriter(new FileOutputStream(indexFile, true), StandardCharsets.UTF_8);
+        }
+        indexWriter.write(line + "\n");
+        indexWriter.flush();
+    }
+
+    static MessageDigest newSha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
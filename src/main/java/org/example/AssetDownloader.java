@@ -0,0 +1,153 @@
+package org.example;
+
+import java.io.*;
+import java.util.*;
+
+// Ресурси гри (звуки, мови, текстури): assets/indexes/<id>.json + assets/objects/<xx>/<hash>
+public class AssetDownloader {
+    public static final String RESOURCES_URL = System.getProperty("pl.assets.url", "https://resources.download.minecraft.net/");
+
+    private final File assetsDir;
+    private final ArtifactStore store;
+
+    public static class Stats {
+        public int objectsTotal;
+        public int objectsDownloaded;
+        public long bytesDownloaded;
+        public long millis;
+
+        public double objectsPerSecond() {
+            return millis > 0 ? objectsDownloaded * 1000.0 / millis : 0;
+        }
+
+        public double bytesPerSecond() {
+            return millis > 0 ? bytesDownloaded * 1000.0 / millis : 0;
+        }
+    }
+
+    private static class AssetObject {
+        final String hash;
+        final long size;
+
+        AssetObject(String hash, long size) {
+            this.hash = hash;
+            this.size = size;
+        }
+    }
+
+    public AssetDownloader(File assetsDir, ArtifactStore store) {
+        this.assetsDir = assetsDir;
+        this.store = store;
+    }
+
+    public File getAssetsDir() {
+        return assetsDir;
+    }
+
+    public Stats download(VersionManifest.AssetIndexRef ref, ParallelDownloader downloader,
+                          DownloadProgress progress) throws IOException {
+        File indexFile = indexFile(ref);
+        if (ref.sha1 == null || !store.isInstalled(indexFile, ref.sha1)) {
+            downloader.downloadAll(List.of(indexTask(ref)), progress);
+        }
+        Collection<AssetObject> objects = readIndex(indexFile);
+
+        File objectsDir = new File(assetsDir, "objects");
+        Set<String> present = listPresent(objectsDir);
+        List<ParallelDownloader.Task> missing = new ArrayList<>();
+        long bytes = 0;
+        for (AssetObject o : objects) {
+            if (present.contains(o.hash)) continue;
+            missing.add(objectTask(objectsDir, o));
+            bytes += o.size;
+        }
+
+        Stats stats = new Stats();
+        stats.objectsTotal = objects.size();
+        stats.objectsDownloaded = missing.size();
+        stats.bytesDownloaded = bytes;
+        Metrics.add("asset.present", stats.objectsTotal - stats.objectsDownloaded);
+        long start = System.currentTimeMillis();
+        downloader.downloadAll(missing, progress);
+        stats.millis = System.currentTimeMillis() - start;
+        return stats;
+    }
+
+    public File indexFile(VersionManifest.AssetIndexRef ref) {
+        return new File(new File(assetsDir, "indexes"), ref.id + ".json");
+    }
+
+    public ParallelDownloader.Task indexTask(VersionManifest.AssetIndexRef ref) {
+        return new ParallelDownloader.Task(ref.url, indexFile(ref), ref.size, ref.sha1);
+    }
+
+    // Усі об'єкти за вже встановленим індексом — очікувані файли для перевірки цілісності
+    public List<ParallelDownloader.Task> objectTasks(VersionManifest.AssetIndexRef ref) throws IOException {
+        File objectsDir = new File(assetsDir, "objects");
+        List<ParallelDownloader.Task> tasks = new ArrayList<>();
+        for (AssetObject o : readIndex(indexFile(ref))) tasks.add(objectTask(objectsDir, o));
+        return tasks;
+    }
+
+    private static ParallelDownloader.Task objectTask(File objectsDir, AssetObject o) {
+        String bucket = o.hash.substring(0, 2);
+        File dest = new File(new File(objectsDir, bucket), o.hash);
+        return new ParallelDownloader.Task(RESOURCES_URL + bucket + "/" + o.hash, dest, o.size, o.hash, false);
+    }
+
+    // Один об'єкт може згадуватись під кількома шляхами — дедуплікуємо за хешем
+    private static Collection<AssetObject> readIndex(File indexFile) throws IOException {
+        Map<String, AssetObject> objects = new LinkedHashMap<>();
+        LauncherEvents.JsonParse event = new LauncherEvents.JsonParse();
+        event.document = "asset-index";
+        event.begin();
+        long t0 = System.nanoTime();
+        try (JsonReader r = new JsonReader(new FileInputStream(indexFile))) {
+            r.beginObject();
+            while (r.hasNext()) {
+                if (!r.nextName().equals("objects")) {
+                    r.skipValue();
+                    continue;
+                }
+                r.beginObject();
+                while (r.hasNext()) {
+                    r.nextName();
+                    String hash = null;
+                    long size = 0;
+                    r.beginObject();
+                    while (r.hasNext()) {
+                        switch (r.nextName()) {
+                            case "hash" -> hash = r.nextString();
+                            case "size" -> size = r.nextLong();
+                            default -> r.skipValue();
+                        }
+                    }
+                    r.endObject();
+                    if (hash != null && hash.length() == 40) objects.putIfAbsent(hash, new AssetObject(hash, size));
+                }
+                r.endObject();
+            }
+            r.endObject();
+        } finally {
+            event.items = objects.size();
+            event.commit();
+            Metrics.recordNanos("json.asset-index.ms", t0);
+        }
+        return objects.values();
+    }
+
+    // 256 читань каталогів замість stat() для кожного з тисяч об'єктів
+    private static Set<String> listPresent(File objectsDir) {
+        Set<String> present = new HashSet<>();
+        File[] buckets = objectsDir.listFiles(File::isDirectory);
+        if (buckets == null) return present;
+        for (File bucket : buckets) {
+            String[] names = bucket.list();
+            if (names == null) continue;
+            for (String name : names) {
+                if (name.length() == 40) present.add(name);
+            }
+        }
+        return present;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example;
+
+import java.io.File;
+import java.util.List;
+
+// Динамічні архіви AppCDS для кожної версії: перший запуск пише архів (-XX:ArchiveClassesAtExit),
+// наступні відображають його у пам'ять (-XX:SharedArchiveFile). Ім'я архіву містить хеш classpath,
+// тож після зміни бібліотек або java старий архів видаляється і створюється новий.
+public class ClassDataSharing {
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("pl.cds", "true"));
+
+    public enum Mode {
+        OFF("вимкнено"), DUMP("створення архіву"), USE("з архіву");
+
+        public final String label;
+
+        Mode(String label) {
+            this.label = label;
+        }
+    }
+
+    private final File dir;
+
+    public ClassDataSharing(File dir) {
+        this.dir = dir;
+    }
+
+    // Додає потрібні прапорці до jvmArgs; динамічні архіви з'явилися в Java 13
+    public Mode prepare(String name, LaunchPlan plan, List<String> jvmArgs) {
+        if (!ENABLED || plan.javaMajor < 13) return Mode.OFF;
+        // JVM пропускає класи з jar, у шляху яких є пробіл, і пише попередження на кожен клас
+        for (String entry : plan.classpath) {
+            if (entry.indexOf(' ') >= 0) return Mode.OFF;
+        }
+        String prefix = name + "-";
+        File archive = new File(dir, prefix + plan.classpathHash().substring(0, 16) + ".jsa");
+        File[] stale = dir.listFiles((d, n) -> n.startsWith(prefix) && n.endsWith(".jsa") && !n.equals(archive.getName()));
+        if (stale != null) {
+            for (File f : stale) {
+                f.delete();
+            }
+        }
+        if (archive.length() > 0) {
+            jvmArgs.add("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+            // пошкоджений або несумісний архів не повинен заважати запуску гри
+            jvmArgs.add("-Xshare:auto");
+            return Mode.USE;
+        }
+        if (!dir.isDirectory() && !dir.mkdirs()) return Mode.OFF;
+        jvmArgs.add("-XX:ArchiveClassesAtExit=" + archive.getAbsolutePath());
+        return Mode.DUMP;
+    }
+}
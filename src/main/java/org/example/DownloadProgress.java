@@ -0,0 +1,64 @@
+package org.example;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Спільний лічильник прогресу для всіх завантажень. Потоки завантаження лише додають у LongAdder
+// (без алокацій і без подій EDT), а UI зчитує знімок за таймером із фіксованою частотою.
+public class DownloadProgress implements ArtifactStore.ByteCounter {
+    private final LongAdder bytesDone = new LongAdder();
+    private final LongAdder bytesTotal = new LongAdder();
+    private final LongAdder filesDone = new LongAdder();
+    private final LongAdder filesTotal = new LongAdder();
+    private volatile String phase = "";
+
+    public static final class Snapshot {
+        public final String phase;
+        public final long bytesDone;
+        public final long bytesTotal;
+        public final long filesDone;
+        public final long filesTotal;
+
+        Snapshot(String phase, long bytesDone, long bytesTotal, long filesDone, long filesTotal) {
+            this.phase = phase;
+            this.bytesDone = bytesDone;
+            this.bytesTotal = bytesTotal;
+            this.filesDone = filesDone;
+            this.filesTotal = filesTotal;
+        }
+
+        public int percent() {
+            if (bytesTotal > 0) return (int) Math.min(100, bytesDone * 100 / bytesTotal);
+            return filesTotal > 0 ? (int) (filesDone * 100 / filesTotal) : 0;
+        }
+    }
+
+    public void reset() {
+        bytesDone.reset();
+        bytesTotal.reset();
+        filesDone.reset();
+        filesTotal.reset();
+        phase = "";
+    }
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    public void addWork(long bytes, int files) {
+        bytesTotal.add(bytes);
+        filesTotal.add(files);
+    }
+
+    @Override
+    public void add(long n) {
+        bytesDone.add(n);
+    }
+
+    public void fileDone() {
+        filesDone.increment();
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(phase, bytesDone.sum(), bytesTotal.sum(), filesDone.sum(), filesTotal.sum());
+    }
+}
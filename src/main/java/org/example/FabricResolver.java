@@ -0,0 +1,145 @@
+package org.example;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+// Профіль Fabric береться напряму з meta.fabricmc.net замість запуску fabric-installer у окремій JVM.
+// Список версій loader ревалідується з TTL кешу маніфестів; профіль для пари (mc, loader) незмінний
+// і завантажується лише раз.
+public class FabricResolver {
+    public static final String META_URL = System.getProperty("pl.fabric.meta", "https://meta.fabricmc.net/v2/");
+
+    private final File dir;
+    private final ManifestCache manifestCache;
+
+    public FabricResolver(File dir, ManifestCache manifestCache) {
+        this.dir = dir;
+        this.manifestCache = manifestCache;
+    }
+
+    // Найновіша стабільна версія loader (semver); pl.fabric.loader дозволяє зафіксувати конкретну
+    public String loaderVersion(String mcVersion) throws IOException {
+        String pinned = System.getProperty("pl.fabric.loader");
+        if (pinned != null && !pinned.isEmpty()) return pinned;
+        String best = newestLoader(mcVersion);
+        if (best == null) throw new IOException("Fabric loader для " + mcVersion + " не знайдено");
+        return best;
+    }
+
+    // Чи є Fabric для версії: профіль уже в кеші або meta.fabricmc.net знає хоч один loader.
+    // IOException — відповіді немає (офлайн), а не «не підтримується»
+    public boolean supports(String mcVersion) throws IOException {
+        return !cachedLoaders(mcVersion).isEmpty() || newestLoader(mcVersion) != null;
+    }
+
+    // Найновіша стабільна версія зі списку meta (або найновіша взагалі); null, якщо список порожній
+    private String newestLoader(String mcVersion) throws IOException {
+        File list = manifestCache.indexFile(META_URL + "versions/loader/" + mcVersion);
+        String bestStable = null;
+        String bestAny = null;
+        try (JsonReader r = new JsonReader(new FileInputStream(list))) {
+            r.beginArray();
+            while (r.hasNext()) {
+                String version = null;
+                boolean stable = false;
+                r.beginObject();
+                while (r.hasNext()) {
+                    if (!r.nextName().equals("loader")) {
+                        r.skipValue();
+                        continue;
+                    }
+                    r.beginObject();
+                    while (r.hasNext()) {
+                        switch (r.nextName()) {
+                            case "version" -> version = r.nextString();
+                            case "stable" -> stable = r.nextBoolean();
+                            default -> r.skipValue();
+                        }
+                    }
+                    r.endObject();
+                }
+                r.endObject();
+                if (version == null) continue;
+                if (bestAny == null || SemanticVersion.compare(version, bestAny) > 0) bestAny = version;
+                if (stable && (bestStable == null || SemanticVersion.compare(version, bestStable) > 0)) bestStable = version;
+            }
+            r.endArray();
+        }
+        return bestStable != null ? bestStable : bestAny;
+    }
+
+    // Loader, з яким версію востаннє встановлено (installed.properties у теці кешу); null — не записано
+    public synchronized String installedLoader(String mcVersion) {
+        return FileUtil.loadProperties(installedFile()).getProperty(mcVersion);
+    }
+
+    public synchronized void recordInstalled(String mcVersion, String loaderVersion) throws IOException {
+        Properties props = FileUtil.loadProperties(installedFile());
+        if (loaderVersion.equals(props.getProperty(mcVersion))) return;
+        props.setProperty(mcVersion, loaderVersion);
+        FileUtil.storeProperties(installedFile(), props);
+    }
+
+    // Профіль, яким версія користується зараз: записаний при встановленні, інакше той, що обрав би
+    // loaderVersion(), якщо він у кеші, інакше найновіший з кешу; null — профілів немає
+    public String liveLoader(String mcVersion) {
+        List<String> cached = cachedLoaders(mcVersion);
+        if (cached.isEmpty()) return null;
+        String recorded = installedLoader(mcVersion);
+        if (recorded != null && cached.contains(recorded)) return recorded;
+        try {
+            String chosen = loaderVersion(mcVersion);
+            if (cached.contains(chosen)) return chosen;
+        } catch (IOException ignored) {
+            // офлайн — список loader недоступний
+        }
+        return cached.get(0);
+    }
+
+    private File installedFile() {
+        return new File(dir, "installed.properties");
+    }
+
+    // Версії loader, для яких профіль уже на диску, від найновішої
+    public List<String> cachedLoaders(String mcVersion) {
+        List<String> loaders = new ArrayList<>();
+        String[] names = new File(dir, mcVersion).list((d, name) -> name.endsWith(".json"));
+        if (names == null) return loaders;
+        for (String name : names) loaders.add(name.substring(0, name.length() - 5));
+        loaders.sort((a, b) -> SemanticVersion.compare(b, a));
+        return loaders;
+    }
+
+    public File profileFile(String mcVersion, String loaderVersion) {
+        return new File(new File(dir, mcVersion), loaderVersion + ".json");
+    }
+
+    public VersionManifest profile(String mcVersion, String loaderVersion) throws IOException {
+        File file = profileFile(mcVersion, loaderVersion);
+        if (!file.isFile()) {
+            String url = META_URL + "versions/loader/" + mcVersion + "/" + loaderVersion + "/profile/json";
+            FileUtil.mkdirs(file.getParentFile());
+            File tmp = FileUtil.tempFile(file);
+            HttpURLConnection conn = Mirrors.getDefault().open(url, "GET", c -> {});
+            try {
+                int code = conn.getResponseCode();
+                if (code >= 400) throw new IOException("HTTP " + code + " для " + url);
+                try (InputStream in = conn.getInputStream()) {
+                    Files.copy(in, tmp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException ex) {
+                conn.disconnect();
+                throw ex;
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            return VersionManifest.parse(in);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.example;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+final class FileUtil {
+    private FileUtil() {}
+
+    static void mkdirs(File dir) throws IOException {
+        if (dir != null && !dir.exists() && !dir.mkdirs() && !dir.exists()) {
+            throw new IOException("Не вдалося створити директорію: " + dir);
+        }
+    }
+
+    // Тимчасовий файл поруч із target, унікальний для процесу й потоку: кілька лаунчерів
+    // над одними теками не пишуть в один .tmp
+    static File tempFile(File target) {
+        return new File(target.getParentFile(), target.getName() + "." + ProcessHandle.current().pid()
+                + "-" + Thread.currentThread().getId() + ".tmp");
+    }
+
+    static Properties loadProperties(File file) {
+        Properties props = new Properties();
+        loadProperties(file, props);
+        return props;
+    }
+
+    static void loadProperties(File file, Properties props) {
+        if (!file.isFile()) return;
+        try (Reader r = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            props.load(r);
+        } catch (IOException | IllegalArgumentException ignored) {}
+    }
+
+    // запис через тимчасовий файл, щоб обрив не залишив напівзаписаний конфіг
+    static void storeProperties(File file, Properties props) throws IOException {
+        mkdirs(file.getParentFile());
+        File tmp = tempFile(file);
+        try (Writer w = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+            props.store(w, null);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,348 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.*;
+
+// Ядро встановлення версії без Swing: маніфест, профіль Fabric, client jar, бібліотеки, natives, ресурси
+// та план запуску. GUI і консольний режим відрізняються лише Listener-ом і тим, як відображають DownloadProgress.
+public class GameInstaller {
+    public static final String VERSION_MANIFEST_INDEX = System.getProperty("pl.manifest.url",
+            "https://piston-meta.mojang.com/mc/game/version_manifest_v2.json");
+    public static final File LIBS_DIR = new File("libraries");
+    public static final File NATIVES_DIR = new File("natives");
+    // Бюджет диска для StorageGc, МБ; 0 — без обмеження
+    public static final long DISK_BUDGET_MB = Long.getLong("pl.disk.budget.mb", 0);
+    public static final File FABRIC_GAME_DIR = new File(System.getProperty("user.dir"), ".minecraft");
+
+    public interface Listener {
+        void status(String message);
+
+        void log(String message);
+    }
+
+    public static class Installation {
+        public VersionManifest manifest;
+        public VersionManifest fabricProfile;
+        public File clientJar;
+        public File nativesDir;
+        public String assetIndexId;
+        public final List<File> libraries = new ArrayList<>();
+    }
+
+    private final ArtifactStore store = ArtifactStore.getDefault();
+    private final ManifestCache manifestCache = ManifestCache.getDefault();
+    private final AssetDownloader assetDownloader = new AssetDownloader(new File("assets"), store);
+    private final FabricResolver fabricResolver = new FabricResolver(new File("cache", "fabric"), manifestCache);
+    private final int jobs;
+    // Спільні на всі версії: їхні семафори обмежують сумарну кількість одночасних завантажень
+    private final ParallelDownloader libraryDownloader;
+    private final ParallelDownloader assetObjectDownloader;
+    private final DownloadProgress progress;
+    private final Listener listener;
+
+    public GameInstaller(int jobs, DownloadProgress progress, Listener listener) {
+        this.jobs = Math.max(1, jobs);
+        this.libraryDownloader = new ParallelDownloader(this.jobs, store);
+        this.assetObjectDownloader = new ParallelDownloader(this.jobs * 2, store);
+        this.progress = progress;
+        this.listener = listener;
+    }
+
+    public static File clientJar(String version) {
+        return new File("minecraft-" + version + "-client.jar");
+    }
+
+    public VersionManifest manifest(String version) throws IOException {
+        return manifestCache.version(VERSION_MANIFEST_INDEX, version);
+    }
+
+    public Installation install(VersionManifest manifest, boolean fabric) throws IOException {
+        try (StageGraph graph = new StageGraph()) {
+            StageGraph.Stage<VersionManifest> manifestStage = graph.stage("manifest", () -> manifest);
+            StageGraph.Stage<Installation> done = install(graph, manifest.id, manifestStage, fabric);
+            Installation inst = graph.await(done);
+            listener.log(manifest.id + ": етапи встановлення\n" + graph.report(done));
+            return inst;
+        }
+    }
+
+    // Етапи встановлення у графі: профіль Fabric не залежить від маніфесту, а client jar, бібліотеки
+    // та ресурси стартують одночасно, щойно маніфест розібрано
+    public StageGraph.Stage<Installation> install(StageGraph graph, String version, StageGraph.Stage<VersionManifest> manifest,
+                                                  boolean fabric) {
+        StageGraph.Stage<VersionManifest> fabricProfile = !fabric ? null : graph.stage("fabric-profile", () -> {
+            listener.status("Отримання профілю Fabric...");
+            String loader = fabricResolver.loaderVersion(version);
+            listener.log(version + ": Fabric loader " + loader);
+            VersionManifest profile = fabricResolver.profile(version, loader);
+            // збирання сміття вважає живим саме цей профіль, навіть якщо в кеші є новіший
+            fabricResolver.recordInstalled(version, loader);
+            return profile;
+        });
+        StageGraph.Stage<File> clientJar = graph.stage("client-jar", () -> downloadClient(manifest.get()), manifest);
+        StageGraph.Stage<List<File>> libraries = graph.stage("libraries", () -> fabricProfile != null
+                ? downloadLibraries(version, fabricProfile.get(), manifest.get())
+                : downloadLibraries(version, manifest.get()), manifest, fabricProfile);
+        StageGraph.Stage<String> assets = graph.stage("assets", () -> downloadAssets(manifest.get()), manifest);
+        return graph.stage("installation", () -> {
+            Installation inst = new Installation();
+            inst.manifest = manifest.get();
+            inst.fabricProfile = fabricProfile != null ? fabricProfile.get() : null;
+            inst.clientJar = clientJar.get();
+            inst.nativesDir = new File(NATIVES_DIR, version);
+            inst.assetIndexId = assets.get();
+            inst.libraries.addAll(libraries.get());
+            return inst;
+        }, clientJar, libraries, assets, fabricProfile);
+    }
+
+    // Уже встановлені файли classpath ванільної версії — для прогріву page cache під час завантажень
+    public List<File> presentFiles(VersionManifest manifest) {
+        List<File> files = new ArrayList<>();
+        for (VersionManifest.Artifact artifact : new LibraryResolver(Map.of()).resolve(manifest).classpath) {
+            File f = new File(LIBS_DIR, artifact.path.replace("/", File.separator));
+            if (artifact.sha1 != null ? store.isInstalled(f, artifact.sha1) : f.isFile()) files.add(f);
+        }
+        File client = clientJar(manifest.id);
+        if (client.isFile()) files.add(client);
+        return files;
+    }
+
+    private File downloadClient(VersionManifest manifest) throws IOException {
+        File jar = clientJar(manifest.id);
+        VersionManifest.Artifact client = manifest.client;
+        if (client == null || client.url == null) throw new IOException("У маніфесті " + manifest.id + " немає client jar");
+        if (client.sha1 != null ? !store.isInstalled(jar, client.sha1) : !jar.exists()) {
+            listener.status("Завантаження Minecraft...");
+            progress.setPhase("Minecraft");
+            libraryDownloader.downloadAll(List.of(new ParallelDownloader.Task(client.url, jar, client.size, client.sha1)), progress);
+            listener.log("Файл збережено: " + jar.getAbsolutePath());
+        }
+        return jar;
+    }
+
+    private List<File> downloadLibraries(String version, VersionManifest... manifests) throws IOException {
+        listener.status("Перевірка бібліотек...");
+        LibraryResolver.Resolved resolved = new LibraryResolver(Map.of()).resolve(manifests);
+        List<File> libraries = new ArrayList<>();
+        List<File> nativeJars = new ArrayList<>();
+        List<ParallelDownloader.Task> missing = new ArrayList<>();
+        Set<String> queued = new HashSet<>();
+        for (VersionManifest.Artifact artifact : resolved.classpath) {
+            libraries.add(libraryFile(artifact, missing, queued));
+        }
+        for (VersionManifest.Artifact artifact : resolved.natives) {
+            nativeJars.add(libraryFile(artifact, missing, queued));
+        }
+        if (!resolved.duplicates.isEmpty()) {
+            listener.log("Дублікати у classpath: прибрано " + resolved.duplicates.size() + " ("
+                    + fmt(resolved.duplicateBytes / 1024.0) + " КБ)\n  " + String.join("\n  ", resolved.duplicates));
+        }
+        if (!missing.isEmpty()) {
+            long start = System.currentTimeMillis();
+            progress.setPhase("Бібліотеки");
+            libraryDownloader.downloadAll(missing, progress);
+            long elapsed = System.currentTimeMillis() - start;
+            listener.log(version + ": бібліотек завантажено " + missing.size() + " за " + elapsed + " мс ("
+                    + jobs + " потоків, пропущено за правилами: " + resolved.skipped + ")");
+        }
+        if (!nativeJars.isEmpty()) {
+            long start = System.currentTimeMillis();
+            NativesExtractor.Stats stats = new NativesExtractor(jobs).extract(nativeJars, new File(NATIVES_DIR, version));
+            long elapsed = System.currentTimeMillis() - start;
+            if (stats.extracted > 0) {
+                listener.log(version + ": нативних бібліотек розпаковано " + stats.extracted
+                        + " (актуальних: " + stats.upToDate + ") за " + elapsed + " мс");
+            }
+        }
+        return libraries;
+    }
+
+    private File libraryFile(VersionManifest.Artifact artifact, List<ParallelDownloader.Task> missing, Set<String> queued) {
+        File out = new File(LIBS_DIR, artifact.path.replace("/", File.separator));
+        boolean present = artifact.sha1 != null ? store.isInstalled(out, artifact.sha1) : out.exists();
+        if (present) Metrics.increment("library.present");
+        if (!present && queued.add(artifact.path)) {
+            missing.add(new ParallelDownloader.Task(artifact.url, out, artifact.size, artifact.sha1));
+        }
+        return out;
+    }
+
+    private String downloadAssets(VersionManifest manifest) throws IOException {
+        if (manifest.assetIndex == null) return null;
+        listener.status("Перевірка ресурсів...");
+        progress.setPhase("Ресурси");
+        AssetDownloader.Stats stats = assetDownloader.download(manifest.assetIndex, assetObjectDownloader, progress);
+        if (stats.objectsDownloaded > 0) {
+            listener.log(manifest.id + ": ресурсів завантажено " + stats.objectsDownloaded + "/" + stats.objectsTotal
+                    + " за " + stats.millis + " мс (" + fmt(stats.objectsPerSecond()) + " об'єктів/с, "
+                    + fmt(stats.bytesPerSecond() / 1024.0) + " КБ/с)");
+        }
+        return manifest.assetIndex.id;
+    }
+
+    public boolean fabricSupported(String version) throws IOException {
+        return fabricResolver.supports(version);
+    }
+
+    // Перевірка встановленої версії: sha1 і розмір кожного очікуваного файлу (client jar, бібліотеки, natives-jar,
+    // ресурси) паралельно; repair — видалити й завантажити знову лише невідповідні. Індекс ресурсів перевіряється
+    // (і відновлюється) першим, бо з нього береться список об'єктів.
+    public IntegrityCheck.Report verify(String version, boolean fabric, boolean repair) throws IOException {
+        VersionManifest manifest = manifest(version);
+        IntegrityCheck.Report report = new IntegrityCheck.Report();
+        try (IntegrityCheck check = new IntegrityCheck(Runtime.getRuntime().availableProcessors(), store)) {
+            listener.status("Перевірка файлів " + version + "...");
+            progress.setPhase("Перевірка");
+            List<ParallelDownloader.Task> expected = new ArrayList<>();
+            VersionManifest.Artifact client = manifest.client;
+            if (client != null && client.url != null) {
+                expected.add(new ParallelDownloader.Task(client.url, clientJar(version), client.size, client.sha1));
+            }
+            VersionManifest[] manifests = fabric
+                    ? new VersionManifest[] {fabricResolver.profile(version, fabricResolver.loaderVersion(version)), manifest}
+                    : new VersionManifest[] {manifest};
+            LibraryResolver.Resolved resolved = new LibraryResolver(Map.of()).resolve(manifests);
+            Set<String> queued = new HashSet<>();
+            List<VersionManifest.Artifact> artifacts = new ArrayList<>(resolved.classpath);
+            artifacts.addAll(resolved.natives);
+            for (VersionManifest.Artifact artifact : artifacts) {
+                if (!queued.add(artifact.path)) continue;
+                File out = new File(LIBS_DIR, artifact.path.replace("/", File.separator));
+                expected.add(new ParallelDownloader.Task(artifact.url, out, artifact.size, artifact.sha1));
+            }
+            if (manifest.assetIndex != null) expected.add(assetDownloader.indexTask(manifest.assetIndex));
+            List<ParallelDownloader.Task> bad = check.verify(expected, report, progress);
+            if (repair) {
+                progress.setPhase("Відновлення");
+                check.repair(bad, libraryDownloader, report, progress);
+            }
+            if (manifest.assetIndex != null && assetDownloader.indexFile(manifest.assetIndex).isFile()) {
+                progress.setPhase("Перевірка ресурсів");
+                bad = check.verify(assetDownloader.objectTasks(manifest.assetIndex), report, progress);
+                if (repair) {
+                    progress.setPhase("Відновлення");
+                    check.repair(bad, assetObjectDownloader, report, progress);
+                }
+            }
+        }
+        listener.log(version + ": перевірено " + report.files + " файлів, " + fmt(report.bytesHashed / 1024.0 / 1024.0)
+                + " МБ за " + report.millis + " мс (" + fmt(report.mbPerSecond()) + " МБ/с), невідповідних "
+                + report.mismatched.size() + (repair ? ", відновлено " + report.repaired : "")
+                + (report.mismatched.isEmpty() ? "" : "\n  " + String.join("\n  ", report.mismatched)));
+        return report;
+    }
+
+    // Видалення файлів, що не належать жодній встановленій версії чи екземпляру, та вилучення давно
+    // не запущених версій понад бюджет диска
+    public StorageGc.Report collectGarbage(long budgetBytes, boolean deep, boolean dryRun) throws IOException {
+        listener.status("Очищення невикористаних файлів...");
+        StorageGc.Report r = new StorageGc(store, manifestCache, fabricResolver, assetDownloader, new Instances(Instances.ROOT))
+                .run(budgetBytes, deep, dryRun);
+        listener.log((dryRun ? "Буде видалено" : "Видалено") + " файлів: " + r.filesDeleted + ", об'єктів сховища: " + r.objectsEvicted
+                + ", звільнено " + fmt(r.bytesFreed / 1024.0 / 1024.0) + " МБ за " + r.millis + " мс; живий набір "
+                + fmt(r.liveBytes / 1024.0 / 1024.0) + " МБ (" + String.join(", ", r.versionsKept) + ")"
+                + (r.versionsEvicted.isEmpty() ? "" : "; вилучено версії за бюджетом: " + String.join(", ", r.versionsEvicted)));
+        return r;
+    }
+
+    // DecimalFormat не потокобезпечний, а інсталятор спільний для кількох версій
+    private static String fmt(double value) {
+        return new DecimalFormat("#.##").format(value);
+    }
+
+    // gameDir — тека екземпляра (saves, options, mods); null — стара схема: робоча тека або .minecraft для Fabric
+    public LaunchPlan buildPlan(Installation inst, String javaPath, int javaMajor, File gameDir) throws IOException {
+        LauncherEvents.ClasspathBuild event = new LauncherEvents.ClasspathBuild();
+        event.begin();
+        long t0 = System.nanoTime();
+        VersionManifest manifest = inst.manifest;
+        String version = manifest.id;
+        LaunchPlan plan = new LaunchPlan();
+        plan.loader = "vanilla";
+        plan.javaPath = javaPath;
+        plan.javaMajor = javaMajor;
+        plan.workDir = gameDir != null ? gameDir : new File(System.getProperty("user.dir"));
+        LibraryResolver resolver = new LibraryResolver(Map.of());
+        if (manifest.jvmArguments.isEmpty()) {
+            // старі маніфести (minecraftArguments) не містять arguments.jvm
+            plan.jvmArgs.add("-Djava.library.path=" + inst.nativesDir.getAbsolutePath());
+        } else {
+            Map<String, String> vars = new HashMap<>();
+            vars.put("natives_directory", inst.nativesDir.getAbsolutePath());
+            vars.put("library_directory", LIBS_DIR.getAbsolutePath());
+            vars.put("classpath_separator", File.pathSeparator);
+            vars.put("launcher_name", "minecraft-launcher");
+            vars.put("launcher_version", "1.0");
+            vars.put("version_name", version);
+            plan.jvmArgs.addAll(resolver.resolveArguments(manifest.jvmArguments, vars));
+        }
+        for (File lib : inst.libraries) {
+            plan.classpath.add(lib.getAbsolutePath());
+        }
+        plan.classpath.add(inst.clientJar.getAbsolutePath());
+        plan.mainClass = "net.minecraft.client.main.Main";
+        plan.gameArgs.add("--username");
+        plan.gameArgs.add("Player");
+        plan.gameArgs.add("--accessToken");
+        plan.gameArgs.add("12345");
+        plan.gameArgs.add("--version");
+        plan.gameArgs.add(version);
+        if (gameDir != null) {
+            plan.gameArgs.add("--gameDir");
+            plan.gameArgs.add(gameDir.getAbsolutePath());
+        }
+        if (inst.assetIndexId != null) {
+            plan.gameArgs.add("--assetsDir");
+            plan.gameArgs.add(assetDownloader.getAssetsDir().getAbsolutePath());
+            plan.gameArgs.add("--assetIndex");
+            plan.gameArgs.add(inst.assetIndexId);
+        }
+        if (inst.fabricProfile != null) {
+            // Профіль Fabric успадковує ванільну версію: бібліотеки вже в classpath, тут лише main class,
+            // jvm-аргументи профілю та окрема тека гри з модами (для екземпляра — його власна)
+            plan.loader = "fabric";
+            if (gameDir == null) plan.workDir = FABRIC_GAME_DIR;
+            FileUtil.mkdirs(plan.workDir);
+            plan.mainClass = inst.fabricProfile.mainClass;
+            plan.jvmArgs.addAll(resolver.resolveArguments(inst.fabricProfile.jvmArguments, Map.of()));
+            plan.gameArgs.addAll(resolver.resolveArguments(inst.fabricProfile.gameArguments, Map.of()));
+        }
+        event.version = version;
+        event.loader = plan.loader;
+        event.entries = plan.classpath.size();
+        event.commit();
+        Metrics.recordNanos("classpath.build.ms", t0);
+        Metrics.record("classpath.entries", plan.classpath.size());
+        return plan;
+    }
+
+    // "" — ключ невідомий (маніфест ще не в кеші), план з кешу не використовується.
+    // javaPath — java, обрана для плану: оновлення JDK змінює mtime її release, видалення — сам шлях
+    public String planKey(String version, boolean fabric, String javaPath) {
+        String manifestSha1 = manifestCache.versionSha1(version);
+        if (manifestSha1 == null) return "";
+        String loader = "";
+        if (fabric) {
+            // незмінна версія loader — незмінний профіль, тож план з кешу лишається дійсним
+            try {
+                loader = "|fabric-" + fabricResolver.loaderVersion(version);
+            } catch (IOException ex) {
+                return "";
+            }
+        }
+        File java = new File(javaPath);
+        return LaunchPlan.key(manifestSha1 + loader, java, JavaRuntimes.releaseFile(java), clientJar(version), LIBS_DIR,
+                new File(assetDownloader.getAssetsDir(), "indexes"));
+    }
+
+    // План із cache/plans, якщо він досі дійсний для своєї java та встановлених файлів; інакше null
+    public LaunchPlan cachedPlan(File dir, String name, String version, boolean fabric) {
+        LaunchPlan plan = LaunchPlan.load(dir, name);
+        if (plan == null) return null;
+        String key = planKey(version, fabric, plan.javaPath);
+        return !key.isEmpty() && key.equals(plan.key) ? plan : null;
+    }
+}
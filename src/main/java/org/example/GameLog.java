@@ -0,0 +1,284 @@
+package org.example;
+
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Лог дочірнього процесу гри: рядки йдуть у кільцевий буфер (UI бачить лише останні N),
+// таймер раз на 100 мс додає їх у JTextArea однією порцією, а все підряд пишеться у файл у logs/.
+// Файл дописується щонайменше раз на секунду, навіть коли гра мовчить. Якщо файл уже веде інший
+// запущений лог (ця чи інша копія лаунчера), пишемо в <ім'я>-2.log, <ім'я>-3.log...
+public class GameLog {
+    private static final int FLUSH_INTERVAL_MS = 100;
+    private static final long FILE_FLUSH_MS = 1000;
+    private static final long MAX_FILE_BYTES = 16L * 1024 * 1024;
+    private static final int KEEP_ROTATED = 3;
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "pl-log-flush");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final JTextArea area;
+    private final int maxLines;
+    private final String[] ring;
+    private int head;
+    private int size;
+    private long dropped;
+    private final LogFile file;
+    private final Timer timer;
+    private final ScheduledFuture<?> flushTask;
+    private final AtomicReference<Watch> watch = new AtomicReference<>();
+    private final java.util.List<Thread> readers = new java.util.ArrayList<>();
+    private volatile java.util.function.Consumer<String> tap;
+
+    public GameLog(JTextArea area, int maxLines, File logFile) {
+        this.area = area;
+        this.maxLines = maxLines;
+        this.ring = new String[maxLines];
+        this.file = new LogFile(logFile);
+        this.timer = new Timer(FLUSH_INTERVAL_MS, e -> drainToView());
+        this.timer.start();
+        this.flushTask = FLUSHER.scheduleWithFixedDelay(file::flush, FILE_FLUSH_MS, FILE_FLUSH_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Файл, у який насправді пишеться лог (може відрізнятися від запитаного суфіксом -2, -3...)
+    public File file() {
+        return file.path;
+    }
+
+    // Потокобезпечно; викликається з потоків читання stdout/stderr
+    public void append(String line) {
+        synchronized (ring) {
+            if (size == ring.length) {
+                head = (head + 1) % ring.length;
+                size--;
+                dropped++;
+            }
+            ring[(head + size) % ring.length] = line;
+            size++;
+        }
+        file.write(line);
+        java.util.function.Consumer<String> t = tap;
+        if (t != null) t.accept(line);
+        Watch w = watch.get();
+        // stdout і stderr читаються різними потоками: дію виконує лише той, хто зняв її першим
+        if (w != null && line.contains(w.marker) && watch.compareAndSet(w, null)) w.action.run();
+    }
+
+    // Одноразова дія на перший рядок, що містить marker (напр. момент появи головного меню)
+    public void watchOnce(String marker, Runnable action) {
+        watch.set(new Watch(marker, action));
+    }
+
+    // Кожен рядок додатково передається слухачу (напр. ProcessMonitor для пауз GC); з потоків читання
+    public void tap(java.util.function.Consumer<String> listener) {
+        tap = listener;
+    }
+
+    public void attach(Process proc, String outPrefix, String errPrefix) {
+        readers.add(startReader(proc.getInputStream(), outPrefix, "pl-game-out"));
+        readers.add(startReader(proc.getErrorStream(), errPrefix, "pl-game-err"));
+    }
+
+    // Після завершення процесу: дочитати його вивід, злити залишок у вікно, зупинити таймер і закрити файл
+    public void close() {
+        for (Thread t : readers) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        flushTask.cancel(false);
+        file.close();
+        SwingUtilities.invokeLater(() -> {
+            drainToView();
+            timer.stop();
+        });
+    }
+
+    private Thread startReader(InputStream stream, String prefix, String name) {
+        Thread t = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream), 64 * 1024)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    append(prefix.isEmpty() ? line : prefix + line);
+                }
+            } catch (IOException ignored) {
+            } finally {
+                file.flush();
+            }
+        }, name);
+        t.setDaemon(true);
+        t.start();
+        return t;
+    }
+
+    private void drainToView() {
+        StringBuilder batch;
+        long skipped;
+        synchronized (ring) {
+            if (size == 0) return;
+            batch = new StringBuilder(size * 80);
+            for (int i = 0; i < size; i++) {
+                int idx = (head + i) % ring.length;
+                batch.append(ring[idx]).append('\n');
+                ring[idx] = null;
+            }
+            head = 0;
+            size = 0;
+            skipped = dropped;
+            dropped = 0;
+        }
+        if (skipped > 0) {
+            area.append("... пропущено " + skipped + " рядків (повний лог у " + file.path + ")\n");
+        }
+        area.append(batch.toString());
+        trimView();
+    }
+
+    private void trimView() {
+        Document doc = area.getDocument();
+        Element root = doc.getDefaultRootElement();
+        int excess = root.getElementCount() - maxLines;
+        if (excess <= 0) return;
+        try {
+            doc.remove(0, root.getElement(excess - 1).getEndOffset());
+        } catch (BadLocationException ignored) {}
+    }
+
+    private static final class Watch {
+        final String marker;
+        final Runnable action;
+
+        Watch(String marker, Runnable action) {
+            this.marker = marker;
+            this.action = action;
+        }
+    }
+
+    private static class LogFile {
+        private final File path;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        private FileChannel lockChannel;
+        private FileChannel channel;
+        private long written;
+        private boolean broken;
+
+        LogFile(File requested) {
+            this.path = claim(requested);
+        }
+
+        // Перший вільний з <ім'я>.log, <ім'я>-2.log, ...: зайнятий той, на чий .lock тримає блокування інший лог
+        private File claim(File requested) {
+            File dir = requested.getAbsoluteFile().getParentFile();
+            String name = requested.getName();
+            int dot = name.lastIndexOf('.');
+            String base = dot > 0 ? name.substring(0, dot) : name;
+            String ext = dot > 0 ? name.substring(dot) : "";
+            try {
+                FileUtil.mkdirs(dir);
+                for (int i = 1; i < 100; i++) {
+                    File candidate = i == 1 ? requested : new File(dir, base + "-" + i + ext);
+                    FileChannel ch = FileChannel.open(new File(candidate.getPath() + ".lock").toPath(),
+                            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                    FileLock lock;
+                    try {
+                        lock = ch.tryLock();
+                    } catch (OverlappingFileLockException e) {
+                        lock = null;
+                    }
+                    if (lock != null) {
+                        lockChannel = ch;
+                        return candidate;
+                    }
+                    ch.close();
+                }
+            } catch (IOException ignored) {
+                // без блокування пишемо як раніше
+            }
+            return requested;
+        }
+
+        synchronized void write(String line) {
+            if (broken) return;
+            byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+            try {
+                if (bytes.length > buffer.remaining()) flushBuffer();
+                if (bytes.length > buffer.capacity()) {
+                    writeFully(ByteBuffer.wrap(bytes));
+                } else {
+                    buffer.put(bytes);
+                }
+            } catch (IOException e) {
+                broken = true;
+            }
+        }
+
+        synchronized void close() {
+            flush();
+            broken = true;
+            try {
+                if (channel != null) channel.close();
+            } catch (IOException ignored) {}
+            try {
+                if (lockChannel != null) lockChannel.close();
+            } catch (IOException ignored) {}
+        }
+
+        synchronized void flush() {
+            if (broken) return;
+            try {
+                flushBuffer();
+            } catch (IOException e) {
+                broken = true;
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            buffer.flip();
+            if (buffer.hasRemaining()) writeFully(buffer);
+            buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer src) throws IOException {
+            if (channel == null || written >= MAX_FILE_BYTES) rotate();
+            while (src.hasRemaining()) {
+                written += channel.write(src);
+            }
+        }
+
+        private void rotate() throws IOException {
+            if (channel != null) channel.close();
+            FileUtil.mkdirs(path.getParentFile());
+            if (path.exists()) {
+                for (int i = KEEP_ROTATED - 1; i >= 1; i--) {
+                    File from = new File(path.getPath() + "." + i);
+                    if (from.exists()) {
+                        Files.move(from.toPath(), new File(path.getPath() + "." + (i + 1)).toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                Files.move(path.toPath(), new File(path.getPath() + ".1").toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            channel = FileChannel.open(path.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            written = 0;
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package org.example;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+public class HttpDownloader {
+    public static final long SEGMENT_THRESHOLD = 8L * 1024 * 1024;
+    public static final int SEGMENTS = Integer.getInteger("pl.download.segments", 4);
+    private static final int MAX_ATTEMPTS = 5;
+    private static final int CONNECT_TIMEOUT_MS = 15_000;
+    private static final int READ_TIMEOUT_MS = Integer.getInteger("pl.download.readTimeout", 30_000);
+    // коли є куди перейти, не чекаємо на повільний хост довго
+    private static final int MIRROR_ATTEMPTS = 2;
+    private static final int MIRROR_CONNECT_TIMEOUT_MS = 5_000;
+    private static final int MIRROR_READ_TIMEOUT_MS = Integer.getInteger("pl.download.mirrorReadTimeout", 10_000);
+
+    private final Mirrors mirrors;
+    private int maxAttempts = MAX_ATTEMPTS;
+    private int connectTimeoutMs = CONNECT_TIMEOUT_MS;
+    private int readTimeoutMs = READ_TIMEOUT_MS;
+
+    public HttpDownloader() {
+        this(Mirrors.getDefault());
+    }
+
+    public HttpDownloader(Mirrors mirrors) {
+        this.mirrors = mirrors;
+    }
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    static {
+        // з'єднання повертаються у keep-alive кеш лише після повного читання тіла без disconnect();
+        // за замовчуванням JDK тримає лише 5 простоюючих з'єднань на хост
+        if (System.getProperty("http.maxConnections") == null) {
+            System.setProperty("http.maxConnections", "32");
+        }
+    }
+
+    public static class Result {
+        public final long length;
+        public final String sha1;
+
+        Result(long length, String sha1) {
+            this.length = length;
+            this.sha1 = sha1;
+        }
+    }
+
+    private static class Metadata {
+        long length = -1;
+        boolean ranges;
+    }
+
+    private static class Segment {
+        final long start;
+        final long end;
+        volatile long done;
+
+        Segment(long start, long end, long done) {
+            this.start = start;
+            this.end = end;
+            this.done = done;
+        }
+
+        long remaining() {
+            return end - start + 1 - done;
+        }
+    }
+
+    // SHA-1 сегментованого файлу під час запису: байти, що продовжують уже захешований префікс, ідуть
+    // у дайджест одразу; сегменти, що встигли раніше, дочитуються з файлу, щойно префікс до них дійде
+    private static class SegmentHasher {
+        private final MessageDigest md = ArtifactStore.newSha1();
+        private final List<Segment> segments;
+        private final FileChannel channel;
+        private final ByteBuffer readBack = ByteBuffer.allocate(BUFFER_SIZE);
+        private long hashed;
+
+        SegmentHasher(List<Segment> segments, FileChannel channel) {
+            this.segments = segments;
+            this.channel = channel;
+        }
+
+        // викликається після запису блоку та збільшення s.done
+        synchronized void written(byte[] buffer, int length, long offset) throws IOException {
+            if (offset != hashed) return;
+            md.update(buffer, 0, length);
+            hashed += length;
+            catchUp();
+        }
+
+        // дочитати з файлу вже записане, що безпосередньо продовжує префікс (сегменти — за зростанням start)
+        synchronized void catchUp() throws IOException {
+            for (Segment s : segments) {
+                long written = s.start + s.done;
+                while (hashed >= s.start && hashed < written) {
+                    readBack.clear().limit((int) Math.min(readBack.capacity(), written - hashed));
+                    int n = channel.read(readBack, hashed);
+                    if (n < 0) throw new EOFException("Файл коротший за записане: " + hashed);
+                    md.update(readBack.array(), 0, n);
+                    hashed += n;
+                }
+            }
+        }
+
+        synchronized long hashed() {
+            return hashed;
+        }
+
+        synchronized String hex() {
+            return ArtifactStore.toHex(md.digest());
+        }
+    }
+
+    // Завантажує url у part-файл, продовжуючи з місця обриву. Повертає довжину та SHA-1 вмісту.
+    // З дзеркалами: помилка, тайм-аут або невірний хеш на одному хості — перехід до наступного.
+    // Вміст однаковий на всіх дзеркалах, тож .part від попереднього хоста продовжується через Range.
+    public Result download(String url, File part, long expectedSize, String expectedSha1,
+                           ArtifactStore.ByteCounter counter) throws IOException {
+        List<String> urls = mirrors.candidates(url, expectedSha1);
+        if (urls.size() > 1) {
+            maxAttempts = MIRROR_ATTEMPTS;
+            connectTimeoutMs = MIRROR_CONNECT_TIMEOUT_MS;
+            readTimeoutMs = MIRROR_READ_TIMEOUT_MS;
+        }
+        IOException last = null;
+        LauncherEvents.ArtifactDownload event = new LauncherEvents.ArtifactDownload();
+        event.url = url;
+        event.begin();
+        // Байти, які ця спроба вже додала до прогресу. Наступне дзеркало заново рахує продовжений .part
+        // (або починає з нуля), тож перед ним і при остаточній невдачі їх віднімаємо — інакше bytesDone
+        // перевищить bytesTotal, а ETA поїде.
+        LongAdder counted = new LongAdder();
+        ArtifactStore.ByteCounter tracked = n -> {
+            counted.add(n);
+            counter.add(n);
+        };
+        boolean done = false;
+        try {
+            for (String candidate : urls) {
+                rollback(counted, counter);
+                event.attemptedHosts++;
+                long before = part.exists() ? part.length() : 0;
+                long t0 = System.nanoTime();
+                try {
+                    Result result = downloadFrom(candidate, part, expectedSize, tracked);
+                    if (expectedSha1 != null && !expectedSha1.equals(result.sha1)) {
+                        Files.deleteIfExists(part.toPath());
+                        mirrors.recordFailure(candidate);
+                        last = new IOException("Контрольна сума не збігається для " + candidate + ": отримано " + result.sha1);
+                        continue;
+                    }
+                    mirrors.recordSuccess(candidate, result.length - before, System.nanoTime() - t0);
+                    event.host = host(candidate);
+                    event.bytes = result.length - before;
+                    event.commit();
+                    Metrics.increment("download.cache.miss");
+                    Metrics.add("download.bytes", event.bytes);
+                    Metrics.add("download.host." + event.host + ".bytes", event.bytes);
+                    Metrics.recordNanos("download.ms", t0);
+                    if (event.attemptedHosts > 1) Metrics.increment("download.failover");
+                    done = true;
+                    return result;
+                } catch (FileNotFoundException ex) {
+                    // у LAN-вузла може просто не бути цього об'єкта — це не ознака несправності
+                    if (!mirrors.isPeer(candidate)) mirrors.recordFailure(candidate);
+                    last = ex;
+                } catch (IOException ex) {
+                    if (cancelled(ex)) throw ex;
+                    // у тому числі тайм-аут: завислий хост — привід перейти на наступне дзеркало
+                    mirrors.recordFailure(candidate);
+                    last = ex;
+                }
+            }
+            Metrics.increment("download.failed");
+            throw last;
+        } finally {
+            // невдача з будь-якої причини, у тому числі скасування: у прогресі не лишається нічого від цього файлу
+            if (!done) rollback(counted, counter);
+        }
+    }
+
+    private static void rollback(LongAdder counted, ArtifactStore.ByteCounter counter) {
+        long n = counted.sumThenReset();
+        if (n != 0) counter.add(-n);
+    }
+
+    // Скасування (переривання потоку) — на відміну від тайм-ауту сокета, який теж InterruptedIOException,
+    // але означає лише повільний або завислий хост: його повторюємо або переходимо на інше дзеркало
+    static boolean cancelled(IOException ex) {
+        return Thread.currentThread().isInterrupted()
+                || (ex instanceof InterruptedIOException && !(ex instanceof SocketTimeoutException));
+    }
+
+    private static String host(String url) {
+        try {
+            return new URL(url).getAuthority();
+        } catch (IOException ex) {
+            return "?";
+        }
+    }
+
+    private Result downloadFrom(String url, File part, long expectedSize, ArtifactStore.ByteCounter counter) throws IOException {
+        File segFile = new File(part.getPath() + ".seg");
+        if (segFile.exists() || expectedSize <= 0 || expectedSize >= SEGMENT_THRESHOLD) {
+            Metadata meta;
+            try {
+                meta = head(url);
+            } catch (IOException ex) {
+                if (cancelled(ex)) throw ex;
+                // без HEAD (помилка чи тайм-аут) — звичайний GET
+                meta = new Metadata();
+            }
+            if (meta.ranges && meta.length >= SEGMENT_THRESHOLD && SEGMENTS > 1) {
+                return downloadSegmented(url, part, segFile, meta.length, counter);
+            }
+        }
+        if (Files.deleteIfExists(segFile.toPath())) {
+            // сегменти від попередньої спроби не можна продовжити послідовно
+            Files.deleteIfExists(part.toPath());
+        }
+        return downloadSequential(url, part, expectedSize, counter);
+    }
+
+    static HttpURLConnection open(String url, String method) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        conn.setRequestMethod(method);
+        conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        conn.setReadTimeout(READ_TIMEOUT_MS);
+        conn.setRequestProperty("User-Agent", "Mozilla/5.0");
+        return conn;
+    }
+
+    private HttpURLConnection connect(String url, String method) throws IOException {
+        HttpURLConnection conn = open(url, method);
+        conn.setConnectTimeout(connectTimeoutMs);
+        conn.setReadTimeout(readTimeoutMs);
+        return conn;
+    }
+
+    private Metadata head(String url) throws IOException {
+        HttpURLConnection conn = connect(url, "HEAD");
+        Metadata meta = new Metadata();
+        int code = conn.getResponseCode();
+        if (code >= 400) {
+            conn.disconnect();
+            throw new IOException("HTTP " + code + " для " + url);
+        }
+        meta.length = conn.getContentLengthLong();
+        meta.ranges = "bytes".equalsIgnoreCase(conn.getHeaderField("Accept-Ranges"));
+        return meta;
+    }
+
+    private Result downloadSequential(String url, File part, long expectedSize, ArtifactStore.ByteCounter counter) throws IOException {
+        MessageDigest md = ArtifactStore.newSha1();
+        long pos = part.exists() ? part.length() : 0;
+        if (expectedSize > 0 && pos > expectedSize) pos = 0;
+        if (pos > 0) {
+            hashPrefix(part, pos, md);
+            counter.add(pos);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (int attempt = 1; ; attempt++) {
+            HttpURLConnection conn = connect(url, "GET");
+            if (pos > 0) conn.setRequestProperty("Range", "bytes=" + pos + "-");
+            try {
+                int code = conn.getResponseCode();
+                if (code == 416 && pos > 0 && pos == expectedSize) {
+                    return new Result(pos, ArtifactStore.toHex(md.digest()));
+                }
+                if (pos > 0 && code != 206) {
+                    // сервер проігнорував Range — починаємо спочатку, уже зараховане в прогрес знімаємо
+                    counter.add(-pos);
+                    pos = 0;
+                    md.reset();
+                    if (code == 416) continue;
+                }
+                if (code == HttpURLConnection.HTTP_NOT_FOUND) throw new FileNotFoundException("HTTP 404 для " + url);
+                if (code >= 400) throw new IOException("HTTP " + code + " для " + url);
+                long contentLength = conn.getContentLengthLong();
+                long expectedEnd = contentLength >= 0 ? pos + contentLength : -1;
+                try (InputStream in = conn.getInputStream();
+                     OutputStream out = new FileOutputStream(part, pos > 0)) {
+                    int bytesRead;
+                    while ((bytesRead = in.read(buffer)) != -1) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new InterruptedIOException("Завантаження перервано: " + url);
+                        }
+                        out.write(buffer, 0, bytesRead);
+                        md.update(buffer, 0, bytesRead);
+                        pos += bytesRead;
+                        counter.add(bytesRead);
+                    }
+                }
+                if (expectedEnd >= 0 && pos < expectedEnd) throw new EOFException("Обрив з'єднання: " + url);
+                return new Result(pos, ArtifactStore.toHex(md.digest()));
+            } catch (IOException ex) {
+                conn.disconnect();
+                // 404 повтор не виправить; тайм-аут читання продовжуємо з Range, як і обрив
+                if (cancelled(ex) || ex instanceof FileNotFoundException || attempt >= maxAttempts) throw ex;
+                // продовжимо з поточної позиції, .part файл лишається; прогрес — рівно те, що в ньому
+                long kept = part.exists() ? part.length() : 0;
+                counter.add(kept - pos);
+                pos = kept;
+                md.reset();
+                if (pos > 0) hashPrefix(part, pos, md);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private Result downloadSegmented(String url, File part, File segFile, long length, ArtifactStore.ByteCounter counter) throws IOException {
+        List<Segment> segments = loadSegments(segFile, length);
+        if (segments == null) {
+            segments = new ArrayList<>();
+            long chunk = (length + SEGMENTS - 1) / SEGMENTS;
+            for (long start = 0; start < length; start += chunk) {
+                segments.add(new Segment(start, Math.min(length, start + chunk) - 1, 0));
+            }
+            Files.deleteIfExists(part.toPath());
+        }
+        long resumed = 0;
+        for (Segment s : segments) resumed += s.done;
+        if (resumed > 0) counter.add(resumed);
+
+        List<Segment> all = segments;
+        ExecutorService pool = Executors.newFixedThreadPool(segments.size(), r -> {
+            Thread t = new Thread(r, "pl-segment");
+            t.setDaemon(true);
+            return t;
+        });
+        try (FileChannel channel = FileChannel.open(part.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ)) {
+            saveSegments(segFile, all);
+            SegmentHasher hasher = new SegmentHasher(all, channel);
+            // продовження: завершений на диску префікс хешуємо до старту потоків
+            hasher.catchUp();
+            List<Future<?>> futures = new ArrayList<>();
+            for (Segment s : segments) {
+                if (s.remaining() <= 0) continue;
+                futures.add(pool.submit(() -> {
+                    fetchSegment(url, channel, s, segFile, all, hasher, counter);
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException ex) {
+                    futures.forEach(other -> other.cancel(true));
+                    Throwable cause = ex.getCause();
+                    if (cause instanceof IOException io) throw io;
+                    throw new IOException(cause);
+                }
+            }
+            channel.force(false);
+            hasher.catchUp();
+            Files.deleteIfExists(segFile.toPath());
+            return new Result(hasher.hashed(), hasher.hex());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Завантаження перервано: " + url);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void fetchSegment(String url, FileChannel channel, Segment s, File segFile, List<Segment> all,
+                              SegmentHasher hasher, ArtifactStore.ByteCounter counter) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long sinceSave = 0;
+        for (int attempt = 1; s.remaining() > 0; attempt++) {
+            HttpURLConnection conn = connect(url, "GET");
+            conn.setRequestProperty("Range", "bytes=" + (s.start + s.done) + "-" + s.end);
+            try {
+                int code = conn.getResponseCode();
+                if (code != 206) throw new IOException("Сервер не підтримує Range (HTTP " + code + ") для " + url);
+                try (InputStream in = conn.getInputStream()) {
+                    int bytesRead;
+                    while (s.remaining() > 0 && (bytesRead = in.read(buffer, 0, (int) Math.min(buffer.length, s.remaining()))) != -1) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new InterruptedIOException("Завантаження перервано: " + url);
+                        }
+                        ByteBuffer bb = ByteBuffer.wrap(buffer, 0, bytesRead);
+                        long offset = s.start + s.done;
+                        while (bb.hasRemaining()) {
+                            offset += channel.write(bb, offset);
+                        }
+                        s.done += bytesRead;
+                        hasher.written(buffer, bytesRead, offset - bytesRead);
+                        counter.add(bytesRead);
+                        sinceSave += bytesRead;
+                        if (sinceSave >= 4L * 1024 * 1024) {
+                            saveSegments(segFile, all);
+                            sinceSave = 0;
+                        }
+                    }
+                }
+                if (s.remaining() > 0) throw new EOFException("Обрив з'єднання: " + url);
+            } catch (IOException ex) {
+                conn.disconnect();
+                saveSegments(segFile, all);
+                if (cancelled(ex) || attempt >= maxAttempts) throw ex;
+                backoff(attempt);
+            }
+        }
+        saveSegments(segFile, all);
+    }
+
+    private static List<Segment> loadSegments(File segFile, long length) {
+        if (!segFile.exists()) return null;
+        try {
+            List<String> lines = Files.readAllLines(segFile.toPath(), StandardCharsets.UTF_8);
+            if (lines.isEmpty() || Long.parseLong(lines.get(0).trim()) != length) return null;
+            List<Segment> segments = new ArrayList<>();
+            for (String line : lines.subList(1, lines.size())) {
+                String[] p = line.trim().split(" ");
+                if (p.length != 3) return null;
+                segments.add(new Segment(Long.parseLong(p[0]), Long.parseLong(p[1]), Long.parseLong(p[2])));
+            }
+            return segments.isEmpty() ? null : segments;
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static synchronized void saveSegments(File segFile, List<Segment> segments) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        long length = segments.get(segments.size() - 1).end + 1;
+        sb.append(length).append('\n');
+        for (Segment s : segments) {
+            sb.append(s.start).append(' ').append(s.end).append(' ').append(s.done).append('\n');
+        }
+        Files.write(segFile.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void hashPrefix(File part, long length, MessageDigest md) throws IOException {
+        try (InputStream in = new FileInputStream(part)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long left = length;
+            int n;
+            while (left > 0 && (n = in.read(buffer, 0, (int) Math.min(buffer.length, left))) != -1) {
+                md.update(buffer, 0, n);
+                left -= n;
+            }
+        }
+        try (FileChannel ch = FileChannel.open(part.toPath(), StandardOpenOption.WRITE)) {
+            ch.truncate(length);
+        }
+    }
+
+    private static void backoff(int attempt) throws InterruptedIOException {
+        try {
+            Thread.sleep(250L * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Завантаження перервано");
+        }
+    }
+}
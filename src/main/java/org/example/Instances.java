@@ -0,0 +1,94 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.regex.Pattern;
+
+// Іменовані екземпляри: instances/<назва>/ — окрема тека гри (saves, options.txt, mods, logs),
+// instance.properties — версія та loader. Бібліотеки, client jar і ресурси спільні для всіх
+// (жорсткі посилання на ArtifactStore), тож новий екземпляр наявної версії не завантажує нічого.
+public class Instances {
+    public static final File ROOT = new File("instances");
+    private static final Pattern NAME = Pattern.compile("[\\p{L}\\p{N}][\\p{L}\\p{N} ._-]{0,31}");
+
+    public static class Instance {
+        public final String name;
+        public final String version;
+        public final boolean fabric;
+        public final File dir;
+
+        Instance(String name, String version, boolean fabric, File dir) {
+            this.name = name;
+            this.version = version;
+            this.fabric = fabric;
+            this.dir = dir;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + version + (fabric ? ", Fabric" : "") + ")";
+        }
+    }
+
+    private final File root;
+
+    public Instances(File root) {
+        this.root = root;
+    }
+
+    public List<Instance> list() {
+        List<Instance> out = new ArrayList<>();
+        File[] dirs = root.listFiles(File::isDirectory);
+        if (dirs == null) return out;
+        for (File dir : dirs) {
+            Properties props = FileUtil.loadProperties(new File(dir, "instance.properties"));
+            String version = props.getProperty("version");
+            if (version == null) continue;
+            out.add(new Instance(dir.getName(), version, "fabric".equals(props.getProperty("loader")), dir));
+        }
+        out.sort(Comparator.comparing(i -> i.name.toLowerCase(Locale.ROOT)));
+        return out;
+    }
+
+    public Instance create(String name, String version, boolean fabric) throws IOException {
+        name = name == null ? "" : name.trim();
+        if (!NAME.matcher(name).matches()) {
+            throw new IOException("Недопустима назва екземпляра: літери, цифри, пробіл, '.', '_' або '-', до 32 символів");
+        }
+        File dir = new File(root, name);
+        if (dir.exists()) throw new IOException("Екземпляр " + name + " уже існує");
+        FileUtil.mkdirs(dir);
+        Properties props = new Properties();
+        props.setProperty("version", version);
+        props.setProperty("loader", fabric ? "fabric" : "vanilla");
+        FileUtil.storeProperties(new File(dir, "instance.properties"), props);
+        return new Instance(name, version, fabric, dir);
+    }
+
+    // Блокування теки екземпляра на час роботи гри: другий лаунчер (або друга кнопка) не запустить
+    // той самий екземпляр двічі й не зіпсує світи. null — екземпляр уже запущено.
+    public Closeable tryLock(Instance instance) throws IOException {
+        FileChannel channel = FileChannel.open(new File(instance.dir, ".launcher.lock").toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                channel.close();
+                return null;
+            }
+            return () -> {
+                lock.release();
+                channel.close();
+            };
+        } catch (OverlappingFileLockException ex) {
+            channel.close();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+// Перевірка цілісності встановленої версії: кожен очікуваний файл (ParallelDownloader.Task — шлях, sha1, розмір)
+// хешується паралельно у ForkJoinPool. Великі файли читаються через mmap, решта — у direct-буфер потоку.
+// repair() видаляє лише невідповідні файли (і пошкоджені об'єкти сховища, на які вони посилаються)
+// і завантажує їх знову тим самим ParallelDownloader.
+public class IntegrityCheck implements AutoCloseable {
+    private static final long MMAP_THRESHOLD = 4L * 1024 * 1024;
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    // файлів на один лист fork-join: менше — дорожчий поділ, більше — гірший баланс на великих jar
+    private static final int LEAF_FILES = 8;
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    public static class Report {
+        public int files;
+        public long bytesHashed;
+        public long millis;
+        public int repaired;
+        public final List<String> mismatched = new ArrayList<>();
+
+        public double mbPerSecond() {
+            return millis > 0 ? bytesHashed / 1024.0 / 1024.0 * 1000.0 / millis : 0;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final ArtifactStore store;
+
+    public IntegrityCheck(int threads, ArtifactStore store) {
+        this.pool = new ForkJoinPool(Math.max(1, threads));
+        this.store = store;
+    }
+
+    // Повертає файли, що не відповідають очікуваному sha1/розміру або відсутні; підсумок додається в report
+    public List<ParallelDownloader.Task> verify(List<ParallelDownloader.Task> expected, Report report, DownloadProgress progress) {
+        long t0 = System.nanoTime();
+        long total = 0;
+        for (ParallelDownloader.Task t : expected) total += Math.max(0, t.size);
+        if (progress != null) progress.addWork(total, expected.size());
+        boolean[] bad = new boolean[expected.size()];
+        LongAdder hashed = new LongAdder();
+        pool.invoke(new Scan(expected, 0, expected.size(), bad, hashed, progress));
+        List<ParallelDownloader.Task> mismatched = new ArrayList<>();
+        for (int i = 0; i < bad.length; i++) {
+            if (bad[i]) mismatched.add(expected.get(i));
+        }
+        long millis = (System.nanoTime() - t0) / 1_000_000;
+        report.files += expected.size();
+        report.bytesHashed += hashed.sum();
+        report.millis += millis;
+        for (ParallelDownloader.Task t : mismatched) report.mismatched.add(t.dest.getPath());
+        Metrics.add("verify.files", expected.size());
+        Metrics.add("verify.bytes", hashed.sum());
+        Metrics.add("verify.mismatched", mismatched.size());
+        Metrics.record("verify.ms", millis);
+        return mismatched;
+    }
+
+    public void repair(List<ParallelDownloader.Task> mismatched, ParallelDownloader downloader, Report report,
+                       DownloadProgress progress) throws IOException {
+        if (mismatched.isEmpty()) return;
+        for (ParallelDownloader.Task t : mismatched) {
+            if (t.viaStore && t.sha1 != null) {
+                // жорстке посилання ділить inode з об'єктом сховища — тоді пошкоджено й сам об'єкт
+                File object = store.objectFile(t.sha1);
+                if (object.isFile()) {
+                    boolean shared = t.dest.isFile() && Files.isSameFile(object.toPath(), t.dest.toPath());
+                    if (shared || !matches(object, t.sha1, t.size, null)) store.evict(t.sha1);
+                }
+            }
+            Files.deleteIfExists(t.dest.toPath());
+        }
+        downloader.downloadAll(mismatched, progress);
+        report.repaired += mismatched.size();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private class Scan extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<ParallelDownloader.Task> tasks;
+        private final int from;
+        private final int to;
+        private final boolean[] bad;
+        private final LongAdder hashed;
+        private final DownloadProgress progress;
+
+        Scan(List<ParallelDownloader.Task> tasks, int from, int to, boolean[] bad, LongAdder hashed, DownloadProgress progress) {
+            this.tasks = tasks;
+            this.from = from;
+            this.to = to;
+            this.bad = bad;
+            this.hashed = hashed;
+            this.progress = progress;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_FILES) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Scan(tasks, from, mid, bad, hashed, progress), new Scan(tasks, mid, to, bad, hashed, progress));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                ParallelDownloader.Task t = tasks.get(i);
+                bad[i] = !matches(t.dest, t.sha1, t.size, hashed);
+                if (progress != null) {
+                    progress.add(Math.max(0, t.size));
+                    progress.fileDone();
+                }
+            }
+        }
+    }
+
+    // Без sha1 (частина бібліотек Fabric) — лише наявність і розмір
+    private static boolean matches(File file, String sha1, long size, LongAdder hashed) {
+        long length = file.length();
+        if (!file.isFile() || (size > 0 && length != size)) return false;
+        if (sha1 == null) return true;
+        try {
+            String actual = sha1(file, length);
+            if (hashed != null) hashed.add(length);
+            return sha1.equals(actual);
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    static String sha1(File file, long length) throws IOException {
+        MessageDigest md = ArtifactStore.newSha1();
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (length >= MMAP_THRESHOLD) {
+                for (long pos = 0; pos < length; ) {
+                    long chunk = Math.min(length - pos, Integer.MAX_VALUE);
+                    MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, pos, chunk);
+                    md.update(map);
+                    pos += chunk;
+                }
+            } else {
+                ByteBuffer buffer = BUFFERS.get();
+                buffer.clear();
+                while (ch.read(buffer) != -1) {
+                    buffer.flip();
+                    md.update(buffer);
+                    buffer.clear();
+                }
+            }
+        }
+        return ArtifactStore.toHex(md.digest());
+    }
+}
@@ -0,0 +1,184 @@
+package org.example;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+// Реєстр встановлених JDK/JRE. Версію читаємо з файлу <home>/release замість запуску `java -version`;
+// результат кешується за шляхом та mtime цього файлу.
+public class JavaRuntimes {
+    private static final boolean WINDOWS = System.getProperty("os.name").toLowerCase(Locale.ROOT).contains("win");
+
+    private final File cacheFile;
+
+    public static class Runtime {
+        public final File home;
+        public final JavaVersion version;
+        public final String vendor;
+
+        Runtime(File home, JavaVersion version, String vendor) {
+            this.home = home;
+            this.version = version;
+            this.vendor = vendor;
+        }
+
+        public String javaPath() {
+            return new File(new File(home, "bin"), WINDOWS ? "java.exe" : "java").getAbsolutePath();
+        }
+
+        @Override
+        public String toString() {
+            return version + (vendor != null ? " (" + vendor + ")" : "") + " — " + home;
+        }
+    }
+
+    public JavaRuntimes(File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    public List<Runtime> scan() {
+        LauncherEvents.JavaDetection event = new LauncherEvents.JavaDetection();
+        event.begin();
+        long t0 = System.nanoTime();
+        Properties cache = FileUtil.loadProperties(cacheFile);
+        Properties updated = new Properties();
+        List<Runtime> runtimes = new ArrayList<>();
+        for (File home : candidateHomes()) {
+            File release = new File(home, "release");
+            long mtime = release.lastModified();
+            if (mtime == 0) continue;
+            String key = home.getAbsolutePath();
+            String entry = cache.getProperty(key);
+            String[] parts = entry != null ? entry.split("\\|", 3) : null;
+            if (parts == null || parts.length < 3 || !parts[0].equals(Long.toString(mtime))) {
+                String[] info = readRelease(release);
+                event.releaseFilesRead++;
+                if (info == null) continue;
+                parts = new String[] {Long.toString(mtime), info[0], info[1]};
+            }
+            JavaVersion version = JavaVersion.parse(parts[1]);
+            if (version == null || !new File(new File(home, "bin"), WINDOWS ? "java.exe" : "java").isFile()) continue;
+            updated.setProperty(key, parts[0] + "|" + parts[1] + "|" + parts[2]);
+            runtimes.add(new Runtime(home, version, parts[2].isEmpty() ? null : parts[2]));
+        }
+        if (!updated.equals(cache)) {
+            try {
+                FileUtil.storeProperties(cacheFile, updated);
+            } catch (IOException ignored) {}
+        }
+        event.runtimes = runtimes.size();
+        event.commit();
+        Metrics.recordNanos("java.scan.ms", t0);
+        return runtimes;
+    }
+
+    // <home>/release для <home>/bin/java; його mtime змінюється з кожним оновленням JDK
+    public static File releaseFile(File java) {
+        File bin = java.getAbsoluteFile().getParentFile();
+        File home = bin != null ? bin.getParentFile() : null;
+        return new File(home != null ? home : new File("."), "release");
+    }
+
+    // Точний збіг мажорної версії, інакше найближча новіша; серед однакових — найсвіжіше оновлення
+    public static Runtime best(List<Runtime> runtimes, int requiredMajor) {
+        Runtime best = null;
+        for (Runtime r : runtimes) {
+            if (!r.version.isAtLeast(requiredMajor)) continue;
+            if (best == null) {
+                best = r;
+                continue;
+            }
+            boolean exact = r.version.major() == requiredMajor;
+            boolean bestExact = best.version.major() == requiredMajor;
+            if (exact != bestExact) {
+                if (exact) best = r;
+            } else if (r.version.major() != best.version.major()) {
+                if (r.version.major() < best.version.major()) best = r;
+            } else if (r.version.compareTo(best.version) > 0) {
+                best = r;
+            }
+        }
+        return best;
+    }
+
+    private static Set<File> candidateHomes() {
+        Set<File> homes = new LinkedHashSet<>();
+        String javaHome = System.getenv("JAVA_HOME");
+        if (javaHome != null && !javaHome.isEmpty()) homes.add(canonical(new File(javaHome)));
+        File onPath = javaOnPath();
+        if (onPath != null) homes.add(onPath);
+        String userHome = System.getProperty("user.home");
+        List<File> roots = new ArrayList<>(List.of(
+                new File("/usr/lib/jvm"),
+                new File("/usr/java"),
+                new File("/opt/java"),
+                new File("/opt"),
+                new File(userHome, ".sdkman/candidates/java"),
+                new File(userHome, ".jdks"),
+                new File("/Library/Java/JavaVirtualMachines")
+        ));
+        if (WINDOWS) {
+            for (String env : new String[] {"ProgramFiles", "ProgramFiles(x86)"}) {
+                String pf = System.getenv(env);
+                if (pf == null) continue;
+                for (String vendor : new String[] {"Java", "Eclipse Adoptium", "Microsoft", "Zulu", "BellSoft", "Amazon Corretto"}) {
+                    roots.add(new File(pf, vendor));
+                }
+            }
+        }
+        for (File root : roots) {
+            File[] children = root.listFiles(File::isDirectory);
+            if (children == null) continue;
+            for (File child : children) {
+                File macHome = new File(child, "Contents/Home");
+                homes.add(canonical(macHome.isDirectory() ? macHome : child));
+            }
+        }
+        return homes;
+    }
+
+    private static File javaOnPath() {
+        String path = System.getenv("PATH");
+        if (path == null) return null;
+        for (String dir : path.split(File.pathSeparator)) {
+            File java = new File(dir, WINDOWS ? "java.exe" : "java");
+            if (java.isFile()) {
+                // /usr/bin/java -> /usr/lib/jvm/<jdk>/bin/java
+                File bin = canonical(java).getParentFile();
+                return bin != null ? bin.getParentFile() : null;
+            }
+        }
+        return null;
+    }
+
+    private static File canonical(File f) {
+        try {
+            return f.getCanonicalFile();
+        } catch (IOException e) {
+            return f.getAbsoluteFile();
+        }
+    }
+
+    // JAVA_VERSION="21.0.1", IMPLEMENTOR="Eclipse Adoptium"
+    private static String[] readRelease(File release) {
+        String version = null;
+        String vendor = "";
+        try {
+            for (String line : Files.readAllLines(release.toPath(), StandardCharsets.UTF_8)) {
+                int eq = line.indexOf('=');
+                if (eq < 0) continue;
+                String key = line.substring(0, eq).trim();
+                String value = line.substring(eq + 1).trim();
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                if (key.equals("JAVA_VERSION")) version = value;
+                else if (key.equals("IMPLEMENTOR")) vendor = value.replace('|', ' ');
+            }
+        } catch (IOException | UncheckedIOException e) {
+            return null;
+        }
+        return version != null ? new String[] {version, vendor} : null;
+    }
+}
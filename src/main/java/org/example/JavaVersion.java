@@ -0,0 +1,81 @@
+package org.example;
+
+// Версія Java: розуміє і нову схему ("21.0.1", "17", "22-ea"), і стару ("1.8.0_292")
+public final class JavaVersion implements Comparable<JavaVersion> {
+    private final int major;
+    private final int minor;
+    private final int patch;
+    private final String raw;
+
+    private JavaVersion(int major, int minor, int patch, String raw) {
+        this.major = major;
+        this.minor = minor;
+        this.patch = patch;
+        this.raw = raw;
+    }
+
+    public static JavaVersion parse(String version) {
+        if (version == null) return null;
+        String v = version.trim();
+        if (v.startsWith("\"") && v.endsWith("\"") && v.length() > 1) v = v.substring(1, v.length() - 1);
+        int[] parts = new int[4];
+        int count = 0;
+        int i = 0;
+        while (i < v.length() && count < parts.length) {
+            int start = i;
+            while (i < v.length() && Character.isDigit(v.charAt(i))) i++;
+            if (i == start) break;
+            parts[count++] = Integer.parseInt(v.substring(start, i));
+            if (i < v.length() && (v.charAt(i) == '.' || v.charAt(i) == '_')) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        if (count == 0) return null;
+        if (parts[0] == 1 && count > 1) {
+            // 1.8.0_292 -> major 8, update 292
+            return new JavaVersion(parts[1], parts[2], parts[3], version);
+        }
+        return new JavaVersion(parts[0], parts[1], parts[2], version);
+    }
+
+    // Рядок виводу `java -version`, напр. openjdk version "21.0.1" 2023-10-17
+    public static JavaVersion parseVersionLine(String versionLine) {
+        int idx = versionLine.indexOf('"');
+        if (idx < 0) return null;
+        int end = versionLine.indexOf('"', idx + 1);
+        if (end < 0) return null;
+        return parse(versionLine.substring(idx + 1, end));
+    }
+
+    public int major() {
+        return major;
+    }
+
+    public boolean isAtLeast(int requiredMajor) {
+        return major >= requiredMajor;
+    }
+
+    @Override
+    public int compareTo(JavaVersion o) {
+        if (major != o.major) return Integer.compare(major, o.major);
+        if (minor != o.minor) return Integer.compare(minor, o.minor);
+        return Integer.compare(patch, o.patch);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof JavaVersion v && compareTo(v) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return (major * 31 + minor) * 31 + patch;
+    }
+
+    @Override
+    public String toString() {
+        return raw;
+    }
+}
@@ -0,0 +1,337 @@
+package org.example;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Потоковий (pull) JSON-читач: один прохід по Reader через перевикористовуваний буфер, без substring/копій документа.
+public class JsonReader implements Closeable {
+    public enum Token { BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT }
+
+    private static final int EMPTY_ARRAY = 1;
+    private static final int NONEMPTY_ARRAY = 2;
+    private static final int EMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int NONEMPTY_OBJECT = 5;
+    private static final int EMPTY_DOCUMENT = 6;
+    private static final int NONEMPTY_DOCUMENT = 7;
+
+    private final Reader in;
+    private final char[] buf = new char[8192];
+    private int pos;
+    private int limit;
+    private int[] stack = new int[32];
+    private int depth;
+    private Token peeked;
+    private String literal;
+    private final StringBuilder sb = new StringBuilder();
+
+    public JsonReader(Reader in) {
+        this.in = in;
+        stack[depth++] = EMPTY_DOCUMENT;
+    }
+
+    public JsonReader(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    public static Object parse(InputStream in) throws IOException {
+        try (JsonReader r = new JsonReader(in)) {
+            return r.readTree();
+        }
+    }
+
+    public Token peek() throws IOException {
+        if (peeked != null) return peeked;
+        int scope = stack[depth - 1];
+        int c;
+        switch (scope) {
+            case EMPTY_ARRAY -> {
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                c = nextNonWhitespace();
+                if (c == ']') return peeked = Token.END_ARRAY;
+                pos--;
+            }
+            case NONEMPTY_ARRAY -> {
+                c = nextNonWhitespace();
+                if (c == ']') return peeked = Token.END_ARRAY;
+                if (c != ',') throw syntaxError("Очікувалось ',' або ']'");
+            }
+            case EMPTY_OBJECT, NONEMPTY_OBJECT -> {
+                stack[depth - 1] = DANGLING_NAME;
+                c = nextNonWhitespace();
+                if (c == '}') return peeked = Token.END_OBJECT;
+                if (scope == NONEMPTY_OBJECT) {
+                    if (c != ',') throw syntaxError("Очікувалось ',' або '}'");
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') throw syntaxError("Очікувалось ім'я поля");
+                return peeked = Token.NAME;
+            }
+            case DANGLING_NAME -> {
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                if (nextNonWhitespace() != ':') throw syntaxError("Очікувалось ':'");
+            }
+            case EMPTY_DOCUMENT -> stack[depth - 1] = NONEMPTY_DOCUMENT;
+            case NONEMPTY_DOCUMENT -> {
+                if (nextNonWhitespace() == -1) return peeked = Token.END_DOCUMENT;
+                throw syntaxError("Зайві символи після кінця документа");
+            }
+            default -> throw new IllegalStateException();
+        }
+        c = nextNonWhitespace();
+        switch (c) {
+            case '{' -> peeked = Token.BEGIN_OBJECT;
+            case '[' -> peeked = Token.BEGIN_ARRAY;
+            case '"' -> peeked = Token.STRING;
+            case 't', 'f' -> {
+                pos--;
+                literal = readLiteral();
+                if (!literal.equals("true") && !literal.equals("false")) throw syntaxError("Невідоме значення " + literal);
+                peeked = Token.BOOLEAN;
+            }
+            case 'n' -> {
+                pos--;
+                if (!readLiteral().equals("null")) throw syntaxError("Невідоме значення");
+                peeked = Token.NULL;
+            }
+            case -1 -> throw new EOFException("Неочікуваний кінець JSON");
+            default -> {
+                if (c != '-' && (c < '0' || c > '9')) throw syntaxError("Неочікуваний символ '" + (char) c + "'");
+                pos--;
+                literal = readLiteral();
+                peeked = Token.NUMBER;
+            }
+        }
+        return peeked;
+    }
+
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        depth--;
+    }
+
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        depth--;
+    }
+
+    public boolean hasNext() throws IOException {
+        Token t = peek();
+        return t != Token.END_OBJECT && t != Token.END_ARRAY && t != Token.END_DOCUMENT;
+    }
+
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        return readString();
+    }
+
+    public String nextString() throws IOException {
+        Token t = peek();
+        peeked = null;
+        return switch (t) {
+            case STRING -> readString();
+            case NUMBER, BOOLEAN -> literal;
+            case NULL -> null;
+            default -> throw syntaxError("Очікувався рядок, а не " + t);
+        };
+    }
+
+    public long nextLong() throws IOException {
+        String s = nextString();
+        if (s == null) return 0;
+        try {
+            return Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            return (long) Double.parseDouble(s);
+        }
+    }
+
+    public int nextInt() throws IOException {
+        return (int) nextLong();
+    }
+
+    public boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        return literal.equals("true");
+    }
+
+    public void skipValue() throws IOException {
+        int level = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT -> { beginObject(); level++; }
+                case BEGIN_ARRAY -> { beginArray(); level++; }
+                case END_OBJECT -> { endObject(); level--; }
+                case END_ARRAY -> { endArray(); level--; }
+                case NAME -> nextName();
+                case STRING -> skipString();
+                case END_DOCUMENT -> { return; }
+                default -> peeked = null;
+            }
+        } while (level > 0);
+    }
+
+    // Універсальне дерево (Map/List/String/Long/Double/Boolean/null) для невідомих структур
+    public Object readTree() throws IOException {
+        switch (peek()) {
+            case BEGIN_OBJECT -> {
+                Map<String, Object> map = new HashMap<>();
+                beginObject();
+                while (hasNext()) {
+                    String name = nextName();
+                    map.put(name, readTree());
+                }
+                endObject();
+                return map;
+            }
+            case BEGIN_ARRAY -> {
+                List<Object> list = new ArrayList<>();
+                beginArray();
+                while (hasNext()) list.add(readTree());
+                endArray();
+                return list;
+            }
+            case NUMBER -> {
+                String s = nextString();
+                try {
+                    return Long.parseLong(s);
+                } catch (NumberFormatException e) {
+                    return Double.parseDouble(s);
+                }
+            }
+            case BOOLEAN -> {
+                return nextBoolean();
+            }
+            case NULL -> {
+                peeked = null;
+                return null;
+            }
+            default -> {
+                return nextString();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void expect(Token expected) throws IOException {
+        Token t = peek();
+        if (t != expected) throw syntaxError("Очікувалось " + expected + ", а не " + t);
+        peeked = null;
+    }
+
+    private void push(int scope) {
+        if (depth == stack.length) {
+            int[] bigger = new int[depth * 2];
+            System.arraycopy(stack, 0, bigger, 0, depth);
+            stack = bigger;
+        }
+        stack[depth++] = scope;
+    }
+
+    private boolean fill() throws IOException {
+        pos = 0;
+        limit = in.read(buf, 0, buf.length);
+        if (limit < 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) return -1;
+            char c = buf[pos++];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') return c;
+        }
+    }
+
+    private String readLiteral() throws IOException {
+        sb.setLength(0);
+        while (true) {
+            if (pos == limit && !fill()) break;
+            char c = buf[pos];
+            if (c == ',' || c == '}' || c == ']' || c == ':' || c == ' ' || c == '\n' || c == '\r' || c == '\t') break;
+            sb.append(c);
+            pos++;
+        }
+        return sb.toString();
+    }
+
+    private String readString() throws IOException {
+        sb.setLength(0);
+        while (true) {
+            int start = pos;
+            while (pos < limit) {
+                char c = buf[pos++];
+                if (c == '"') {
+                    if (sb.length() == 0) return new String(buf, start, pos - start - 1);
+                    sb.append(buf, start, pos - start - 1);
+                    return sb.toString();
+                }
+                if (c == '\\') {
+                    sb.append(buf, start, pos - start - 1);
+                    sb.append(readEscape());
+                    start = pos;
+                }
+            }
+            sb.append(buf, start, pos - start);
+            if (!fill()) throw new EOFException("Незакритий рядок у JSON");
+        }
+    }
+
+    private void skipString() throws IOException {
+        peeked = null;
+        while (true) {
+            if (pos == limit && !fill()) throw new EOFException("Незакритий рядок у JSON");
+            char c = buf[pos++];
+            if (c == '"') return;
+            if (c == '\\') readEscape();
+        }
+    }
+
+    private char readEscape() throws IOException {
+        if (pos == limit && !fill()) throw new EOFException("Незакритий рядок у JSON");
+        char c = buf[pos++];
+        return switch (c) {
+            case 'n' -> '\n';
+            case 't' -> '\t';
+            case 'r' -> '\r';
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'u' -> {
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    if (pos == limit && !fill()) throw new EOFException("Незакритий рядок у JSON");
+                    int digit = Character.digit(buf[pos++], 16);
+                    if (digit < 0) throw syntaxError("Некоректний \\u escape");
+                    value = (value << 4) | digit;
+                }
+                yield (char) value;
+            }
+            default -> c;
+        };
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("Помилка JSON: " + message);
+    }
+}
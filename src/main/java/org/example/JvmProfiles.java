@@ -0,0 +1,181 @@
+package org.example;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+// Профілі JVM для процесу гри: розмір heap та GC підбираються за ОЗП і ядрами хоста (/proc),
+// типом завантажувача та кількістю модів. Вибір користувача зберігається окремо для кожної версії.
+public class JvmProfiles {
+    public enum Profile {
+        AUTO("Авто"), LOW("Економний"), BALANCED("Збалансований"), PERFORMANCE("Продуктивний"), CUSTOM("Власний");
+
+        public final String label;
+
+        Profile(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    public static class Host {
+        public final long totalMb;
+        public final int cores;
+
+        Host(long totalMb, int cores) {
+            this.totalMb = totalMb;
+            this.cores = cores;
+        }
+    }
+
+    public static class Settings {
+        public final Profile profile;
+        public final int heapMb;
+        public final String gc;
+        public final List<String> args = new ArrayList<>();
+
+        Settings(Profile profile, int heapMb, String gc) {
+            this.profile = profile;
+            this.heapMb = heapMb;
+            this.gc = gc;
+        }
+
+        @Override
+        public String toString() {
+            return profile.label + (heapMb > 0 ? ", heap " + heapMb + " МБ" : "") + (gc != null ? ", " + gc : "")
+                    + " — " + String.join(" ", args);
+        }
+    }
+
+    private final File file;
+    private Host host;
+
+    public JvmProfiles(File file) {
+        this.file = file;
+    }
+
+    public Profile selected(String version) {
+        String value = FileUtil.loadProperties(file).getProperty(version);
+        try {
+            return value != null ? Profile.valueOf(value) : Profile.AUTO;
+        } catch (IllegalArgumentException e) {
+            return Profile.AUTO;
+        }
+    }
+
+    public String customArgs(String version) {
+        return FileUtil.loadProperties(file).getProperty(version + ".custom", "");
+    }
+
+    public void select(String version, Profile profile, String customArgs) throws IOException {
+        Properties p = FileUtil.loadProperties(file);
+        p.setProperty(version, profile.name());
+        if (customArgs != null) p.setProperty(version + ".custom", customArgs.trim());
+        FileUtil.storeProperties(file, p);
+    }
+
+    public synchronized Host host() {
+        if (host == null) host = detectHost();
+        return host;
+    }
+
+    public Settings settings(String version, int javaMajor, boolean fabric, int modCount) {
+        Profile profile = selected(version);
+        if (profile == Profile.CUSTOM) {
+            Settings s = new Settings(profile, 0, null);
+            for (String arg : customArgs(version).split("\\s+")) {
+                if (!arg.isEmpty()) s.args.add(arg);
+            }
+            return s;
+        }
+        Host h = host();
+        // Ванільному клієнту вистачає 2 ГБ; Fabric сам по собі важчий, і кожен мод додає класи та ресурси
+        int needed = fabric ? 2560 + 48 * modCount : 2048;
+        // Залишаємо системі та пам'яті JVM поза heap щонайменше половину ОЗП і не менше 2 ГБ
+        int cap = (int) Math.max(1024, Math.min(h.totalMb / 2, h.totalMb - 2048));
+        boolean zgcAvailable = javaMajor >= 21;
+        if (profile == Profile.AUTO) {
+            profile = zgcAvailable && h.cores >= 8 && h.totalMb >= 16384 ? Profile.PERFORMANCE : Profile.BALANCED;
+        }
+        int heap;
+        boolean zgc;
+        switch (profile) {
+            case LOW -> {
+                heap = Math.max(1024, needed * 3 / 4);
+                zgc = false;
+            }
+            case PERFORMANCE -> {
+                heap = needed * 3 / 2;
+                cap = (int) Math.max(cap, Math.min(h.totalMb * 6 / 10, h.totalMb - 2048));
+                zgc = zgcAvailable;
+            }
+            default -> {
+                heap = needed;
+                zgc = false;
+            }
+        }
+        heap = roundTo256(Math.min(heap, cap));
+        Settings s = new Settings(profile, heap, zgc ? "ZGC" : "G1");
+        s.args.add("-Xms" + (profile == Profile.LOW ? Math.min(1024, heap) : heap) + "m");
+        s.args.add("-Xmx" + heap + "m");
+        if (zgc) {
+            s.args.add("-XX:+UseZGC");
+            // з Java 23 генераційний режим увімкнено за замовчуванням, а прапорець застарів
+            if (javaMajor < 23) s.args.add("-XX:+ZGenerational");
+        } else {
+            s.args.add("-XX:+UseG1GC");
+            s.args.add("-XX:MaxGCPauseMillis=" + (profile == Profile.LOW ? 100 : 50));
+            s.args.add("-XX:+UnlockExperimentalVMOptions");
+            s.args.add("-XX:G1NewSizePercent=30");
+            s.args.add("-XX:G1MaxNewSizePercent=40");
+            s.args.add("-XX:G1HeapRegionSize=8M");
+            s.args.add("-XX:G1ReservePercent=20");
+            s.args.add("-XX:InitiatingHeapOccupancyPercent=15");
+            s.args.add("-XX:+ParallelRefProcEnabled");
+        }
+        s.args.add("-XX:+DisableExplicitGC");
+        return s;
+    }
+
+    public static int countMods(File modsDir) {
+        File[] jars = modsDir.listFiles((d, n) -> n.endsWith(".jar"));
+        return jars != null ? jars.length : 0;
+    }
+
+    private static int roundTo256(int mb) {
+        return Math.max(1024, mb / 256 * 256);
+    }
+
+    // MemTotal з /proc/meminfo та кількість processor у /proc/cpuinfo (обмежена cgroup-квотою JVM)
+    private static Host detectHost() {
+        long totalMb = 0;
+        int cores = 0;
+        try {
+            for (String line : Files.readAllLines(new File("/proc/meminfo").toPath(), StandardCharsets.UTF_8)) {
+                if (line.startsWith("MemTotal:")) {
+                    totalMb = Long.parseLong(line.replaceAll("\\D+", "")) / 1024;
+                    break;
+                }
+            }
+            for (String line : Files.readAllLines(new File("/proc/cpuinfo").toPath(), StandardCharsets.UTF_8)) {
+                if (line.startsWith("processor")) cores++;
+            }
+        } catch (IOException | NumberFormatException | UncheckedIOException ignored) {}
+        int available = java.lang.Runtime.getRuntime().availableProcessors();
+        cores = cores > 0 ? Math.min(cores, available) : available;
+        if (totalMb == 0) {
+            // не Linux: беремо з OperatingSystemMXBean
+            java.lang.management.OperatingSystemMXBean os = java.lang.management.ManagementFactory.getOperatingSystemMXBean();
+            if (os instanceof com.sun.management.OperatingSystemMXBean sun) {
+                totalMb = sun.getTotalMemorySize() / (1024 * 1024);
+            }
+        }
+        if (totalMb == 0) totalMb = 4096;
+        return new Host(totalMb, cores);
+    }
+}
@@ -0,0 +1,152 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+// Готовий до запуску набір: java, classpath, main class та аргументи.
+// Зберігається у cache/plans, щоб теплий запуск не збирав classpath і не обробляв маніфести заново.
+public class LaunchPlan {
+    public String loader;
+    public String javaPath;
+    // 0 — невідомо; @argfile підтримується з Java 9
+    public int javaMajor;
+    public File workDir;
+    public String mainClass;
+    // ключ, з яким план збережено (див. GameInstaller.planKey); null — план ще не зберігався
+    public String key;
+    public final List<String> classpath = new ArrayList<>();
+    public final List<String> jvmArgs = new ArrayList<>();
+    public final List<String> gameArgs = new ArrayList<>();
+
+    public List<String> command() {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(javaPath);
+        cmd.addAll(jvmArgs);
+        cmd.add("-cp");
+        cmd.add(String.join(File.pathSeparator, classpath));
+        cmd.add(mainClass);
+        cmd.addAll(gameArgs);
+        return cmd;
+    }
+
+    // Те саме, але classpath передається через @argfile (десятки абсолютних шляхів не йдуть у командний рядок)
+    public List<String> command(File argFile, List<String> extraJvmArgs) throws IOException {
+        if (javaMajor < 9) {
+            List<String> cmd = command();
+            cmd.addAll(1, extraJvmArgs);
+            return cmd;
+        }
+        writeArgFile(argFile);
+        List<String> cmd = new ArrayList<>();
+        cmd.add(javaPath);
+        cmd.addAll(jvmArgs);
+        cmd.addAll(extraJvmArgs);
+        cmd.add("@" + argFile.getAbsolutePath());
+        cmd.add(mainClass);
+        cmd.addAll(gameArgs);
+        return cmd;
+    }
+
+    // Змінюється разом із java або складом classpath; використовується для інвалідації архіву CDS
+    public String classpathHash() {
+        MessageDigest md = ArtifactStore.newSha1();
+        md.update(javaPath.getBytes(StandardCharsets.UTF_8));
+        for (String entry : classpath) {
+            md.update((byte) 0);
+            md.update(entry.getBytes(StandardCharsets.UTF_8));
+        }
+        return ArtifactStore.toHex(md.digest());
+    }
+
+    private void writeArgFile(File argFile) throws IOException {
+        // У лапках @argfile зворотний слеш є екрануванням, тому шляхи Windows подвоюємо
+        String quoted = String.join(File.pathSeparator, classpath).replace("\\", "\\\\").replace("\"", "\\\"");
+        byte[] content = ("-cp\n\"" + quoted + "\"\n").getBytes(StandardCharsets.UTF_8);
+        if (argFile.isFile() && Arrays.equals(Files.readAllBytes(argFile.toPath()), content)) return;
+        FileUtil.mkdirs(argFile.getParentFile());
+        Files.write(argFile.toPath(), content);
+    }
+
+    // Ключ: sha1 маніфесту + шлях і mtime кожного входу (java та її release, client jar, каталоги бібліотек)
+    public static String key(String manifestSha1, File... inputs) {
+        StringBuilder sb = new StringBuilder(manifestSha1 == null ? "-" : manifestSha1);
+        for (File f : inputs) {
+            sb.append('|').append(f.getAbsolutePath()).append(':').append(f.lastModified());
+        }
+        MessageDigest md = ArtifactStore.newSha1();
+        return ArtifactStore.toHex(md.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Ключ перевіряє викликач: він залежить від java, записаної в самому плані
+    public static LaunchPlan load(File dir, String name) {
+        Properties p = FileUtil.loadProperties(new File(dir, name + ".plan"));
+        LaunchPlan plan = new LaunchPlan();
+        plan.key = p.getProperty("key");
+        plan.loader = p.getProperty("loader");
+        plan.javaPath = p.getProperty("java");
+        try {
+            plan.javaMajor = Integer.parseInt(p.getProperty("javaMajor", "0"));
+        } catch (NumberFormatException ignored) {}
+        plan.mainClass = p.getProperty("mainClass");
+        String workDir = p.getProperty("workDir");
+        if (plan.key == null || plan.javaPath == null || plan.mainClass == null || workDir == null) return null;
+        // JDK видалено — план із запуском неіснуючої java не повертаємо
+        if (!new File(plan.javaPath).isFile()) return null;
+        plan.workDir = new File(workDir);
+        readList(p, "cp", plan.classpath);
+        readList(p, "jvm", plan.jvmArgs);
+        readList(p, "game", plan.gameArgs);
+        // mtime каталогу не бачить змін у вкладених теках — перевіряємо, що всі jar на місці
+        for (String entry : plan.classpath) {
+            if (!new File(entry).isFile()) return null;
+        }
+        return plan;
+    }
+
+    public void save(File dir, String name, String key) throws IOException {
+        this.key = key;
+        Properties p = new Properties();
+        p.setProperty("key", key);
+        p.setProperty("loader", loader);
+        p.setProperty("java", javaPath);
+        p.setProperty("javaMajor", Integer.toString(javaMajor));
+        p.setProperty("mainClass", mainClass);
+        p.setProperty("workDir", workDir.getAbsolutePath());
+        writeList(p, "cp", classpath);
+        writeList(p, "jvm", jvmArgs);
+        writeList(p, "game", gameArgs);
+        FileUtil.storeProperties(new File(dir, name + ".plan"), p);
+    }
+
+    // План не спрацював (java чи файли змінилися між перевіркою і запуском) — наступний запуск збирає його заново
+    public static void delete(File dir, String name) throws IOException {
+        Files.deleteIfExists(new File(dir, name + ".plan").toPath());
+    }
+
+    private static void readList(Properties p, String prefix, List<String> out) {
+        int n;
+        try {
+            n = Integer.parseInt(p.getProperty(prefix + ".size", "0"));
+        } catch (NumberFormatException e) {
+            return;
+        }
+        for (int i = 0; i < n; i++) {
+            String v = p.getProperty(prefix + "." + i);
+            if (v != null) out.add(v);
+        }
+    }
+
+    private static void writeList(Properties p, String prefix, List<String> values) {
+        p.setProperty(prefix + ".size", Integer.toString(values.size()));
+        for (int i = 0; i < values.size(); i++) {
+            p.setProperty(prefix + "." + i, values.get(i));
+        }
+    }
+}
@@ -4,41 +4,78 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.io.*;
-import java.net.URL;
 import java.nio.file.Files;
 import java.text.DecimalFormat;
 import java.util.*;
-import javax.net.ssl.HttpsURLConnection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class LauncherApp {
-    private static final String[] SUPPORTED_VERSIONS = {"1.21.5", "1.21.4", "1.21.3"};
-    private static final Map<String, String> MC_URLS = new HashMap<>();
-    static {
-        MC_URLS.put("1.21.5", "https://piston-data.mojang.com/v1/objects/b88808bbb3da8d9f453694b5d8f74a3396f1a533/client.jar");
-        MC_URLS.put("1.21.4", "https://piston-data.mojang.com/v1/objects/a7e5a6024bfd3cd614625aa05629adf760020304/client.jar");
-        MC_URLS.put("1.21.3", "https://piston-data.mojang.com/v1/objects/6f67d19b4467240639cb2c368ffd4b94ba889705/client.jar");
-    }
-    private String selectedVersion = SUPPORTED_VERSIONS[0];
+    // Версія до першого відкриття списку; повний список — з VersionCatalog
+    private static final String DEFAULT_VERSION = System.getProperty("pl.version", "1.21.5");
+    private String selectedVersion = DEFAULT_VERSION;
     private File getJarFile() {
-        return new File("minecraft-" + selectedVersion + "-client.jar");
+        return GameInstaller.clientJar(selectedVersion);
     }
 
-    private static final String MC_VERSION_MANIFEST_INDEX = "https://piston-meta.mojang.com/mc/game/version_manifest_v2.json";
-    private static final File LIBS_DIR = new File("libraries");
+    private static final File PLANS_DIR = new File("cache", "plans");
+    // Рядок логу, після якого гра показує головне меню (кінець початкового завантаження ресурсів)
+    private static final String MENU_MARKER = System.getProperty("pl.menu.marker", "Sound engine started");
+    private final JavaRuntimes javaRuntimes = new JavaRuntimes(new File("cache", "java-runtimes.properties"));
+    private final JvmProfiles jvmProfiles = new JvmProfiles(new File("cache", "jvm-profiles.properties"));
+    private final ClassDataSharing cds = new ClassDataSharing(new File("cache", "cds"));
+    private final Instances instances = new Instances(Instances.ROOT);
+    private static final String NO_INSTANCE = "(без екземпляра)";
+    // запущені ігри (процес → рядок монітора в UI); лише на EDT
+    private final Map<Process, JComponent> running = new LinkedHashMap<>();
+    private static final long MONITOR_INTERVAL_MS = Long.getLong("pl.monitor.interval", ProcessMonitor.DEFAULT_INTERVAL_MS);
 
-    private static final String FABRIC_INSTALLER_URL = "https://maven.fabricmc.net/net/fabricmc/fabric-installer/1.0.3/fabric-installer-1.0.3.jar";
-    private static final File FABRIC_DIR = new File("fabric");
-    private static final File FABRIC_INSTALLER_FILE = new File(FABRIC_DIR, "fabric-installer-1.0.3.jar");
 
     private JFrame frame;
     private JButton button;
     private JProgressBar progress;
     private JLabel status;
     private JButton openFolderBtn;
+    private JButton verifyBtn;
+    private JButton gcBtn;
     private JTextArea logArea;
     private JScrollPane logScroll;
     private JComboBox<String> versionBox;
     private JCheckBox fabricCheckBox;
+    // версія -> чи є для неї Fabric (з кешу профілів або meta.fabricmc.net); лише певні відповіді
+    private final Map<String, Boolean> fabricSupport = new ConcurrentHashMap<>();
+    private JCheckBox snapshotsCheckBox;
+    // список версій уже завантажено (або завантажується); лише на EDT
+    private boolean versionsLoaded;
+    private JComboBox<JvmProfiles.Profile> profileBox;
+    private JComboBox<Object> instanceBox;
+    private JPanel monitorPanel;
+    // граф поточного запуску; лише на EDT
+    private StageGraph launchGraph;
+    // підготовка запуску, перевірка файлів або очищення — одночасно лише одне з них; лише на EDT
+    private boolean busy;
+    private static final int MAX_LOG_LINES = 5000;
+
+    private static final int PROGRESS_FPS = 20;
+    private final DownloadProgress downloadProgress = new DownloadProgress();
+    private final GameInstaller installer = new GameInstaller(ParallelDownloader.DEFAULT_JOBS, downloadProgress, new GameInstaller.Listener() {
+        @Override
+        public void status(String message) {
+            statusSet(message);
+        }
+
+        @Override
+        public void log(String message) {
+            SwingUtilities.invokeLater(() -> logArea.append(message + "\n"));
+        }
+    });
+    private final DecimalFormat progressFormat = new DecimalFormat("#.##");
+    private javax.swing.Timer progressTimer;
+    private long renderedBytes;
+    private long renderedFiles;
+    private long renderedNanos;
+    private double speedKbs;
 
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> new LauncherApp().createAndShowGUI());
@@ -50,15 +87,31 @@ public class LauncherApp {
         frame.setSize(500, 400);
         frame.setLayout(new BorderLayout());
 
-        versionBox = new JComboBox<>(SUPPORTED_VERSIONS);
-        versionBox.setSelectedIndex(0);
+        versionBox = new JComboBox<>(new DefaultComboBoxModel<>(new String[] {selectedVersion}));
         versionBox.addActionListener(e -> {
-            selectedVersion = (String) versionBox.getSelectedItem();
+            String item = (String) versionBox.getSelectedItem();
+            if (item == null) return;
+            selectedVersion = item;
             openFolderBtn.setEnabled(getJarFile().exists());
             button.setText("Завантажити та запустити Minecraft " + selectedVersion);
             frame.setTitle("Minecraft Launcher " + selectedVersion);
-            fabricCheckBox.setVisible("1.21.5".equals(selectedVersion));
+            refreshFabricCheckBox();
+            profileBox.setSelectedItem(jvmProfiles.selected(selectedVersion));
         });
+        versionBox.addPopupMenuListener(new javax.swing.event.PopupMenuListener() {
+            @Override
+            public void popupMenuWillBecomeVisible(javax.swing.event.PopupMenuEvent e) {
+                if (!versionsLoaded) loadVersions();
+            }
+
+            @Override
+            public void popupMenuWillBecomeInvisible(javax.swing.event.PopupMenuEvent e) {}
+
+            @Override
+            public void popupMenuCanceled(javax.swing.event.PopupMenuEvent e) {}
+        });
+        snapshotsCheckBox = new JCheckBox("Показувати снапшоти");
+        snapshotsCheckBox.addActionListener(e -> loadVersions());
 
         button = new JButton("Завантажити та запустити Minecraft " + selectedVersion);
         progress = new JProgressBar(0, 100);
@@ -67,107 +120,274 @@ public class LauncherApp {
         openFolderBtn = new JButton("Відкрити папку з jar");
         openFolderBtn.setEnabled(getJarFile().exists());
         openFolderBtn.addActionListener(e -> openJarFolder());
+        verifyBtn = new JButton("Перевірити та відновити файли");
+        verifyBtn.addActionListener(e -> onVerifyClicked());
+        gcBtn = new JButton("Звільнити місце");
+        gcBtn.addActionListener(e -> onGcClicked());
 
         logArea = new JTextArea(8, 40);
         logArea.setEditable(false);
         logArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
         logScroll = new JScrollPane(logArea);
 
-        fabricCheckBox = new JCheckBox("Завантажити Fabric (1.21.5)");
-        fabricCheckBox.setVisible("1.21.5".equals(selectedVersion));
+        fabricCheckBox = new JCheckBox("Завантажити Fabric");
+        refreshFabricCheckBox();
+
+        profileBox = new JComboBox<>(JvmProfiles.Profile.values());
+        profileBox.setSelectedItem(jvmProfiles.selected(selectedVersion));
+        profileBox.addActionListener(e -> onProfileSelected());
+
+        instanceBox = new JComboBox<>();
+        refreshInstances(null);
+        instanceBox.addActionListener(e -> onInstanceSelected());
+        JButton newInstanceBtn = new JButton("Новий екземпляр...");
+        newInstanceBtn.addActionListener(e -> onNewInstance());
+        monitorPanel = new JPanel();
+        monitorPanel.setLayout(new BoxLayout(monitorPanel, BoxLayout.Y_AXIS));
 
         button.addActionListener(this::onLaunchClicked);
 
         JPanel panel = new JPanel();
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
         panel.add(Box.createVerticalStrut(10));
+        panel.add(new JLabel("Екземпляр:"));
+        panel.add(instanceBox);
+        panel.add(newInstanceBtn);
+        panel.add(Box.createVerticalStrut(10));
         panel.add(new JLabel("Оберіть версію Minecraft:"));
         panel.add(versionBox);
+        panel.add(snapshotsCheckBox);
         panel.add(Box.createVerticalStrut(10));
         panel.add(fabricCheckBox);
         panel.add(Box.createVerticalStrut(10));
+        panel.add(new JLabel("Профіль JVM:"));
+        panel.add(profileBox);
+        panel.add(Box.createVerticalStrut(10));
         panel.add(button);
         panel.add(Box.createVerticalStrut(10));
         panel.add(progress);
         panel.add(Box.createVerticalStrut(10));
         panel.add(status);
+        panel.add(monitorPanel);
         panel.add(Box.createVerticalStrut(10));
         panel.add(openFolderBtn);
+        panel.add(verifyBtn);
+        panel.add(gcBtn);
 
         frame.add(panel, BorderLayout.NORTH);
         frame.add(logScroll, BorderLayout.CENTER);
         frame.setVisible(true);
     }
 
+    // Список версій будується з каталогу у фоні — при першому відкритті списку або зміні фільтра
+    private void loadVersions() {
+        versionsLoaded = true;
+        boolean snapshots = snapshotsCheckBox.isSelected();
+        new Thread(() -> {
+            try {
+                List<String> ids = VersionCatalog.getDefault().ids(snapshots);
+                SwingUtilities.invokeLater(() -> setVersions(ids));
+            } catch (IOException ex) {
+                SwingUtilities.invokeLater(() -> {
+                    versionsLoaded = false;
+                    logArea.append("Не вдалося завантажити список версій: " + ex + "\n");
+                });
+            }
+        }, "pl-versions").start();
+    }
+
+    private void setVersions(List<String> ids) {
+        DefaultComboBoxModel<String> model = new DefaultComboBoxModel<>(ids.toArray(new String[0]));
+        if (model.getIndexOf(selectedVersion) < 0) model.insertElementAt(selectedVersion, 0);
+        model.setSelectedItem(selectedVersion);
+        boolean reopen = versionBox.isPopupVisible();
+        versionBox.setModel(model);
+        if (reopen) {
+            versionBox.hidePopup();
+            versionBox.showPopup();
+        }
+    }
+
+    // Версія екземпляра може бути поза поточним фільтром (снапшот) — тоді додаємо її до списку
+    private void selectVersion(String id) {
+        DefaultComboBoxModel<String> model = (DefaultComboBoxModel<String>) versionBox.getModel();
+        if (model.getIndexOf(id) < 0) model.insertElementAt(id, 0);
+        versionBox.setSelectedItem(id);
+    }
+
+    private void refreshInstances(String select) {
+        instanceBox.removeAllItems();
+        instanceBox.addItem(NO_INSTANCE);
+        for (Instances.Instance inst : instances.list()) {
+            instanceBox.addItem(inst);
+            if (inst.name.equals(select)) instanceBox.setSelectedItem(inst);
+        }
+    }
+
+    private boolean fabricSupported(String version) {
+        return Boolean.TRUE.equals(fabricSupport.get(version));
+    }
+
+    // Прапорець Fabric видно лише для версій, для яких є loader; перше питання про версію — у фоні
+    private void refreshFabricCheckBox() {
+        String version = selectedVersion;
+        Boolean known = fabricSupport.get(version);
+        fabricCheckBox.setVisible(Boolean.TRUE.equals(known));
+        if (known != null) return;
+        new Thread(() -> {
+            try {
+                boolean supported = installer.fabricSupported(version);
+                fabricSupport.put(version, supported);
+                SwingUtilities.invokeLater(() -> {
+                    if (version.equals(selectedVersion)) fabricCheckBox.setVisible(supported);
+                });
+            } catch (IOException ex) {
+                // офлайн і профілю в кеші немає — спитаємо ще раз при наступному виборі версії
+            }
+        }, "pl-fabric-check").start();
+    }
+
+    // Екземпляр фіксує версію та loader — поки він обраний, їх не можна змінити
+    private void onInstanceSelected() {
+        Object item = instanceBox.getSelectedItem();
+        boolean isInstance = item instanceof Instances.Instance;
+        if (isInstance) {
+            Instances.Instance inst = (Instances.Instance) item;
+            selectVersion(inst.version);
+            fabricCheckBox.setSelected(inst.fabric);
+        }
+        versionBox.setEnabled(!isInstance);
+        fabricCheckBox.setEnabled(!isInstance);
+    }
+
+    private void onNewInstance() {
+        boolean fabric = fabricSupported(selectedVersion) && fabricCheckBox.isSelected();
+        String name = JOptionPane.showInputDialog(frame, "Назва нового екземпляра (" + selectedVersion + (fabric ? ", Fabric" : "") + "):");
+        if (name == null) return;
+        try {
+            Instances.Instance inst = instances.create(name, selectedVersion, fabric);
+            refreshInstances(inst.name);
+            logArea.append("Створено екземпляр " + inst + ": " + inst.dir.getAbsolutePath() + "\n");
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(frame, ex.getMessage());
+        }
+    }
+
+    private void onProfileSelected() {
+        JvmProfiles.Profile profile = (JvmProfiles.Profile) profileBox.getSelectedItem();
+        if (profile == null || profile == jvmProfiles.selected(selectedVersion)) return;
+        String custom = null;
+        if (profile == JvmProfiles.Profile.CUSTOM) {
+            custom = JOptionPane.showInputDialog(frame, "Аргументи JVM для " + selectedVersion + ":", jvmProfiles.customArgs(selectedVersion));
+            if (custom == null) {
+                profileBox.setSelectedItem(jvmProfiles.selected(selectedVersion));
+                return;
+            }
+        }
+        try {
+            jvmProfiles.select(selectedVersion, profile, custom);
+        } catch (IOException ex) {
+            logArea.append("Не вдалося зберегти профіль JVM: " + ex + "\n");
+        }
+    }
+
+    // Кнопка запуску під час підготовки лишається доступною як «Скасувати»; перевірка й очищення — ні
+    private void setBusy(boolean value) {
+        busy = value;
+        button.setEnabled(!value || launchGraph != null);
+        verifyBtn.setEnabled(!value);
+        gcBtn.setEnabled(!value);
+    }
+
     private void onLaunchClicked(ActionEvent e) {
-        button.setEnabled(false);
+        if (launchGraph != null) {
+            // друге натискання під час підготовки — скасування
+            launchGraph.cancel();
+            button.setEnabled(false);
+            status.setText("Скасування...");
+            return;
+        }
+        if (busy) return;
+        long clickNanos = System.nanoTime();
+        StageGraph graph = new StageGraph();
+        launchGraph = graph;
+        setBusy(true);
+        button.setText("Скасувати");
         openFolderBtn.setEnabled(false);
         status.setText("Перевірка Java...");
         progress.setValue(0);
         logArea.setText("");
+        startProgressTimer();
+        Instances.Instance instance = instanceBox.getSelectedItem() instanceof Instances.Instance i ? i : null;
+        String version = instance != null ? instance.version : selectedVersion;
+        boolean useFabric = instance != null ? instance.fabric : fabricSupported(version) && fabricCheckBox.isSelected();
+        File gameDir = instance != null ? instance.dir : null;
 
         new Thread(() -> {
+            // блокування екземпляра переходить до процесу гри, щойно той стартує (launch робить getAndSet(null))
+            AtomicReference<Closeable> instanceLock = new AtomicReference<>();
             try {
-                JavaInfo javaInfo = findJava();
-                if (!javaInfo.found) {
-                    SwingUtilities.invokeLater(() -> {
-                        status.setText("Java 21+ не знайдено! Встановіть Java 21 та задайте JAVA_HOME.");
-                        button.setEnabled(true);
-                    });
-                    return;
+                if (instance != null) {
+                    instanceLock.set(instances.tryLock(instance));
+                    if (instanceLock.get() == null) throw new IOException("Екземпляр " + instance.name + " вже запущено");
                 }
-                SwingUtilities.invokeLater(() -> logArea.append("Java знайдено: " + javaInfo.path + "\nВерсія: " + javaInfo.versionLine + "\n\n"));
-
-                File jarFile = getJarFile();
-                boolean useFabric = "1.21.5".equals(selectedVersion) && fabricCheckBox.isSelected();
-
-                if (useFabric) {
-                    statusSet("Завантаження Fabric...");
-                    if (!FABRIC_DIR.exists() && !FABRIC_DIR.mkdirs()) {
-                        SwingUtilities.invokeLater(() -> logArea.append("Не вдалося створити папку Fabric!\n"));
-                        button.setEnabled(true);
-                        return;
-                    }
-                    if (!FABRIC_INSTALLER_FILE.exists()) {
-                        downloadFile(FABRIC_INSTALLER_URL, FABRIC_INSTALLER_FILE);
-                    }
-                    SwingUtilities.invokeLater(() -> logArea.append("Fabric installer завантажено: " + FABRIC_INSTALLER_FILE.getAbsolutePath() + "\n"));
-
-                    statusSet("Інсталяція Fabric...");
-                    boolean fabricInstalled = installFabricInBackground(javaInfo.path);
-                    if (!fabricInstalled) {
+                String name = planName(version, useFabric, instance);
+                LaunchPlan cachedPlan = installer.cachedPlan(PLANS_DIR, name, version, useFabric);
+                if (cachedPlan != null) {
+                    SwingUtilities.invokeLater(() -> logArea.append("План запуску з кешу: " + cachedPlan.javaPath + "\n"));
+                    statusSet("Запуск Minecraft...");
+                    if (launch(cachedPlan, clickNanos, version, instance, instanceLock)) {
                         SwingUtilities.invokeLater(() -> {
-                            status.setText("Помилка інсталяції Fabric!");
-                            logArea.append("Fabric не встановлено!\n");
+                            openFolderBtn.setEnabled(true);
+                            status.setText("Minecraft запущено!");
                         });
-                        button.setEnabled(true);
                         return;
                     }
-                    SwingUtilities.invokeLater(() -> logArea.append("Fabric встановлено!\n"));
+                    // план з кешу не запускається — прибираємо його і готуємо запуск повністю (пошук Java тощо)
+                    LaunchPlan.delete(PLANS_DIR, name);
+                    SwingUtilities.invokeLater(() -> logArea.append("План з кешу недійсний — повна підготовка запуску\n"));
                 }
 
-                if (!jarFile.exists()) {
-                    statusSet("Завантаження Minecraft...");
-                    String mcUrl = MC_URLS.get(selectedVersion);
-                    downloadFile(mcUrl, jarFile);
-                    SwingUtilities.invokeLater(() -> openFolderBtn.setEnabled(true));
-                } else {
+                // Пошук Java, маніфест і завантаження йдуть паралельно; план чекає лише на те, від чого залежить
+                StageGraph.Stage<List<JavaRuntimes.Runtime>> javaScan = graph.stage("java-scan", javaRuntimes::scan);
+                StageGraph.Stage<VersionManifest> manifest = graph.stage("manifest", () -> installer.manifest(version));
+                StageGraph.Stage<JavaInfo> java = graph.stage("java", () -> {
+                    int requiredJava = manifest.get().javaMajorVersion > 0 ? manifest.get().javaMajorVersion : 21;
+                    JavaInfo javaInfo = findJava(requiredJava, javaScan.get());
+                    if (!javaInfo.found) {
+                        throw new IOException("Java " + requiredJava + "+ не знайдено! Встановіть Java " + requiredJava + " та задайте JAVA_HOME.");
+                    }
+                    SwingUtilities.invokeLater(() -> logArea.append("Java знайдено: " + javaInfo.path + "\nВерсія: " + javaInfo.versionLine + "\n\n"));
+                    return javaInfo;
+                }, javaScan, manifest);
+                StageGraph.Stage<Long> warm = graph.stage("page-cache", () -> PageCache.warm(installer.presentFiles(manifest.get())), manifest);
+                StageGraph.Stage<GameInstaller.Installation> inst = installer.install(graph, version, manifest, useFabric);
+                StageGraph.Stage<LaunchPlan> plan = graph.stage("plan", () -> {
                     SwingUtilities.invokeLater(() -> openFolderBtn.setEnabled(true));
-                }
+                    return installer.buildPlan(inst.get(), java.get().path, java.get().major, gameDir);
+                }, inst, java);
+                StageGraph.Stage<Boolean> spawn = graph.stage("spawn", () -> {
+                    statusSet("Запуск Minecraft...");
+                    return launch(plan.get(), clickNanos, version, instance, instanceLock);
+                }, plan);
 
-                statusSet("Запуск Minecraft...");
                 boolean started;
-                if (useFabric) {
-                    started = runFabric(javaInfo.path, selectedVersion);
-                } else {
-                    Map<String, Object> index = downloadJsonMap(MC_VERSION_MANIFEST_INDEX);
-                    String manifestUrl = findManifestUrl(index, selectedVersion);
-                    if (manifestUrl == null) {
-                        throw new IOException("Не знайдено manifest для версії " + selectedVersion);
+                try {
+                    started = graph.await(spawn);
+                } finally {
+                    String report = graph.report(spawn);
+                    SwingUtilities.invokeLater(() -> logArea.append("Етапи запуску:\n" + report + "\n"));
+                }
+                if (warm.future.isDone() && !warm.future.isCompletedExceptionally()) {
+                    long warmed = warm.get();
+                    SwingUtilities.invokeLater(() -> logArea.append("Прогріто page cache: " + (warmed / 1024 / 1024) + " МБ\n"));
+                }
+                if (started) {
+                    try {
+                        plan.get().save(PLANS_DIR, name, installer.planKey(version, useFabric, plan.get().javaPath));
+                    } catch (IOException ex) {
+                        SwingUtilities.invokeLater(() -> logArea.append("Не вдалося зберегти план запуску: " + ex + "\n"));
                     }
-                    Map<String, Object> manifest = downloadJsonMap(manifestUrl);
-                    java.util.List<File> libs = downloadLibraries(manifest);
-                    started = runMinecraft(javaInfo.path, libs, jarFile, selectedVersion);
                 }
                 SwingUtilities.invokeLater(() -> {
                     if (started) {
@@ -177,169 +397,142 @@ public class LauncherApp {
                     }
                 });
             } catch (Exception ex) {
+                // тайм-аут мережі — теж InterruptedIOException, але це помилка, а не скасування
+                if (ex instanceof IOException io && HttpDownloader.cancelled(io)) {
+                    SwingUtilities.invokeLater(() -> status.setText("Запуск скасовано"));
+                } else {
+                    SwingUtilities.invokeLater(() -> {
+                        status.setText("Помилка: " + ex.getMessage());
+                        logArea.append("Помилка: " + ex + "\n");
+                    });
+                }
+            } finally {
+                closeQuietly(instanceLock.getAndSet(null));
+                graph.close();
+                Metrics.dump();
                 SwingUtilities.invokeLater(() -> {
-                    status.setText("Помилка: " + ex.getMessage());
-                    logArea.append("Помилка: " + ex + "\n");
+                    progressTimer.stop();
+                    launchGraph = null;
+                    button.setText("Завантажити та запустити Minecraft " + selectedVersion);
+                    setBusy(false);
                 });
-            } finally {
-                SwingUtilities.invokeLater(() -> button.setEnabled(true));
             }
         }).start();
     }
 
-    private void statusSet(String msg) {
-        SwingUtilities.invokeLater(() -> status.setText(msg));
+    // Хешує всі файли версії (обраного екземпляра, якщо він є) та завантажує знову лише пошкоджені;
+    // запуск і очищення на цей час недоступні
+    private void onVerifyClicked() {
+        if (busy) return;
+        Instances.Instance instance = instanceBox.getSelectedItem() instanceof Instances.Instance i ? i : null;
+        String version = instance != null ? instance.version : selectedVersion;
+        boolean useFabric = instance != null ? instance.fabric : fabricSupported(version) && fabricCheckBox.isSelected();
+        setBusy(true);
+        logArea.setText("");
+        startProgressTimer();
+        new Thread(() -> {
+            try {
+                IntegrityCheck.Report report = installer.verify(version, useFabric, true);
+                statusSet(report.mismatched.isEmpty()
+                        ? "Усі файли " + version + " цілі (" + Math.round(report.mbPerSecond()) + " МБ/с)"
+                        : "Відновлено файлів: " + report.repaired + " з " + report.mismatched.size());
+            } catch (Exception ex) {
+                SwingUtilities.invokeLater(() -> {
+                    status.setText("Помилка перевірки: " + ex.getMessage());
+                    logArea.append("Помилка перевірки: " + ex + "\n");
+                });
+            } finally {
+                Metrics.dump();
+                SwingUtilities.invokeLater(() -> {
+                    progressTimer.stop();
+                    setBusy(false);
+                });
+            }
+        }, "pl-verify").start();
     }
 
-    @SuppressWarnings("deprecation")
-    private Map<String, Object> downloadJsonMap(String url) throws IOException {
-        // Використання deprecated конструктора URL(String) для сумісності з поточним JDK
-        HttpsURLConnection conn = (HttpsURLConnection) new URL(url).openConnection();
-        conn.setRequestProperty("User-Agent", "Mozilla/5.0");
-        try (InputStream in = conn.getInputStream()) {
-            StringBuilder sb = new StringBuilder();
-            BufferedReader r = new BufferedReader(new InputStreamReader(in));
-            String line;
-            do {
-                line = r.readLine();
-                if (line != null) sb.append(line);
-            } while (line != null);
-            return parseJsonObject(sb.toString());
+    // Поки гра працює або йде запуск, її файли не чіпаємо
+    private void onGcClicked() {
+        if (busy) return;
+        if (!running.isEmpty()) {
+            JOptionPane.showMessageDialog(frame, "Спершу закрийте запущені ігри");
+            return;
         }
+        setBusy(true);
+        logArea.setText("");
+        new Thread(() -> {
+            try {
+                StorageGc.Report r = installer.collectGarbage(GameInstaller.DISK_BUDGET_MB * 1024 * 1024, false, false);
+                statusSet("Звільнено " + (r.bytesFreed / 1024 / 1024) + " МБ");
+            } catch (Exception ex) {
+                SwingUtilities.invokeLater(() -> {
+                    status.setText("Помилка очищення: " + ex.getMessage());
+                    logArea.append("Помилка очищення: " + ex + "\n");
+                });
+            } finally {
+                Metrics.dump();
+                SwingUtilities.invokeLater(() -> {
+                    openFolderBtn.setEnabled(getJarFile().exists());
+                    setBusy(false);
+                });
+            }
+        }, "pl-gc").start();
     }
 
-    private Map<String, Object> parseJsonObject(String json) {
-        Map<String, Object> map = new HashMap<>();
-        json = json.trim();
-        if (json.startsWith("{")) json = json.substring(1);
-        if (json.endsWith("}")) json = json.substring(0, json.length() - 1);
-        int i = 0;
-        while (i < json.length()) {
-            while (i < json.length() && Character.isWhitespace(json.charAt(i))) i++;
-            if (i >= json.length()) break;
-            if (json.charAt(i) == ',') { i++; continue; }
-            if (json.charAt(i) == '"') {
-                int keyStart = ++i;
-                while (i < json.length() && json.charAt(i) != '"') i++;
-                String key = json.substring(keyStart, i);
-                i++; // skip "
-                while (i < json.length() && (json.charAt(i) == ':' || Character.isWhitespace(json.charAt(i)))) i++;
-                if (i < json.length() && json.charAt(i) == '[') {
-                    // array
-                    int arrStart = i;
-                    int depth = 0;
-                    do {
-                        if (json.charAt(i) == '[') depth++;
-                        else if (json.charAt(i) == ']') depth--;
-                        i++;
-                    } while (i < json.length() && depth > 0);
-                    String arrStr = json.substring(arrStart, i);
-                    map.put(key, parseJsonArray(arrStr));
-                } else if (i < json.length() && json.charAt(i) == '{') {
-                    // object
-                    int objStart = i;
-                    int depth = 0;
-                    do {
-                        if (json.charAt(i) == '{') depth++;
-                        else if (json.charAt(i) == '}') depth--;
-                        i++;
-                    } while (i < json.length() && depth > 0);
-                    String objStr = json.substring(objStart, i);
-                    map.put(key, parseJsonObject(objStr));
-                } else {
-                    // value
-                    int valStart = i;
-                    if (json.charAt(i) == '"') {
-                        valStart++;
-                        i++;
-                        while (i < json.length() && json.charAt(i) != '"') i++;
-                        String val = json.substring(valStart, i);
-                        map.put(key, val);
-                        i++;
-                    } else {
-                        while (i < json.length() && json.charAt(i) != ',' && json.charAt(i) != '}') i++;
-                        String val = json.substring(valStart, i).trim();
-                        map.put(key, val);
-                    }
-                }
-            } else {
-                i++;
-            }
-        }
-        return map;
+    private void statusSet(String msg) {
+        SwingUtilities.invokeLater(() -> status.setText(msg));
     }
 
-    private java.util.List<Object> parseJsonArray(String json) {
-        java.util.List<Object> list = new java.util.ArrayList<>();
-        json = json.trim();
-        if (json.startsWith("[")) json = json.substring(1);
-        if (json.endsWith("]")) json = json.substring(0, json.length() - 1);
-        int i = 0;
-        while (i < json.length()) {
-            while (i < json.length() && Character.isWhitespace(json.charAt(i))) i++;
-            if (i >= json.length()) break;
-            if (json.charAt(i) == ',') { i++; continue; }
-            if (json.charAt(i) == '{') {
-                int objStart = i;
-                int depth = 0;
-                do {
-                    if (json.charAt(i) == '{') depth++;
-                    else if (json.charAt(i) == '}') depth--;
-                    i++;
-                } while (i < json.length() && depth > 0);
-                String objStr = json.substring(objStart, i);
-                list.add(parseJsonObject(objStr));
-            } else if (json.charAt(i) == '"') {
-                int valStart = ++i;
-                while (i < json.length() && json.charAt(i) != '"') i++;
-                String val = json.substring(valStart, i);
-                list.add(val);
-                i++;
-            } else {
-                int valStart = i;
-                while (i < json.length() && json.charAt(i) != ',' && json.charAt(i) != ']') i++;
-                String val = json.substring(valStart, i).trim();
-                if (!val.isEmpty()) list.add(val);
-            }
+    // Викликається таймером на EDT (20 Гц): один знімок лічильників замість події на кожне читання
+    private void renderProgress() {
+        DownloadProgress.Snapshot snap = downloadProgress.snapshot();
+        if (snap.filesTotal == 0 || (snap.bytesDone == renderedBytes && snap.filesDone == renderedFiles)) return;
+        long now = System.nanoTime();
+        if (renderedNanos != 0 && now > renderedNanos) {
+            double instant = (snap.bytesDone - renderedBytes) / 1024.0 / ((now - renderedNanos) / 1e9);
+            speedKbs = speedKbs == 0 ? instant : speedKbs * 0.8 + instant * 0.2;
         }
-        return list;
+        renderedBytes = snap.bytesDone;
+        renderedFiles = snap.filesDone;
+        renderedNanos = now;
+        progress.setValue(snap.percent());
+        status.setText(String.format(
+            "%s: %s / %s МБ (%d%%) | %d/%d | %s КБ/с",
+            snap.phase, progressFormat.format(snap.bytesDone / 1024.0 / 1024.0), progressFormat.format(snap.bytesTotal / 1024.0 / 1024.0),
+            snap.percent(), snap.filesDone, snap.filesTotal, progressFormat.format(speedKbs)
+        ));
     }
 
-    @SuppressWarnings("unchecked")
-    private java.util.List<File> downloadLibraries(Map<String, Object> manifest) throws IOException {
-        java.util.List<File> libs = new java.util.ArrayList<>();
-        java.util.List<Object> libraries = (java.util.List<Object>) manifest.get("libraries");
-        int total = libraries.size();
-        for (int i = 0; i < total; i++) {
-            Map<String, Object> lib = (Map<String, Object>) libraries.get(i);
-            if (!lib.containsKey("downloads")) continue;
-            Map<String, Object> downloads = (Map<String, Object>) lib.get("downloads");
-            if (!downloads.containsKey("artifact")) continue;
-            Map<String, Object> artifact = (Map<String, Object>) downloads.get("artifact");
-            String path = (String) artifact.get("path");
-            String url = (String) artifact.get("url");
-            File out = new File(LIBS_DIR, path.replace("/", File.separator));
-            if (!out.exists()) {
-                File parent = out.getParentFile();
-                if (!parent.exists() && !parent.mkdirs()) {
-                    throw new IOException("Не вдалося створити директорію для бібліотеки: " + parent);
-                }
-                statusSet("Завантаження бібліотеки " + (i+1) + "/" + total + ": " + out.getName());
-                downloadFile(url, out);
-            }
-            libs.add(out);
+    private void startProgressTimer() {
+        downloadProgress.reset();
+        renderedBytes = 0;
+        renderedFiles = 0;
+        renderedNanos = 0;
+        speedKbs = 0;
+        if (progressTimer == null) {
+            progressTimer = new javax.swing.Timer(1000 / PROGRESS_FPS, ev -> renderProgress());
         }
-        return libs;
+        progressTimer.start();
     }
 
     private static class JavaInfo {
         boolean found;
         String path;
         String versionLine;
+        int major;
     }
 
-    private JavaInfo findJava() {
+    private JavaInfo findJava(int requiredMajor, List<JavaRuntimes.Runtime> scanned) {
         JavaInfo info = new JavaInfo();
+        JavaRuntimes.Runtime runtime = JavaRuntimes.best(scanned, requiredMajor);
+        if (runtime != null) {
+            info.found = true;
+            info.path = runtime.javaPath();
+            info.versionLine = runtime.toString();
+            info.major = runtime.version.major();
+            return info;
+        }
+        // JRE без файлу release — запасний варіант через `java -version`
         String javaHome = System.getenv("JAVA_HOME");
         String[] candidates;
         if (javaHome != null && !javaHome.isEmpty()) {
@@ -365,10 +558,12 @@ public class LauncherApp {
                     }
                 }
                 process.waitFor();
-                if (versionLine != null && isJava21OrHigher(versionLine)) {
+                JavaVersion version = versionLine != null ? JavaVersion.parseVersionLine(versionLine) : null;
+                if (version != null && version.isAtLeast(requiredMajor)) {
                     info.found = true;
                     info.path = javaPath;
                     info.versionLine = versionLine;
+                    info.major = version.major();
                     return info;
                 }
             } catch (Exception ignored) {}
@@ -377,57 +572,6 @@ public class LauncherApp {
         return info;
     }
 
-    private boolean isJava21OrHigher(String versionLine) {
-        int idx = versionLine.indexOf("\"");
-        if (idx < 0) return false;
-        String ver = versionLine.substring(idx + 1);
-        idx = ver.indexOf("\"");
-        if (idx < 0) return false;
-        ver = ver.substring(0, idx);
-        try {
-            String[] parts = ver.split("\\.");
-            int major = Integer.parseInt(parts[0]);
-            return major >= 21;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    private void downloadFile(String url, File dest) throws IOException {
-        URL u = new URL(url);
-        long contentLength = u.openConnection().getContentLengthLong();
-        try (InputStream in = u.openStream();
-             FileOutputStream out = new FileOutputStream(dest)) {
-            byte[] buffer = new byte[8192];
-            int bytesRead;
-            long totalRead = 0;
-            long start = System.currentTimeMillis();
-            DecimalFormat df = new DecimalFormat("#.##");
-            while ((bytesRead = in.read(buffer)) != -1) {
-                out.write(buffer, 0, bytesRead);
-                totalRead += bytesRead;
-                int percent = contentLength > 0 ? (int) (totalRead * 100 / contentLength) : 0;
-                double mb = totalRead / 1024.0 / 1024.0;
-                double totalMb = contentLength / 1024.0 / 1024.0;
-                long elapsed = System.currentTimeMillis() - start;
-                double speed = elapsed > 0 ? (totalRead / 1024.0 / (elapsed / 1000.0)) : 0;
-                String msg = String.format(
-                    "Завантажено: %s / %s МБ (%d%%) | %s КБ/с",
-                    df.format(mb), df.format(totalMb), percent, df.format(speed)
-                );
-                SwingUtilities.invokeLater(() -> {
-                    progress.setValue(percent);
-                    status.setText(msg);
-                });
-            }
-        }
-        SwingUtilities.invokeLater(() -> {
-            progress.setValue(100);
-            status.setText("Завантаження завершено!");
-            logArea.append("Файл збережено: " + dest.getAbsolutePath() + "\n");
-        });
-    }
-
     private void openJarFolder() {
         try {
             Desktop.getDesktop().open(getJarFile().getParentFile());
@@ -436,76 +580,128 @@ public class LauncherApp {
         }
     }
 
-    private boolean runMinecraft(String javaPath, java.util.List<File> libs, File jarFile, String version) {
+    // instanceLock — блокування теки екземпляра: після старту процесу переходить до нього і звільняється,
+    // коли гра завершиться; якщо запуск не вдався, лишається у викликача (можна спробувати ще раз)
+    private boolean launch(LaunchPlan plan, long clickNanos, String version, Instances.Instance instance,
+                           AtomicReference<Closeable> instanceLock) {
+        boolean fabric = "fabric".equals(plan.loader);
+        GameLog gameLog = null;
         try {
             copyIconIfMissing("icon_16x16.png");
             copyIconIfMissing("icon_32x32.png");
 
-            StringBuilder cp = new StringBuilder();
-            for (File lib : libs) {
-                cp.append(lib.getAbsolutePath()).append(File.pathSeparator);
-            }
-            cp.append(jarFile.getAbsolutePath());
-
-            java.util.List<String> cmd = new java.util.ArrayList<>();
-            cmd.add(javaPath);
-            cmd.add("-cp");
-            cmd.add(cp.toString());
-            cmd.add("net.minecraft.client.main.Main");
-            cmd.add("--username");
-            cmd.add("Player");
-            cmd.add("--accessToken");
-            cmd.add("12345");
-            cmd.add("--version");
-            cmd.add(version);
-
-            ProcessBuilder pb = new ProcessBuilder(cmd);
-            pb.directory(new File(System.getProperty("user.dir")));
+            String name = planName(version, fabric, instance);
+            // без екземпляра — окремий файл на версію; дві одночасні гри однієї версії GameLog розведе сам
+            File logFile = instance != null ? new File(new File(instance.dir, "logs"), "launcher-game.log") : new File("logs", "launcher-game-" + name + ".log");
+            gameLog = new GameLog(logArea, MAX_LOG_LINES, logFile);
+            GameLog log = gameLog;
+            String prefix = instance != null ? "[" + instance.name + "] " : "";
+            List<String> extraJvmArgs = new ArrayList<>();
+            int mods = fabric ? JvmProfiles.countMods(new File(plan.workDir, "mods")) : 0;
+            JvmProfiles.Settings jvm = jvmProfiles.settings(version, plan.javaMajor, fabric, mods);
+            extraJvmArgs.addAll(jvm.args);
+            // паузи GC у виводі гри — для монітора та файлу сесії
+            if (Boolean.getBoolean("pl.monitor.gc")) extraJvmArgs.add("-Xlog:gc");
+            JvmProfiles.Host host = jvmProfiles.host();
+            gameLog.append(prefix + "[Launcher] JVM: " + jvm + " (ОЗП " + host.totalMb + " МБ, ядер " + host.cores
+                    + (fabric ? ", модів " + mods : "") + ", Java " + plan.javaMajor + ")");
+            // classpath однаковий для всіх екземплярів версії — архів CDS спільний
+            ClassDataSharing.Mode cdsMode = cds.prepare(version + (fabric ? "-fabric" : ""), plan, extraJvmArgs);
+            LauncherEvents.ProcessSpawn event = new LauncherEvents.ProcessSpawn();
+            event.begin();
+            long t0 = System.nanoTime();
+            ProcessBuilder pb = new ProcessBuilder(plan.command(new File(PLANS_DIR, name + ".args"), extraJvmArgs));
+            pb.directory(plan.workDir);
             Process proc = pb.start();
-
-            new Thread(() -> {
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(proc.getInputStream()))) {
-                    String line;
-                    do {
-                        line = reader.readLine();
-                        if (line != null) {
-                            String ln = line + "\n";
-                            SwingUtilities.invokeLater(() -> logArea.append(ln));
-                        }
-                    } while (line != null);
-                } catch (IOException ignored) {}
-            }).start();
-
-            new Thread(() -> {
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(proc.getErrorStream()))) {
-                    String line;
-                    do {
-                        line = reader.readLine();
-                        if (line != null) {
-                            String ln = "[ERR] " + line + "\n";
-                            SwingUtilities.invokeLater(() -> logArea.append(ln));
-                        }
-                    } while (line != null);
-                } catch (IOException ignored) {}
-            }).start();
-
+            long spawnMillis = (System.nanoTime() - clickNanos) / 1_000_000;
+            event.version = version;
+            event.loader = plan.loader;
+            event.cds = cdsMode.name();
+            event.clickToSpawn = spawnMillis;
+            event.commit();
+            Metrics.recordNanos("launch.spawn.ms", t0);
+            Metrics.record("launch.click_to_spawn.ms", spawnMillis);
+            Metrics.increment("launch.started");
+            StorageGc.recordLaunch(version);
+            SwingUtilities.invokeLater(() -> logArea.append("Від натискання до запуску процесу: " + spawnMillis + " мс (CDS: " + cdsMode.label + ")\n"));
+
+            gameLog.watchOnce(MENU_MARKER, () -> {
+                long menuMillis = (System.nanoTime() - clickNanos) / 1_000_000;
+                log.append(prefix + "[Launcher] Від натискання до головного меню: " + menuMillis + " мс (CDS: " + cdsMode.label + ")");
+                Metrics.record("launch.click_to_menu.ms", menuMillis);
+                Metrics.dump();
+            });
+            Map<String, String> session = new LinkedHashMap<>();
+            session.put("version", version);
+            session.put("loader", plan.loader);
+            if (instance != null) session.put("instance", instance.name);
+            session.put("java", plan.javaPath);
+            session.put("jvm", String.join(" ", extraJvmArgs));
+            session.put("profile", jvm.toString());
+            session.put("cds", cdsMode.name());
+            ProcessMonitor monitor = new ProcessMonitor(proc, instance != null ? instance.name : name, session);
+            gameLog.tap(monitor::onLogLine);
+            gameLog.attach(proc, prefix + (fabric ? "[Fabric] " : ""), prefix + (fabric ? "[Fabric-ERR] " : "[ERR] "));
+            monitor.start(MONITOR_INTERVAL_MS);
+            track(monitor, proc, gameLog, instanceLock.getAndSet(null));
             return true;
         } catch (Exception ex) {
-            SwingUtilities.invokeLater(() -> logArea.append("Помилка запуску: " + ex + "\n"));
+            // лог ще не передано в track — його таймер, фоновий скид і .lock звільняємо тут
+            if (gameLog != null) gameLog.close();
+            Metrics.increment("launch.failed");
+            SwingUtilities.invokeLater(() -> logArea.append((fabric ? "Помилка запуску Fabric: " : "Помилка запуску: ") + ex + "\n"));
             return false;
         }
     }
 
-    private void collectJars(File dir, StringBuilder cp) {
-        File[] files = dir.listFiles();
-        if (files == null) return;
-        for (File f : files) {
-            if (f.isDirectory()) {
-                collectJars(f, cp);
-            } else if (f.getName().endsWith(".jar")) {
-                cp.append(f.getAbsolutePath()).append(File.pathSeparator);
+    // Кілька ігор одночасно: кожна має рядок монітора (CPU/RSS/GC і мініграфік) до завершення,
+    // потім — закриття логу, звільнення екземпляра та файл сесії в logs/sessions/
+    private void track(ProcessMonitor monitor, Process proc, GameLog gameLog, Closeable instanceLock) {
+        String label = monitor.label();
+        JLabel text = new JLabel(label + " (pid " + proc.pid() + ")");
+        Sparkline spark = new Sparkline(monitor, 120);
+        spark.setToolTipText("Синій — RSS, помаранчевий — CPU");
+        JPanel row = new JPanel(new BorderLayout(8, 0));
+        row.add(text, BorderLayout.WEST);
+        row.add(spark, BorderLayout.CENTER);
+        monitor.addListener(m -> SwingUtilities.invokeLater(() -> {
+            text.setText(label + " (pid " + proc.pid() + "): " + m.summary());
+            spark.repaint();
+        }));
+        SwingUtilities.invokeLater(() -> {
+            running.put(proc, row);
+            monitorPanel.add(row);
+            monitorPanel.revalidate();
+        });
+        monitor.onExit().thenRun(() -> {
+            gameLog.close();
+            closeQuietly(instanceLock);
+            String saved;
+            try {
+                saved = "сесію збережено в " + monitor.save(ProcessMonitor.SESSIONS_DIR).getPath();
+            } catch (IOException ex) {
+                saved = "не вдалося зберегти сесію: " + ex;
             }
-        }
+            String line = "[" + label + "] Гру завершено: " + monitor.summary() + "; " + saved + "\n";
+            SwingUtilities.invokeLater(() -> {
+                monitorPanel.remove(running.remove(proc));
+                monitorPanel.revalidate();
+                monitorPanel.repaint();
+                logArea.append(line);
+            });
+        });
+    }
+
+    private static void closeQuietly(Closeable c) {
+        if (c == null) return;
+        try {
+            c.close();
+        } catch (IOException ignored) {}
+    }
+
+    private String planName(String version, boolean useFabric, Instances.Instance instance) {
+        if (instance != null) return "instance-" + instance.name;
+        return version + (useFabric ? "-fabric" : "");
     }
 
     private void copyIconIfMissing(String iconName) {
@@ -520,149 +716,4 @@ public class LauncherApp {
             } catch (IOException ignored) {}
         }
     }
-
-    private String findManifestUrl(Map<String, Object> index, String version) {
-        Object versionsObj = index.get("versions");
-        if (!(versionsObj instanceof java.util.List<?> versions)) return null;
-        for (Object v : versions) {
-            if (!(v instanceof Map<?, ?> ver)) continue;
-            Object idObj = ver.get("id");
-            if (idObj != null && idObj.toString().equals(version)) {
-                Object urlObj = ver.get("url");
-                if (urlObj != null) return urlObj.toString();
-            }
-        }
-        return null;
-    }
-
-    private boolean installFabricInBackground(String javaPath) {
-        try {
-            // Fabric installer створює все у.minecraft (або вказаній папці)
-            File mcDir = new File(System.getProperty("user.dir"), ".minecraft");
-            if (!mcDir.exists() && !mcDir.mkdirs()) {
-                SwingUtilities.invokeLater(() -> logArea.append("Не вдалося створити .minecraft!\n"));
-                return false;
-            }
-            java.util.List<String> cmd = new java.util.ArrayList<>();
-            cmd.add(javaPath);
-            cmd.add("-jar");
-            cmd.add(FABRIC_INSTALLER_FILE.getAbsolutePath());
-            cmd.add("client");
-            cmd.add("-dir");
-            cmd.add(mcDir.getAbsolutePath());
-            cmd.add("-mcversion");
-            cmd.add("1.21.5");
-            cmd.add("-noprofile"); // не створювати профіль у launcher_profiles.json
-
-            ProcessBuilder pb = new ProcessBuilder(cmd);
-            pb.directory(FABRIC_DIR);
-            pb.redirectErrorStream(true);
-            Process proc = pb.start();
-
-            BufferedReader reader = new BufferedReader(new InputStreamReader(proc.getInputStream()));
-            String line;
-            do {
-                line = reader.readLine();
-                if (line != null) {
-                    String ln = "[Fabric] " + line + "\n";
-                    SwingUtilities.invokeLater(() -> logArea.append(ln));
-                }
-            } while (line != null);
-            int exitCode = proc.waitFor();
-
-            return exitCode == 0;
-        } catch (Exception ex) {
-            SwingUtilities.invokeLater(() -> logArea.append("Помилка інсталяції Fabric: " + ex + "\n"));
-            return false;
-        }
-    }
-
-    private boolean runFabric(String javaPath, String mcVersion) {
-        try {
-            copyIconIfMissing("icon_16x16.png");
-            copyIconIfMissing("icon_32x32.png");
-
-            File mcDir = new File(System.getProperty("user.dir"), ".minecraft");
-            File libsDir = new File(mcDir, "libraries");
-            // Знаходимо останню встановлену версію fabric-loader у libraries/net/fabricmc/fabric-loader/
-            File fabricLoaderDir = new File(libsDir, "net/fabricmc/fabric-loader");
-            if (!fabricLoaderDir.exists() || !fabricLoaderDir.isDirectory()) {
-                SwingUtilities.invokeLater(() -> logArea.append("Fabric loader не знайдено у " + fabricLoaderDir.getAbsolutePath() + "\n"));
-                return false;
-            }
-            File[] versions = fabricLoaderDir.listFiles(File::isDirectory);
-            if (versions == null || versions.length == 0) {
-                SwingUtilities.invokeLater(() -> logArea.append("Fabric loader версії не знайдено у " + fabricLoaderDir.getAbsolutePath() + "\n"));
-                return false;
-            }
-            Arrays.sort(versions, Comparator.comparing(File::getName));
-            File latestVersionDir = versions[versions.length - 1];
-            File[] jars = latestVersionDir.listFiles((dir, name) -> name.endsWith(".jar"));
-            File fabricJar = null;
-            if (jars != null && jars.length > 0) {
-                fabricJar = jars[0];
-            }
-            if (fabricJar == null || !fabricJar.exists()) {
-                SwingUtilities.invokeLater(() -> logArea.append("Fabric loader jar не знайдено у: " + latestVersionDir.getAbsolutePath() + "\n"));
-                return false;
-            }
-
-            // Додаємо всі бібліотеки з.minecraft/libraries/
-            StringBuilder cp = new StringBuilder();
-            collectJars(libsDir, cp);
-
-            // Додаємо сам майнкрафт jar (client)
-            File mcJar = getJarFile();
-            if (!mcJar.exists()) {
-                SwingUtilities.invokeLater(() -> logArea.append("Minecraft jar не знайдено: " + mcJar.getAbsolutePath() + "\n"));
-                return false;
-            }
-            if (cp.length() > 0) cp.append(File.pathSeparator);
-            cp.append(mcJar.getAbsolutePath());
-
-            // Додаємо fabric loader jar
-            cp.append(File.pathSeparator).append(fabricJar.getAbsolutePath());
-
-            java.util.List<String> cmd = new java.util.ArrayList<>();
-            cmd.add(javaPath);
-            cmd.add("-cp");
-            cmd.add(cp.toString());
-            cmd.add("net.fabricmc.loader.impl.launch.knot.KnotClient");
-            cmd.add("--username");
-            cmd.add("Player");
-            cmd.add("--accessToken");
-            cmd.add("12345");
-            cmd.add("--version");
-            cmd.add(mcVersion);
-
-            ProcessBuilder pb = new ProcessBuilder(cmd);
-            pb.directory(mcDir);
-            Process proc = pb.start();
-
-            new Thread(() -> {
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(proc.getInputStream()))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        String ln = "[Fabric] " + line + "\n";
-                        SwingUtilities.invokeLater(() -> logArea.append(ln));
-                    }
-                } catch (IOException ignored) {}
-            }).start();
-
-            new Thread(() -> {
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(proc.getErrorStream()))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        String ln = "[Fabric-ERR] " + line + "\n";
-                        SwingUtilities.invokeLater(() -> logArea.append(ln));
-                    }
-                } catch (IOException ignored) {}
-            }).start();
-
-            return true;
-        } catch (Exception ex) {
-            SwingUtilities.invokeLater(() -> logArea.append("Помилка запуску Fabric: " + ex + "\n"));
-            return false;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,121 @@
+package org.example;
+
+import jdk.jfr.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+// Події JDK Flight Recorder для етапів лаунчера. Записуються, лише коли запис JFR активний:
+// -XX:StartFlightRecording=... для JVM лаунчера або -Dpl.jfr=true (файл logs/launcher-<час>.jfr при виході).
+// Без запису begin()/commit() коштують одну перевірку isEnabled.
+public final class LauncherEvents {
+    private LauncherEvents() {}
+
+    public static void startRecordingIfRequested() {
+        if (!Boolean.getBoolean("pl.jfr")) return;
+        try {
+            File dir = new File("logs");
+            FileUtil.mkdirs(dir);
+            Path out = new File(dir, "launcher-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".jfr").toPath();
+            Recording recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName("launcher");
+            recording.setDestination(out);
+            recording.setDumpOnExit(true);
+            recording.start();
+        } catch (IOException | java.text.ParseException | IllegalStateException | SecurityException ex) {
+            System.err.println("Не вдалося запустити запис JFR: " + ex);
+        }
+    }
+
+    @Name("org.example.ManifestFetch")
+    @Label("Manifest Fetch")
+    @Category({"Launcher", "Network"})
+    public static class ManifestFetch extends Event {
+        @Label("URL")
+        public String url;
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+        @Label("Result")
+        @Description("downloaded, not-modified або offline-cache")
+        public String result;
+    }
+
+    @Name("org.example.JsonParse")
+    @Label("JSON Parse")
+    @Category({"Launcher", "CPU"})
+    public static class JsonParse extends Event {
+        @Label("Document")
+        public String document;
+        @Label("Items")
+        public long items;
+    }
+
+    @Name("org.example.ArtifactDownload")
+    @Label("Artifact Download")
+    @Category({"Launcher", "Network"})
+    public static class ArtifactDownload extends Event {
+        @Label("URL")
+        public String url;
+        @Label("Host")
+        public String host;
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+        @Label("Cache Hit")
+        public boolean cacheHit;
+        @Label("Attempted Hosts")
+        public int attemptedHosts;
+    }
+
+    @Name("org.example.JavaDetection")
+    @Label("Java Detection")
+    @Category({"Launcher"})
+    public static class JavaDetection extends Event {
+        @Label("Runtimes Found")
+        public int runtimes;
+        @Label("Release Files Read")
+        @Description("Каталоги JDK, чий release не взято з кешу")
+        public int releaseFilesRead;
+    }
+
+    @Name("org.example.ClasspathBuild")
+    @Label("Classpath Build")
+    @Category({"Launcher", "CPU"})
+    public static class ClasspathBuild extends Event {
+        @Label("Version")
+        public String version;
+        @Label("Entries")
+        public int entries;
+        @Label("Loader")
+        public String loader;
+    }
+
+    @Name("org.example.ProcessSpawn")
+    @Label("Process Spawn")
+    @Category({"Launcher"})
+    public static class ProcessSpawn extends Event {
+        @Label("Version")
+        public String version;
+        @Label("Loader")
+        public String loader;
+        @Label("CDS")
+        public String cds;
+        @Label("Click To Spawn")
+        @Timespan(Timespan.MILLISECONDS)
+        public long clickToSpawn;
+    }
+
+    @Name("org.example.LaunchStage")
+    @Label("Launch Stage")
+    @Category({"Launcher"})
+    public static class LaunchStage extends Event {
+        @Label("Stage")
+        public String stage;
+        @Label("Failed")
+        public boolean failed;
+    }
+}
@@ -0,0 +1,194 @@
+package org.example;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+// Оцінка правил маніфесту (rules/os/features) для поточної системи та вибір потрібних артефактів
+public class LibraryResolver {
+    public static final String OS_NAME = detectOsName();
+    public static final String OS_ARCH = System.getProperty("os.arch").toLowerCase(Locale.ROOT);
+    private static final boolean ARM64 = OS_ARCH.equals("aarch64") || OS_ARCH.equals("arm64");
+    private static final boolean X86 = OS_ARCH.equals("x86") || OS_ARCH.equals("i386") || OS_ARCH.equals("i686");
+
+    public static class Resolved {
+        public final List<VersionManifest.Artifact> classpath = new ArrayList<>();
+        // jar-и з нативними бібліотеками, які треба розпакувати у каталог natives
+        public final List<VersionManifest.Artifact> natives = new ArrayList<>();
+        // артефакти, відкинуті як інша версія того ж group:artifact[:classifier]
+        public final List<String> duplicates = new ArrayList<>();
+        public long duplicateBytes;
+        public int skipped;
+    }
+
+    private final Map<String, Boolean> features;
+
+    public LibraryResolver(Map<String, Boolean> features) {
+        this.features = features;
+    }
+
+    // Кілька маніфестів (напр. профіль Fabric і батьківська версія) — у порядку дочірній, батьківський
+    // Якщо той самий group:artifact зустрічається кілька разів, лишається перший — тобто версія з дочірнього профілю
+    public Resolved resolve(VersionManifest... manifests) {
+        Resolved out = new Resolved();
+        for (VersionManifest manifest : manifests) {
+            resolveInto(manifest, out);
+        }
+        Map<String, String> kept = new HashMap<>();
+        Set<VersionManifest.Artifact> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        Iterator<VersionManifest.Artifact> it = out.classpath.iterator();
+        while (it.hasNext()) {
+            VersionManifest.Artifact a = it.next();
+            String[] coord = coordinate(a.path);
+            String previous = kept.putIfAbsent(coord[0], coord[1]);
+            if (previous != null) {
+                it.remove();
+                removed.add(a);
+                out.duplicates.add(coord[0] + ":" + coord[1] + " (лишається " + previous + ")");
+                out.duplicateBytes += a.size;
+            }
+        }
+        out.natives.removeIf(removed::contains);
+        return out;
+    }
+
+    // Maven-шлях group/dirs/artifact/version/artifact-version[-classifier].jar -> {group:artifact[:classifier], version}
+    static String[] coordinate(String path) {
+        String[] seg = path.split("/");
+        if (seg.length < 4) return new String[] {path, ""};
+        String artifact = seg[seg.length - 3];
+        String version = seg[seg.length - 2];
+        String file = seg[seg.length - 1];
+        String base = artifact + "-" + version;
+        if (!file.startsWith(base) || !file.endsWith(".jar")) return new String[] {path, ""};
+        String classifier = file.substring(base.length(), file.length() - 4);
+        String group = String.join(".", Arrays.copyOf(seg, seg.length - 3));
+        return new String[] {group + ":" + artifact + (classifier.startsWith("-") ? ":" + classifier.substring(1) : ""), version};
+    }
+
+    private void resolveInto(VersionManifest manifest, Resolved out) {
+        for (VersionManifest.Library lib : manifest.libraries) {
+            if (!rulesAllow(lib.rules) || !classifierMatchesArch(lib.name)) {
+                out.skipped++;
+                continue;
+            }
+            VersionManifest.Artifact artifact = lib.artifact != null ? lib.artifact : mavenArtifact(lib);
+            if (artifact != null && artifact.path != null) {
+                out.classpath.add(artifact);
+                if (lib.name != null && lib.name.contains(":natives-")) {
+                    out.natives.add(artifact);
+                }
+            }
+            String classifier = lib.natives.get(OS_NAME);
+            if (classifier != null) {
+                classifier = classifier.replace("${arch}", X86 ? "32" : "64");
+                VersionManifest.Artifact nativeJar = lib.classifiers.get(classifier);
+                if (nativeJar != null && nativeJar.path != null) out.natives.add(nativeJar);
+            }
+        }
+    }
+
+    // Бібліотеки Fabric задані Maven-координатами group:artifact:version[:classifier] і базовим url репозиторію
+    static VersionManifest.Artifact mavenArtifact(VersionManifest.Library lib) {
+        if (lib.name == null || lib.url == null) return null;
+        String[] parts = lib.name.split(":");
+        if (parts.length < 3) return null;
+        String file = parts[1] + "-" + parts[2] + (parts.length > 3 ? "-" + parts[3] : "") + ".jar";
+        VersionManifest.Artifact a = new VersionManifest.Artifact();
+        a.path = parts[0].replace('.', '/') + "/" + parts[1] + "/" + parts[2] + "/" + file;
+        a.url = (lib.url.endsWith("/") ? lib.url : lib.url + "/") + a.path;
+        a.sha1 = lib.sha1;
+        a.size = lib.size;
+        return a;
+    }
+
+    // arguments.jvm/game: правила відсіюють непотрібні для цієї ОС записи, ${...} підставляються з vars.
+    // Пара "-cp ${classpath}" пропускається — classpath передається окремо.
+    public List<String> resolveArguments(List<VersionManifest.Argument> arguments, Map<String, String> vars) {
+        List<String> out = new ArrayList<>();
+        for (VersionManifest.Argument arg : arguments) {
+            if (!rulesAllow(arg.rules)) continue;
+            for (String value : arg.values) {
+                if (value.equals("${classpath}")) {
+                    if (!out.isEmpty() && (out.get(out.size() - 1).equals("-cp") || out.get(out.size() - 1).equals("-classpath"))) {
+                        out.remove(out.size() - 1);
+                    }
+                    continue;
+                }
+                out.add(substitute(value, vars));
+            }
+        }
+        return out;
+    }
+
+    private static String substitute(String value, Map<String, String> vars) {
+        int start = value.indexOf("${");
+        if (start < 0) return value;
+        StringBuilder sb = new StringBuilder();
+        int pos = 0;
+        while (start >= 0) {
+            int end = value.indexOf('}', start);
+            if (end < 0) break;
+            String replacement = vars.get(value.substring(start + 2, end));
+            sb.append(value, pos, start).append(replacement != null ? replacement : value.substring(start, end + 1));
+            pos = end + 1;
+            start = value.indexOf("${", pos);
+        }
+        return sb.append(value.substring(pos)).toString();
+    }
+
+    // Семантика Mojang: без правил — дозволено; інакше результат визначає останнє правило, що збіглося
+    public boolean rulesAllow(List<VersionManifest.Rule> rules) {
+        if (rules.isEmpty()) return true;
+        boolean allowed = false;
+        for (VersionManifest.Rule rule : rules) {
+            if (matches(rule)) allowed = "allow".equals(rule.action);
+        }
+        return allowed;
+    }
+
+    private boolean matches(VersionManifest.Rule rule) {
+        if (rule.osName != null && !rule.osName.equals(OS_NAME)) return false;
+        if (rule.osArch != null && !archMatches(rule.osArch)) return false;
+        if (rule.osVersion != null && !regexMatches(rule.osVersion, System.getProperty("os.version"))) return false;
+        for (Map.Entry<String, Boolean> f : rule.features.entrySet()) {
+            if (features.getOrDefault(f.getKey(), false) != f.getValue().booleanValue()) return false;
+        }
+        return true;
+    }
+
+    private static boolean archMatches(String arch) {
+        return switch (arch) {
+            case "x86" -> X86;
+            case "x86_64", "amd64" -> !X86 && !ARM64;
+            case "arm64", "aarch64" -> ARM64;
+            default -> arch.equals(OS_ARCH);
+        };
+    }
+
+    // Нативні jar-и з 1.19+ мають однакове правило os для всіх архітектур; архітектура лише в класифікаторі
+    private static boolean classifierMatchesArch(String name) {
+        if (name == null) return true;
+        int idx = name.indexOf(":natives-");
+        if (idx < 0) return true;
+        String classifier = name.substring(idx + 1);
+        if (classifier.endsWith("-arm64") || classifier.endsWith("-aarch64")) return ARM64;
+        if (classifier.endsWith("-x86")) return X86;
+        return !ARM64 && !X86;
+    }
+
+    private static boolean regexMatches(String regex, String value) {
+        try {
+            return value != null && Pattern.compile(regex).matcher(value).find();
+        } catch (PatternSyntaxException e) {
+            return false;
+        }
+    }
+
+    private static String detectOsName() {
+        String os = System.getProperty("os.name").toLowerCase(Locale.ROOT);
+        if (os.contains("win")) return "windows";
+        if (os.contains("mac") || os.contains("darwin")) return "osx";
+        return "linux";
+    }
+}
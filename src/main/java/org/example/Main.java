@@ -2,6 +2,10 @@ package org.example;
 
 public class Main {
     public static void main(String[] args) {
+        LauncherEvents.startRecordingIfRequested();
+        if (PrefetchCli.handles(args)) {
+            System.exit(PrefetchCli.run(args));
+        }
         LauncherApp.main(args);
     }
 }
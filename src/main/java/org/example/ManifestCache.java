@@ -0,0 +1,214 @@
+package org.example;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Кеш маніфестів на диску: індекс версій ревалідується через ETag/If-Modified-Since,
+// маніфести конкретних версій незмінні (ключ — sha1) і завантажуються лише один раз.
+public class ManifestCache {
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(Long.getLong("pl.manifest.ttl.minutes", 60));
+    private static ManifestCache defaultCache;
+
+    private final File dir;
+    private final long ttlMillis;
+    private final File versionsFile;
+    // id версії -> sha1 маніфесту, щоб теплий запуск не потребував індексу взагалі
+    private final Properties versionShas = new Properties();
+    private final Map<String, VersionCatalog> catalogs = new HashMap<>();
+
+    public ManifestCache(File dir, long ttlMillis) {
+        this.dir = dir;
+        this.ttlMillis = ttlMillis;
+        this.versionsFile = new File(dir, "versions.properties");
+        FileUtil.loadProperties(versionsFile, versionShas);
+    }
+
+    public static synchronized ManifestCache getDefault() {
+        if (defaultCache == null) {
+            defaultCache = new ManifestCache(new File("cache", "manifests"), DEFAULT_TTL_MILLIS);
+        }
+        return defaultCache;
+    }
+
+    // Розібраний індекс живе в пам'яті каталогу — повторні пошуки не читають і не парсять JSON
+    public synchronized VersionCatalog catalog(String indexUrl) {
+        return catalogs.computeIfAbsent(indexUrl, url -> new VersionCatalog(this, url));
+    }
+
+    public String versionSha1(String versionId) {
+        String sha1 = versionShas.getProperty(versionId);
+        return sha1 != null && manifestFile(sha1).isFile() ? sha1 : null;
+    }
+
+    // Версії, чий маніфест уже є на диску (встановлювались або перевірялись)
+    public synchronized Set<String> cachedVersionIds() {
+        return new TreeSet<>(versionShas.stringPropertyNames());
+    }
+
+    // Маніфест лише з диска, без мережі; null — його немає
+    public VersionManifest cachedVersion(String versionId) throws IOException {
+        String sha1 = versionSha1(versionId);
+        if (sha1 == null) return null;
+        try (InputStream in = new FileInputStream(manifestFile(sha1))) {
+            return VersionManifest.parse(in);
+        }
+    }
+
+    // Версію видалено з диска (збирання сміття): маніфест більше не потрібен
+    public synchronized void forget(String versionId) throws IOException {
+        String sha1 = (String) versionShas.remove(versionId);
+        if (sha1 == null) return;
+        FileUtil.storeProperties(versionsFile, versionShas);
+        if (!versionShas.containsValue(sha1)) Files.deleteIfExists(manifestFile(sha1).toPath());
+    }
+
+    public VersionManifest version(String indexUrl, String versionId) throws IOException {
+        String sha1 = versionShas.getProperty(versionId);
+        VersionIndex.Entry entry = null;
+        if (sha1 == null || !manifestFile(sha1).isFile()) {
+            entry = catalog(indexUrl).entry(versionId);
+            if (entry == null) throw new IOException("Не знайдено manifest для версії " + versionId);
+        } else {
+            // Mojang інколи перевипускає маніфест версії під тим самим id. Індекс, уже розібраний
+            // (чи ревалідований) у цьому процесі, звіряємо без мережі; теплий запуск його не вантажить.
+            VersionIndex loaded = catalog(indexUrl).loaded();
+            VersionIndex.Entry current = loaded != null ? loaded.entry(versionId) : null;
+            if (current != null && current.sha1 != null && !current.sha1.equals(sha1)) {
+                entry = current;
+                Metrics.increment("manifest.version.republished");
+            }
+        }
+        if (entry != null) {
+            sha1 = entry.sha1;
+            fetchImmutable(entry.url, sha1);
+            rememberVersion(versionId, sha1);
+        }
+        try (InputStream in = new FileInputStream(manifestFile(sha1))) {
+            return VersionManifest.parse(in);
+        }
+    }
+
+    public File indexFile(String url) throws IOException {
+        return revalidate(url, false);
+    }
+
+    // Примусова ревалідація без урахування TTL
+    File refreshIndex(String url) throws IOException {
+        return revalidate(url, true);
+    }
+
+    private synchronized File revalidate(String url, boolean force) throws IOException {
+        String key = Integer.toHexString(url.hashCode());
+        File body = new File(dir, "index-" + key + ".json");
+        File metaFile = new File(dir, "index-" + key + ".properties");
+        Properties meta = new Properties();
+        FileUtil.loadProperties(metaFile, meta);
+        long fetchedAt = Long.parseLong(meta.getProperty("fetchedAt", "0"));
+        if (!force && body.isFile() && System.currentTimeMillis() - fetchedAt < ttlMillis) {
+            Metrics.increment("manifest.index.fresh");
+            return body;
+        }
+        LauncherEvents.ManifestFetch event = new LauncherEvents.ManifestFetch();
+        event.url = url;
+        event.begin();
+        long t0 = System.nanoTime();
+        try {
+            HttpURLConnection conn = Mirrors.getDefault().open(url, "GET", c -> {
+                if (body.isFile()) {
+                    String etag = meta.getProperty("etag");
+                    String lastModified = meta.getProperty("lastModified");
+                    if (etag != null) c.setRequestProperty("If-None-Match", etag);
+                    if (lastModified != null) c.setRequestProperty("If-Modified-Since", lastModified);
+                }
+            });
+            try {
+                int code = conn.getResponseCode();
+                if (code == HttpURLConnection.HTTP_NOT_MODIFIED && body.isFile()) {
+                    meta.setProperty("fetchedAt", Long.toString(System.currentTimeMillis()));
+                    FileUtil.storeProperties(metaFile, meta);
+                    event.result = "not-modified";
+                    return body;
+                }
+                if (code >= 400) throw new IOException("HTTP " + code + " для " + url);
+                File tmp = FileUtil.tempFile(body);
+                FileUtil.mkdirs(dir);
+                try (InputStream in = conn.getInputStream()) {
+                    Files.copy(in, tmp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                Files.move(tmp.toPath(), body.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                meta.clear();
+                String etag = conn.getHeaderField("ETag");
+                String lastModified = conn.getHeaderField("Last-Modified");
+                if (etag != null) meta.setProperty("etag", etag);
+                if (lastModified != null) meta.setProperty("lastModified", lastModified);
+                meta.setProperty("fetchedAt", Long.toString(System.currentTimeMillis()));
+                FileUtil.storeProperties(metaFile, meta);
+                event.result = "downloaded";
+                event.bytes = body.length();
+                return body;
+            } finally {
+                conn.disconnect();
+            }
+        } catch (IOException ex) {
+            // скасування — не привід мовчки брати копію; тайм-аут, як і офлайн, — працюємо з кешем
+            if (HttpDownloader.cancelled(ex)) {
+                event.result = "interrupted";
+                throw ex;
+            }
+            event.result = body.isFile() ? "offline-cache" : "failed";
+            if (body.isFile()) return body;
+            throw ex;
+        } finally {
+            event.commit();
+            Metrics.increment("manifest.index." + event.result);
+            Metrics.recordNanos("manifest.fetch.ms", t0);
+        }
+    }
+
+    private File manifestFile(String sha1) {
+        return new File(dir, sha1 + ".json");
+    }
+
+    private void fetchImmutable(String url, String sha1) throws IOException {
+        File target = manifestFile(sha1);
+        FileUtil.mkdirs(dir);
+        File tmp = FileUtil.tempFile(target);
+        LauncherEvents.ManifestFetch event = new LauncherEvents.ManifestFetch();
+        event.url = url;
+        event.result = "downloaded";
+        event.begin();
+        long t0 = System.nanoTime();
+        HttpURLConnection conn = Mirrors.getDefault().open(url, "GET", c -> {});
+        MessageDigest md = ArtifactStore.newSha1();
+        try (InputStream in = new DigestInputStream(conn.getInputStream(), md)) {
+            Files.copy(in, tmp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            conn.disconnect();
+        }
+        String actual = ArtifactStore.toHex(md.digest());
+        if (sha1 != null && !sha1.equals(actual)) {
+            Files.deleteIfExists(tmp.toPath());
+            throw new IOException("Контрольна сума маніфесту не збігається: " + url);
+        }
+        Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        event.bytes = target.length();
+        event.commit();
+        Metrics.recordNanos("manifest.fetch.ms", t0);
+        Metrics.increment("manifest.version.downloaded");
+    }
+
+    private synchronized void rememberVersion(String versionId, String sha1) throws IOException {
+        Object old = versionShas.setProperty(versionId, sha1);
+        FileUtil.storeProperties(versionsFile, versionShas);
+        // застарілий маніфест перевипущеної версії більше ніхто не читає
+        if (old != null && !old.equals(sha1) && !versionShas.containsValue(old)) {
+            Files.deleteIfExists(manifestFile((String) old).toPath());
+        }
+    }
+}
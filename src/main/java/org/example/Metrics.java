@@ -0,0 +1,140 @@
+package org.example;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Легкий реєстр метрик у межах процесу: лічильники та гістограми (мс, байти).
+// Після кожного запуску знімок пишеться в logs/launcher-metrics.json разом з описом машини,
+// щоб порівнювати різні машини та збірки лаунчера.
+public final class Metrics {
+    public static final File DEFAULT_FILE = new File("logs", "launcher-metrics.json");
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final long STARTED_AT = System.currentTimeMillis();
+
+    private Metrics() {}
+
+    // Кошики за степенями двійки: запис — кілька атомарних операцій без блокувань,
+    // перцентилі наближені з точністю до кошика (верхня межа, обмежена max)
+    public static final class Histogram {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+
+        public void record(long value) {
+            value = Math.max(0, value);
+            count.increment();
+            sum.add(value);
+            min.accumulate(value);
+            max.accumulate(value);
+            buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(value));
+        }
+
+        long percentile(double p) {
+            long total = count.sum();
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(total * p);
+            long seen = 0;
+            for (int i = 0; i < 64; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) return Math.min(i == 0 ? 0 : (1L << i) - 1, max.get());
+            }
+            return max.get();
+        }
+    }
+
+    public static void increment(String name) {
+        add(name, 1);
+    }
+
+    public static void add(String name, long n) {
+        COUNTERS.computeIfAbsent(name, k -> new LongAdder()).add(n);
+    }
+
+    public static Histogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    public static void record(String name, long value) {
+        histogram(name).record(value);
+    }
+
+    public static void recordNanos(String name, long startNanos) {
+        record(name, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    public static void dump() {
+        try {
+            dump(DEFAULT_FILE);
+        } catch (IOException ignored) {}
+    }
+
+    public static synchronized void dump(File file) throws IOException {
+        StringBuilder sb = new StringBuilder("{\n");
+        sb.append("  \"generatedAt\": \"").append(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ").format(new Date())).append("\",\n");
+        sb.append("  \"uptimeMillis\": ").append(System.currentTimeMillis() - STARTED_AT).append(",\n");
+        Package pkg = Metrics.class.getPackage();
+        String build = pkg != null && pkg.getImplementationVersion() != null ? pkg.getImplementationVersion() : "dev";
+        sb.append("  \"launcher\": ");
+        quote(sb, build);
+        sb.append(",\n  \"host\": {\"os\": ");
+        quote(sb, System.getProperty("os.name") + " " + System.getProperty("os.version") + " " + System.getProperty("os.arch"));
+        sb.append(", \"cores\": ").append(Runtime.getRuntime().availableProcessors());
+        sb.append(", \"java\": ");
+        quote(sb, System.getProperty("java.version"));
+        sb.append("},\n  \"counters\": {");
+        String sep = "\n";
+        for (Map.Entry<String, LongAdder> e : new TreeMap<>(COUNTERS).entrySet()) {
+            sb.append(sep).append("    ");
+            quote(sb, e.getKey());
+            sb.append(": ").append(e.getValue().sum());
+            sep = ",\n";
+        }
+        sb.append("\n  },\n  \"histograms\": {");
+        sep = "\n";
+        for (Map.Entry<String, Histogram> e : new TreeMap<>(HISTOGRAMS).entrySet()) {
+            Histogram h = e.getValue();
+            long count = h.count.sum();
+            if (count == 0) continue;
+            sb.append(sep).append("    ");
+            quote(sb, e.getKey());
+            sb.append(": {\"count\": ").append(count)
+                    .append(", \"sum\": ").append(h.sum.sum())
+                    .append(", \"min\": ").append(h.min.get())
+                    .append(", \"mean\": ").append(h.sum.sum() / count)
+                    .append(", \"p50\": ").append(h.percentile(0.50))
+                    .append(", \"p90\": ").append(h.percentile(0.90))
+                    .append(", \"p99\": ").append(h.percentile(0.99))
+                    .append(", \"max\": ").append(h.max.get()).append('}');
+            sep = ",\n";
+        }
+        sb.append("\n  }\n}\n");
+        FileUtil.mkdirs(file.getParentFile());
+        File tmp = FileUtil.tempFile(file);
+        Files.write(tmp.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static void quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        sb.append('"');
+    }
+}
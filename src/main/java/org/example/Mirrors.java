@@ -0,0 +1,262 @@
+package org.example;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+// Дзеркала для кожного джерела. Файл mirrors.txt (pl.mirrors.file), рядок на джерело:
+//   https://piston-data.mojang.com/ http://10.0.0.5:8080/piston-data/ https://mirror.example/mojang/
+// Саме джерело завжди лишається в списку. Порядок визначає оцінка: збережена швидкість (EWMA байт/с),
+// а для хостів без історії — затримка пробного HEAD; серія помилок знижує оцінку.
+// Рядок "peer http://10.0.0.5:8090/" (або -Dpl.peers=...) додає LAN-вузол з ArtifactServer: для файлів
+// з відомим SHA-1 він пробується першим за адресою <peer>objects/<sha1>.
+public class Mirrors {
+    private static final int PROBE_TIMEOUT_MS = 2_000;
+    // оцінка пропускної здатності хоста без історії: одне вікно 64 КБ за RTT
+    private static final double PROBE_WINDOW_BYTES = 64 * 1024;
+    private static final double EWMA_ALPHA = 0.3;
+    private static final long SAVE_INTERVAL_MS = 2_000;
+    // після паузи хост з помилками знову отримує шанс, інакше він назавжди лишиться останнім
+    private static final long FAILURE_DECAY_MS = 10 * 60_000;
+    private static final ExecutorService PROBES = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "pl-mirror-probe");
+        t.setDaemon(true);
+        return t;
+    });
+    private static Mirrors defaultMirrors;
+
+    private final Map<String, List<String>> origins = new LinkedHashMap<>();
+    private final List<String> peers = new ArrayList<>();
+    private final File statsFile;
+    private final Properties stats = new Properties();
+    // база -> затримка пробного HEAD, мс (-1 — недоступне); один HEAD на базу за весь час роботи
+    private final Map<String, CompletableFuture<Long>> latencyMs = new ConcurrentHashMap<>();
+    private long lastSave;
+
+    public Mirrors(File configFile, File statsFile) {
+        this.statsFile = statsFile;
+        FileUtil.loadProperties(statsFile, stats);
+        for (String peer : System.getProperty("pl.peers", "").split(",")) {
+            addPeer(peer.trim());
+        }
+        if (!configFile.isFile()) return;
+        try {
+            for (String line : Files.readAllLines(configFile.toPath(), StandardCharsets.UTF_8)) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] parts = line.split("\\s+");
+                if (parts[0].equals("peer")) {
+                    for (int i = 1; i < parts.length; i++) addPeer(parts[i]);
+                    continue;
+                }
+                List<String> bases = new ArrayList<>();
+                for (String p : parts) {
+                    String base = p.endsWith("/") ? p : p + "/";
+                    if (!bases.contains(base)) bases.add(base);
+                }
+                origins.put(bases.get(0), bases);
+            }
+        } catch (IOException | UncheckedIOException ignored) {}
+    }
+
+    private void addPeer(String url) {
+        if (url.isEmpty()) return;
+        String base = url.endsWith("/") ? url : url + "/";
+        if (!peers.contains(base)) peers.add(base);
+    }
+
+    public static synchronized Mirrors getDefault() {
+        if (defaultMirrors == null) {
+            defaultMirrors = new Mirrors(new File(System.getProperty("pl.mirrors.file", "mirrors.txt")),
+                    new File("cache", "mirror-stats.properties"));
+            Runtime.getRuntime().addShutdownHook(new Thread(defaultMirrors::save, "pl-mirror-stats"));
+        }
+        return defaultMirrors;
+    }
+
+    // Повні URL у порядку спроб; без налаштованих дзеркал — лише сам url
+    public List<String> candidates(String url) {
+        for (Map.Entry<String, List<String>> e : origins.entrySet()) {
+            String origin = e.getKey();
+            if (!url.startsWith(origin)) continue;
+            String rest = url.substring(origin.length());
+            List<String> out = new ArrayList<>();
+            for (String base : rank(e.getValue())) {
+                out.add(base + rest);
+            }
+            return out;
+        }
+        return List.of(url);
+    }
+
+    // Те саме, але з LAN-вузлами попереду, якщо відомий SHA-1 вмісту (клієнт його перевірить).
+    // Вузол з недавніми помилками йде в кінець, щоб недоступна машина не гальмувала кожне завантаження.
+    public List<String> candidates(String url, String sha1) {
+        if (sha1 == null || peers.isEmpty()) return candidates(url);
+        List<String> healthy = new ArrayList<>();
+        List<String> failing = new ArrayList<>();
+        for (String peer : peers) {
+            (recentlyFailed(peer) ? failing : healthy).add(peer + "objects/" + sha1);
+        }
+        List<String> out = new ArrayList<>(healthy);
+        out.addAll(candidates(url));
+        out.addAll(failing);
+        return out;
+    }
+
+    public boolean isPeer(String url) {
+        for (String peer : peers) {
+            if (url.startsWith(peer)) return true;
+        }
+        return false;
+    }
+
+    private boolean recentlyFailed(String base) {
+        synchronized (stats) {
+            return parse(stats.getProperty(base + ".streak")) > 0
+                    && System.currentTimeMillis() - (long) parse(stats.getProperty(base + ".failedAt")) <= FAILURE_DECAY_MS;
+        }
+    }
+
+    // HTTP-запит з переходом на наступне дзеркало при помилці з'єднання, тайм-ауті або коді >= 400.
+    // Повертає з'єднання з уже отриманим кодом відповіді (останнє, якщо всі дзеркала відмовили).
+    public HttpURLConnection open(String url, String method, Consumer<HttpURLConnection> setup) throws IOException {
+        List<String> urls = candidates(url);
+        IOException last = null;
+        for (int i = 0; i < urls.size(); i++) {
+            String candidate = urls.get(i);
+            HttpURLConnection conn = HttpDownloader.open(candidate, method);
+            setup.accept(conn);
+            try {
+                int code = conn.getResponseCode();
+                if (code < 400 || i == urls.size() - 1) return conn;
+                conn.disconnect();
+                recordFailure(candidate);
+            } catch (IOException ex) {
+                conn.disconnect();
+                if (HttpDownloader.cancelled(ex)) throw ex;
+                recordFailure(candidate);
+                last = ex;
+            }
+        }
+        throw last != null ? last : new IOException("Немає доступних дзеркал для " + url);
+    }
+
+    public void recordSuccess(String url, long bytes, long nanos) {
+        String base = baseOf(url);
+        if (base == null || nanos <= 0) return;
+        synchronized (stats) {
+            stats.setProperty(base + ".streak", "0");
+            // дрібні файли вимірюють здебільшого затримку, а не швидкість
+            if (bytes >= 256 * 1024) {
+                double bps = bytes / (nanos / 1e9);
+                double old = parse(stats.getProperty(base + ".bps"));
+                stats.setProperty(base + ".bps", Long.toString((long) (old > 0 ? old * (1 - EWMA_ALPHA) + bps * EWMA_ALPHA : bps)));
+            }
+            saveIfDue();
+        }
+    }
+
+    public void recordFailure(String url) {
+        String base = baseOf(url);
+        if (base == null) return;
+        synchronized (stats) {
+            stats.setProperty(base + ".streak", Long.toString((long) parse(stats.getProperty(base + ".streak")) + 1));
+            stats.setProperty(base + ".failedAt", Long.toString(System.currentTimeMillis()));
+            saveIfDue();
+        }
+    }
+
+    public double score(String base) {
+        double bps;
+        int streak;
+        synchronized (stats) {
+            bps = parse(stats.getProperty(base + ".bps"));
+            streak = (int) parse(stats.getProperty(base + ".streak"));
+            if (System.currentTimeMillis() - (long) parse(stats.getProperty(base + ".failedAt")) > FAILURE_DECAY_MS) streak = 0;
+        }
+        if (bps <= 0) {
+            CompletableFuture<Long> probe = latencyMs.get(base);
+            Long latency = probe != null ? probe.getNow(null) : null;
+            if (latency == null) return 1;
+            bps = latency < 0 ? 0 : PROBE_WINDOW_BYTES / (Math.max(1, latency) / 1000.0);
+        }
+        return bps / (1 + 4.0 * streak);
+    }
+
+    private List<String> rank(List<String> bases) {
+        if (bases.size() < 2) return bases;
+        // паралельні завантаження з тим самим джерелом чекають на ті самі пробні запити, а не шлють свої
+        List<CompletableFuture<Long>> probes = new ArrayList<>();
+        for (String base : bases) {
+            probes.add(latencyMs.computeIfAbsent(base, b -> CompletableFuture.supplyAsync(() -> probe(b), PROBES)));
+        }
+        try {
+            CompletableFuture.allOf(probes.toArray(new CompletableFuture<?>[0])).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ignored) {}
+        List<String> ranked = new ArrayList<>(bases);
+        Map<String, Double> scores = new HashMap<>();
+        for (String b : ranked) scores.put(b, score(b));
+        ranked.sort((a, b) -> Double.compare(scores.get(b), scores.get(a)));
+        return ranked;
+    }
+
+    // HEAD на корінь дзеркала; будь-яка HTTP-відповідь означає, що хост живий
+    private static long probe(String base) {
+        long t0 = System.nanoTime();
+        try {
+            HttpURLConnection conn = HttpDownloader.open(base, "HEAD");
+            conn.setConnectTimeout(PROBE_TIMEOUT_MS);
+            conn.setReadTimeout(PROBE_TIMEOUT_MS);
+            conn.getResponseCode();
+            conn.disconnect();
+            return (System.nanoTime() - t0) / 1_000_000;
+        } catch (IOException ex) {
+            return -1L;
+        }
+    }
+
+    private String baseOf(String url) {
+        for (String peer : peers) {
+            if (url.startsWith(peer)) return peer;
+        }
+        for (List<String> bases : origins.values()) {
+            for (String base : bases) {
+                if (url.startsWith(base)) return base;
+            }
+        }
+        return null;
+    }
+
+    private void saveIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastSave < SAVE_INTERVAL_MS) return;
+        lastSave = now;
+        try {
+            FileUtil.storeProperties(statsFile, stats);
+        } catch (IOException ignored) {}
+    }
+
+    public void save() {
+        synchronized (stats) {
+            try {
+                FileUtil.storeProperties(statsFile, stats);
+            } catch (IOException ignored) {}
+        }
+    }
+
+    private static double parse(String value) {
+        if (value == null) return 0;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// Розпаковує .so/.dll/.dylib з нативних jar-ів у каталог версії. ZipFile читає лише центральний каталог,
+// а записи, розмір і CRC яких збігаються з уже розпакованими, пропускаються без читання файлів.
+public class NativesExtractor {
+    private static final String STATE_FILE = ".extracted.properties";
+
+    public static class Stats {
+        public int extracted;
+        public int upToDate;
+    }
+
+    private final int jobs;
+
+    public NativesExtractor(int jobs) {
+        this.jobs = Math.max(1, jobs);
+    }
+
+    public Stats extract(List<File> jars, File targetDir) throws IOException {
+        FileUtil.mkdirs(targetDir);
+        File stateFile = new File(targetDir, STATE_FILE);
+        Properties state = FileUtil.loadProperties(stateFile);
+        Properties newState = new Properties();
+        Stats stats = new Stats();
+        if (jars.isEmpty()) return stats;
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(jobs, jars.size()), r -> {
+            Thread t = new Thread(r, "pl-natives");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (File jar : jars) {
+                futures.add(pool.submit(() -> {
+                    extractJar(jar, targetDir, state, newState, stats);
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (cause instanceof IOException io) throw io;
+                    throw new IOException(cause);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Розпакування перервано");
+        } finally {
+            pool.shutdownNow();
+        }
+        if (!newState.equals(state)) FileUtil.storeProperties(stateFile, newState);
+        return stats;
+    }
+
+    private static void extractJar(File jar, File targetDir, Properties state, Properties newState, Stats stats) throws IOException {
+        try (ZipFile zip = new ZipFile(jar)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory() || entry.getName().startsWith("META-INF/") || !isNativeLibrary(entry.getName())) continue;
+                String name = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+                File out = new File(targetDir, name);
+                String signature = entry.getSize() + ":" + Long.toHexString(entry.getCrc());
+                synchronized (newState) {
+                    newState.setProperty(name, signature);
+                }
+                if (signature.equals(state.getProperty(name)) && out.length() == entry.getSize()) {
+                    synchronized (stats) {
+                        stats.upToDate++;
+                    }
+                    continue;
+                }
+                File tmp = FileUtil.tempFile(out);
+                try (InputStream in = zip.getInputStream(entry)) {
+                    Files.copy(in, tmp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                Files.move(tmp.toPath(), out.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                synchronized (stats) {
+                    stats.extracted++;
+                }
+            }
+        }
+    }
+
+    private static boolean isNativeLibrary(String name) {
+        return name.endsWith(".so") || name.endsWith(".dll") || name.endsWith(".dylib") || name.endsWith(".jnilib");
+    }
+}
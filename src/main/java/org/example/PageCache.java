@@ -0,0 +1,34 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+// Прогрів page cache: послідовне читання вже наявних jar, поки етапи запуску чекають на мережу.
+// Гра відкриває classpath одразу після старту, і холодні читання з диска тоді йдуть на критичному шляху.
+final class PageCache {
+    private PageCache() {}
+
+    // Повертає кількість прочитаних байтів; зупиняється при перериванні потоку
+    static long warm(Collection<File> files) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+        long total = 0;
+        for (File f : files) {
+            if (Thread.currentThread().isInterrupted()) break;
+            if (!f.isFile()) continue;
+            try (FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+                int n;
+                while (!Thread.currentThread().isInterrupted() && (n = ch.read(buffer)) > 0) {
+                    total += n;
+                    buffer.clear();
+                }
+            } catch (IOException ignored) {
+                // ClosedByInterruptException або файл зник — прогрів не обов'язковий
+            }
+        }
+        return total;
+    }
+}
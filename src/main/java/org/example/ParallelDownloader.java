@@ -0,0 +1,162 @@
+package org.example;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+public class ParallelDownloader {
+    public static final int DEFAULT_JOBS = Integer.getInteger("pl.download.jobs", 8);
+    // Файли, які вже завантажуються іншим викликом downloadAll (кілька версій паралельно ділять ресурси)
+    private static final ConcurrentHashMap<String, CompletableFuture<Void>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    public static class Task {
+        final String url;
+        final File dest;
+        final long size;
+        final String sha1;
+        final boolean viaStore;
+
+        public Task(String url, File dest, long size) {
+            this(url, dest, size, null);
+        }
+
+        public Task(String url, File dest, long size, String sha1) {
+            this(url, dest, size, sha1, true);
+        }
+
+        // viaStore = false: файл перевіряється за sha1, але кладеться прямо в dest (dest уже адресується хешем)
+        public Task(String url, File dest, long size, String sha1, boolean viaStore) {
+            this.url = url;
+            this.dest = dest;
+            this.size = size;
+            this.sha1 = sha1;
+            this.viaStore = viaStore;
+        }
+    }
+
+    private final int jobs;
+    private final ArtifactStore store;
+    // Обмежує одночасні завантаження, навіть якщо downloadAll викликають з кількох потоків
+    private final Semaphore permits;
+
+    public ParallelDownloader(int jobs) {
+        this(jobs, ArtifactStore.getDefault());
+    }
+
+    public ParallelDownloader(int jobs, ArtifactStore store) {
+        this.jobs = Math.max(1, jobs);
+        this.store = store;
+        this.permits = new Semaphore(this.jobs);
+    }
+
+    public void downloadAll(List<Task> tasks, DownloadProgress progress) throws IOException {
+        if (tasks.isEmpty()) return;
+        long total = 0;
+        for (Task t : tasks) total += Math.max(0, t.size);
+        progress.addWork(total, tasks.size());
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(jobs, tasks.size()), r -> {
+            Thread t = new Thread(r, "pl-download");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Task task : tasks) {
+                futures.add(pool.submit(() -> {
+                    permits.acquire();
+                    try {
+                        fetch(task, progress);
+                    } finally {
+                        permits.release();
+                    }
+                    progress.fileDone();
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException ex) {
+                    futures.forEach(other -> other.cancel(true));
+                    Throwable cause = ex.getCause();
+                    if (cause instanceof IOException io) throw io;
+                    throw new IOException(cause);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Завантаження перервано");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void fetch(Task task, ArtifactStore.ByteCounter counter) throws IOException {
+        if (task.sha1 != null && task.viaStore) {
+            store.fetch(task.url, task.sha1, task.size, task.dest, counter);
+            return;
+        }
+        String key = task.dest.getAbsolutePath();
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> other = IN_FLIGHT.putIfAbsent(key, mine);
+        if (other != null) {
+            awaitOther(other, task);
+            counter.add(Math.max(0, task.size));
+            return;
+        }
+        try {
+            if (!task.viaStore && task.sha1 != null) {
+                // той самий файл може завантажувати інший процес лаунчера
+                Closeable lock = store.lock(task.sha1);
+                try {
+                    // файл, що адресується хешем, з'являється лише атомарним move — отже вже перевірений
+                    if (task.dest.isFile() && task.dest.length() == task.size) {
+                        ArtifactStore.cacheHit(task.url, task.size);
+                        counter.add(Math.max(0, task.size));
+                    } else {
+                        download(task, counter);
+                    }
+                } finally {
+                    lock.close();
+                }
+            } else {
+                download(task, counter);
+            }
+            mine.complete(null);
+        } catch (IOException | RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            IN_FLIGHT.remove(key, mine);
+        }
+    }
+
+    private static void awaitOther(CompletableFuture<Void> other, Task task) throws IOException {
+        try {
+            other.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Завантаження перервано");
+        } catch (ExecutionException ex) {
+            throw new IOException("Не вдалося завантажити " + task.dest.getName(), ex.getCause());
+        }
+    }
+
+    private static void download(Task task, ArtifactStore.ByteCounter counter) throws IOException {
+        File parent = task.dest.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs() && !parent.exists()) {
+            throw new IOException("Не вдалося створити директорію: " + parent);
+        }
+        File part = new File(task.dest.getPath() + ".part");
+        HttpDownloader.Result result = new HttpDownloader().download(task.url, part, task.size, task.sha1, counter);
+        if (task.sha1 != null && !task.sha1.equals(result.sha1)) {
+            Files.deleteIfExists(part.toPath());
+            throw new IOException("Контрольна сума не збігається для " + task.dest.getName() + ": отримано " + result.sha1);
+        }
+        Files.move(part.toPath(), task.dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,306 @@
+package org.example;
+
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Консольний режим без GUI: --prefetch 1.21.3,1.21.4,latest [--fabric] [--jobs 16] [--serve [--port 8090]]
+// --versions [--snapshots] — список версій з каталогу (VersionCatalog).
+// --verify 1.21.5[,...] [--fabric] [--repair] — перевірка цілісності встановлених файлів (IntegrityCheck).
+// --gc [--budget МБ] [--deep] [--dry-run] — видалення файлів, що не належать жодній версії (StorageGc).
+// Версії встановлюються паралельно через спільний GameInstaller (спільні пули завантажень і дедуплікація).
+// --serve після встановлення роздає сховище іншим лаунчерам у мережі (ArtifactServer) до завершення процесу;
+// --loadtest [--clients 48] [--rounds 3] — перевірка сервера під навантаженням на localhost.
+// У stdout — по одному JSON-об'єкту на рядок; код виходу 0 лише якщо всі версії встановлено.
+public class PrefetchCli {
+    private static final long PROGRESS_INTERVAL_MS = Long.getLong("pl.cli.progress.ms", 500);
+    // JSON завжди в UTF-8, незалежно від кодування консолі
+    private static final PrintStream OUT = new PrintStream(new FileOutputStream(FileDescriptor.out), true, StandardCharsets.UTF_8);
+
+    public static boolean handles(String[] args) {
+        return args.length > 0 && args[0].startsWith("--");
+    }
+
+    public static int run(String[] args) {
+        List<String> versions = new ArrayList<>();
+        boolean fabric = false;
+        boolean serve = false;
+        boolean loadTest = false;
+        boolean listVersions = false;
+        boolean snapshots = false;
+        boolean verify = false;
+        boolean repair = false;
+        boolean gc = false;
+        boolean deep = false;
+        boolean dryRun = false;
+        long budgetMb = GameInstaller.DISK_BUDGET_MB;
+        int jobs = ParallelDownloader.DEFAULT_JOBS;
+        int port = ArtifactServer.DEFAULT_PORT;
+        int clients = 48;
+        int rounds = 3;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--prefetch" -> {
+                        for (String v : args[++i].split(",")) {
+                            if (!v.isBlank()) versions.add(v.trim());
+                        }
+                    }
+                    case "--verify" -> {
+                        verify = true;
+                        for (String v : args[++i].split(",")) {
+                            if (!v.isBlank()) versions.add(v.trim());
+                        }
+                    }
+                    case "--repair" -> repair = true;
+                    case "--gc" -> gc = true;
+                    case "--deep" -> deep = true;
+                    case "--dry-run" -> dryRun = true;
+                    case "--budget" -> budgetMb = Long.parseLong(args[++i]);
+                    case "--fabric" -> fabric = true;
+                    case "--versions" -> listVersions = true;
+                    case "--snapshots" -> snapshots = true;
+                    case "--jobs" -> jobs = Integer.parseInt(args[++i]);
+                    case "--serve" -> serve = true;
+                    case "--port" -> port = Integer.parseInt(args[++i]);
+                    case "--loadtest" -> loadTest = true;
+                    case "--clients" -> clients = Integer.parseInt(args[++i]);
+                    case "--rounds" -> rounds = Integer.parseInt(args[++i]);
+                    default -> throw new IllegalArgumentException("невідомий параметр " + args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException ex) {
+            System.err.println("Помилка: " + (ex instanceof ArrayIndexOutOfBoundsException ? "не вказано значення параметра" : ex.getMessage()));
+            return usage();
+        }
+        if (loadTest) return clients < 1 || rounds < 1 ? usage() : loadTest(clients, rounds);
+        if (listVersions) return listVersions(snapshots);
+        try {
+            VersionCatalog catalog = VersionCatalog.getDefault();
+            for (int i = 0; i < versions.size(); i++) versions.set(i, catalog.resolve(versions.get(i)));
+        } catch (IOException ex) {
+            System.err.println("Помилка: " + ex.getMessage());
+            return 1;
+        }
+        if (gc) return collectGarbage(budgetMb * 1024 * 1024, deep, dryRun);
+        if (verify) return versions.isEmpty() || jobs < 1 ? usage() : verify(new ArrayList<>(new LinkedHashSet<>(versions)), fabric, repair, jobs);
+        if ((versions.isEmpty() && !serve) || jobs < 1) return usage();
+        int code = versions.isEmpty() ? 0 : prefetch(new ArrayList<>(new LinkedHashSet<>(versions)), fabric, jobs);
+        return serve ? serve(port) : code;
+    }
+
+    private static int usage() {
+        System.err.println("Використання: --prefetch <версія|latest|latest-snapshot>[,...] [--fabric] [--jobs N] [--serve [--port N]]");
+        System.err.println("              --versions [--snapshots]");
+        System.err.println("              --verify <версія>[,...] [--fabric] [--repair] [--jobs N]");
+        System.err.println("              --gc [--budget МБ] [--deep] [--dry-run]");
+        System.err.println("              --serve [--port N]");
+        System.err.println("              --loadtest [--clients N] [--rounds N]");
+        return 2;
+    }
+
+    // Версії перевіряються по черзі: хешування й так займає всі ядра, а диск — спільний
+    private static int verify(List<String> versions, boolean fabric, boolean repair, int jobs) {
+        GameInstaller installer = new GameInstaller(jobs, new DownloadProgress(), new GameInstaller.Listener() {
+            @Override
+            public void status(String message) {}
+
+            @Override
+            public void log(String message) {}
+        });
+        int failed = 0;
+        for (String version : versions) {
+            try {
+                IntegrityCheck.Report r = installer.verify(version, fabric, repair);
+                emit("verified", "version", version, "files", r.files, "bytes", r.bytesHashed, "millis", r.millis,
+                        "mbPerSecond", Math.round(r.mbPerSecond()), "mismatched", r.mismatched.size(), "repaired", r.repaired);
+                for (String path : r.mismatched) emit("mismatch", "version", version, "path", path);
+                if (r.mismatched.size() > r.repaired) failed++;
+            } catch (IOException | RuntimeException ex) {
+                failed++;
+                emit("error", "version", version, "message", ex.toString());
+            }
+        }
+        Metrics.dump();
+        return failed == 0 ? 0 : 1;
+    }
+
+    private static int collectGarbage(long budgetBytes, boolean deep, boolean dryRun) {
+        GameInstaller installer = new GameInstaller(1, new DownloadProgress(), new GameInstaller.Listener() {
+            @Override
+            public void status(String message) {}
+
+            @Override
+            public void log(String message) {}
+        });
+        try {
+            StorageGc.Report r = installer.collectGarbage(budgetBytes, deep, dryRun);
+            emit("gc", "dryRun", dryRun, "filesDeleted", r.filesDeleted, "objectsEvicted", r.objectsEvicted,
+                    "bytesFreed", r.bytesFreed, "liveBytes", r.liveBytes, "millis", r.millis,
+                    "kept", String.join(",", r.versionsKept), "evicted", String.join(",", r.versionsEvicted));
+            return 0;
+        } catch (IOException | RuntimeException ex) {
+            emit("error", "message", ex.toString());
+            return 1;
+        } finally {
+            Metrics.dump();
+        }
+    }
+
+    private static int listVersions(boolean snapshots) {
+        try {
+            VersionIndex index = VersionCatalog.getDefault().index();
+            Set<String> types = snapshots ? Set.of(VersionCatalog.RELEASE, VersionCatalog.SNAPSHOT) : Set.of(VersionCatalog.RELEASE);
+            for (VersionIndex.Entry e : index.ofTypes(types)) {
+                emit("version", "id", e.id, "type", e.type, "releaseTime", e.releaseTime);
+            }
+            emit("latest", "release", index.latestRelease, "snapshot", index.latestSnapshot);
+            return 0;
+        } catch (IOException ex) {
+            emit("error", "message", ex.toString());
+            return 1;
+        }
+    }
+
+    private static int serve(int port) {
+        ArtifactStore store = ArtifactStore.getDefault();
+        try {
+            ArtifactServer server = new ArtifactServer(store, port, ArtifactServer.DEFAULT_THREADS);
+            emit("serving", "port", server.getPort());
+            long lastRequests = -1;
+            while (true) {
+                Thread.sleep(10_000);
+                if (server.getRequests() != lastRequests) {
+                    lastRequests = server.getRequests();
+                    emit("served", "requests", lastRequests, "bytes", server.getBytesSent());
+                }
+            }
+        } catch (IOException ex) {
+            emit("error", "message", "Не вдалося запустити сервер: " + ex.getMessage());
+            return 1;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    private static int loadTest(int clients, int rounds) {
+        try {
+            ArtifactServer.LoadResult r = ArtifactServer.loadTest(clients, rounds);
+            emit("loadtest", "clients", r.clients, "objects", r.objects, "requests", r.requests, "errors", r.errors,
+                    "bytes", r.bytes, "millis", r.millis, "requestsPerSecond", Math.round(r.requestsPerSecond()),
+                    "megabytesPerSecond", Math.round(r.megabytesPerSecond()), "p50Micros", r.p50Micros, "p99Micros", r.p99Micros);
+            return r.errors == 0 ? 0 : 1;
+        } catch (IOException ex) {
+            emit("error", "message", String.valueOf(ex));
+            return 1;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+
+    private static int prefetch(List<String> versions, boolean fabric, int jobs) {
+        DownloadProgress progress = new DownloadProgress();
+        GameInstaller installer = new GameInstaller(jobs, progress, new GameInstaller.Listener() {
+            @Override
+            public void status(String message) {}
+
+            @Override
+            public void log(String message) {
+                emit("log", "message", message);
+            }
+        });
+        long start = System.nanoTime();
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pl-cli-progress");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(() -> emitProgress(progress, start), PROGRESS_INTERVAL_MS, PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        ExecutorService pool = Executors.newFixedThreadPool(versions.size(), r -> {
+            Thread t = new Thread(r, "pl-cli-version");
+            t.setDaemon(true);
+            return t;
+        });
+        Map<String, Future<Long>> results = new LinkedHashMap<>();
+        for (String version : versions) {
+            results.put(version, pool.submit(() -> {
+                long t0 = System.nanoTime();
+                installer.install(installer.manifest(version), fabric);
+                return (System.nanoTime() - t0) / 1_000_000;
+            }));
+        }
+        int failed = 0;
+        for (Map.Entry<String, Future<Long>> e : results.entrySet()) {
+            try {
+                long millis = e.getValue().get();
+                emit("done", "version", e.getKey(), "fabric", fabric, "millis", millis);
+            } catch (ExecutionException ex) {
+                failed++;
+                Throwable cause = ex.getCause();
+                emit("error", "version", e.getKey(), "message", String.valueOf(cause));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                failed++;
+                emit("error", "version", e.getKey(), "message", "перервано");
+            }
+        }
+        pool.shutdownNow();
+        ticker.shutdownNow();
+        emitProgress(progress, start);
+        DownloadProgress.Snapshot snap = progress.snapshot();
+        Metrics.dump();
+        emit("summary", "ok", versions.size() - failed, "failed", failed, "files", snap.filesDone, "bytes", snap.bytesDone,
+                "millis", (System.nanoTime() - start) / 1_000_000, "jobs", jobs);
+        return failed == 0 ? 0 : 1;
+    }
+
+    private static void emitProgress(DownloadProgress progress, long start) {
+        DownloadProgress.Snapshot s = progress.snapshot();
+        emit("progress", "phase", s.phase, "bytesDone", s.bytesDone, "bytesTotal", s.bytesTotal,
+                "filesDone", s.filesDone, "filesTotal", s.filesTotal, "millis", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // пари ключ-значення; рядки екрануються, числа та boolean пишуться як є
+    private static void emit(String event, Object... fields) {
+        StringBuilder sb = new StringBuilder("{\"event\":\"").append(event).append('"');
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            sb.append(",\"").append(fields[i]).append("\":");
+            Object v = fields[i + 1];
+            if (v == null || v instanceof Number || v instanceof Boolean) {
+                sb.append(v);
+            } else {
+                quote(sb, String.valueOf(v));
+            }
+        }
+        sb.append('}');
+        synchronized (OUT) {
+            OUT.println(sb);
+        }
+    }
+
+    private static void quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,244 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Спостереження за процесом гри: раз на інтервал читає /proc/<pid>/stat і status (CPU, RSS, потоки),
+// з рядків логу бере паузи GC (-Xlog:gc), після виходу зберігає сесію в logs/sessions/<назва>-<час>.json,
+// щоб порівнювати налаштування heap/GC між запусками. Без /proc (Windows, macOS) — лише CPU через ProcessHandle.
+public class ProcessMonitor {
+    public static final long DEFAULT_INTERVAL_MS = 1000;
+    public static final File SESSIONS_DIR = new File("logs", "sessions");
+    private static final int MAX_SAMPLES = 3600;
+    // USER_HZ; у Linux майже завжди 100, з Java його не прочитати
+    private static final long CLOCK_TICKS = Long.getLong("pl.clk.tck", 100);
+    // [0.512s][info][gc] GC(3) Pause Young (Normal) (G1 Evacuation Pause) 24M->8M(256M) 3.456ms
+    private static final Pattern GC_PAUSE = Pattern.compile("GC\\(\\d+\\) (Pause [A-Za-z ]+?)(?: \\(| \\d).*?(\\d+(?:\\.\\d+)?)ms\\s*$");
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "pl-monitor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public static final class Sample {
+        public final long millis;
+        public final double cpuPercent;
+        public final long rssKb;
+        public final int threads;
+
+        Sample(long millis, double cpuPercent, long rssKb, int threads) {
+            this.millis = millis;
+            this.cpuPercent = cpuPercent;
+            this.rssKb = rssKb;
+            this.threads = threads;
+        }
+    }
+
+    private final Process proc;
+    private final String label;
+    private final Map<String, String> info;
+    private final File procDir;
+    private final long startedAt = System.currentTimeMillis();
+    private final long startNanos = System.nanoTime();
+    private final ArrayDeque<Sample> samples = new ArrayDeque<>();
+    private final Map<String, long[]> gcPauses = new TreeMap<>();
+    private final List<Consumer<ProcessMonitor>> listeners = new CopyOnWriteArrayList<>();
+    private volatile ScheduledFuture<?> task;
+    // перший замір рахує CPU від старту процесу
+    private long lastCpuNanos;
+    private long lastSampleNanos = startNanos;
+    private long sampleCount;
+    private double cpuSum;
+    private double cpuMax;
+    private long rssMax;
+    private int threadsMax;
+    private volatile Integer exitCode;
+    private final CompletableFuture<ProcessMonitor> exited = new CompletableFuture<>();
+
+    // info — довільні атрибути сесії (версія, профіль JVM, CDS), потрапляють у файл сесії
+    public ProcessMonitor(Process proc, String label, Map<String, String> info) {
+        this.proc = proc;
+        this.label = label;
+        this.info = new LinkedHashMap<>(info);
+        File dir = new File("/proc/" + proc.pid());
+        this.procDir = dir.isDirectory() ? dir : null;
+    }
+
+    // Слухач після кожного заміру та після виходу процесу; викликається з потоку монітора
+    public void addListener(Consumer<ProcessMonitor> listener) {
+        listeners.add(listener);
+    }
+
+    public void start(long intervalMs) {
+        if (intervalMs > 0) {
+            task = SCHEDULER.scheduleAtFixedRate(this::sample, 0, intervalMs, TimeUnit.MILLISECONDS);
+        }
+        proc.onExit().thenRun(() -> {
+            if (task != null) task.cancel(false);
+            exitCode = proc.exitValue();
+            Metrics.increment("game.exit." + (exitCode == 0 ? "ok" : "error"));
+            notifyListeners();
+            exited.complete(this);
+        });
+    }
+
+    // Завершується після виходу процесу, коли код виходу вже записано
+    public CompletableFuture<ProcessMonitor> onExit() {
+        return exited;
+    }
+
+    // Рядок з виводу гри; все, крім пауз GC, ігнорується без regex
+    public void onLogLine(String line) {
+        if (!line.contains("Pause")) return;
+        Matcher m = GC_PAUSE.matcher(line);
+        if (!m.find()) return;
+        String kind = m.group(1).trim();
+        long micros = (long) (Double.parseDouble(m.group(2)) * 1000);
+        synchronized (this) {
+            long[] agg = gcPauses.computeIfAbsent(kind, k -> new long[3]);
+            agg[0]++;
+            agg[1] += micros;
+            agg[2] = Math.max(agg[2], micros);
+        }
+        Metrics.record("game.gc.pause.us", micros);
+    }
+
+    private void sample() {
+        try {
+            long now = System.nanoTime();
+            long cpuNanos = -1;
+            long rssKb = -1;
+            int threads = -1;
+            if (procDir != null) {
+                String stat = new String(Files.readAllBytes(new File(procDir, "stat").toPath()), StandardCharsets.US_ASCII);
+                // назва процесу в дужках може містити пробіли — поля рахуємо після останньої ')'
+                String[] f = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+                cpuNanos = (Long.parseLong(f[11]) + Long.parseLong(f[12])) * 1_000_000_000L / CLOCK_TICKS;
+                for (String line : Files.readAllLines(new File(procDir, "status").toPath(), StandardCharsets.US_ASCII)) {
+                    if (line.startsWith("VmRSS:")) rssKb = Long.parseLong(line.replaceAll("\\D", ""));
+                    else if (line.startsWith("Threads:")) threads = Integer.parseInt(line.substring(8).trim());
+                }
+            } else {
+                Optional<Duration> cpu = proc.info().totalCpuDuration();
+                if (cpu.isPresent()) cpuNanos = cpu.get().toNanos();
+            }
+            synchronized (this) {
+                double cpuPercent = 0;
+                if (cpuNanos >= 0 && now > lastSampleNanos) {
+                    cpuPercent = (cpuNanos - lastCpuNanos) * 100.0 / (now - lastSampleNanos);
+                }
+                lastCpuNanos = Math.max(cpuNanos, 0);
+                lastSampleNanos = now;
+                if (samples.size() == MAX_SAMPLES) samples.removeFirst();
+                samples.addLast(new Sample((now - startNanos) / 1_000_000, cpuPercent, rssKb, threads));
+                sampleCount++;
+                cpuSum += cpuPercent;
+                cpuMax = Math.max(cpuMax, cpuPercent);
+                rssMax = Math.max(rssMax, rssKb);
+                threadsMax = Math.max(threadsMax, threads);
+            }
+            notifyListeners();
+        } catch (IOException | RuntimeException ex) {
+            // процес щойно завершився і /proc/<pid> зник — onExit доробить решту
+        }
+    }
+
+    private void notifyListeners() {
+        for (Consumer<ProcessMonitor> l : listeners) l.accept(this);
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public long pid() {
+        return proc.pid();
+    }
+
+    // null — процес ще працює
+    public Integer exitCode() {
+        return exitCode;
+    }
+
+    public synchronized List<Sample> samples() {
+        return new ArrayList<>(samples);
+    }
+
+    public synchronized Sample last() {
+        return samples.peekLast();
+    }
+
+    public synchronized String summary() {
+        Sample s = samples.peekLast();
+        StringBuilder sb = new StringBuilder();
+        if (s != null) {
+            sb.append(String.format(Locale.ROOT, "CPU %.0f%%", s.cpuPercent));
+            if (s.rssKb >= 0) sb.append(" | RSS ").append(s.rssKb / 1024).append(" МБ");
+            if (s.threads >= 0) sb.append(" | потоків ").append(s.threads);
+        }
+        long count = 0;
+        long max = 0;
+        for (long[] agg : gcPauses.values()) {
+            count += agg[0];
+            max = Math.max(max, agg[2]);
+        }
+        if (count > 0) sb.append(String.format(Locale.ROOT, " | GC %d пауз, макс %.1f мс", count, max / 1000.0));
+        if (exitCode != null) sb.append(" | код виходу ").append(exitCode);
+        return sb.toString();
+    }
+
+    // Сесія: атрибути запуску, підсумки та всі заміри [мс від старту, CPU%, RSS КБ, потоки]
+    public File save(File dir) throws IOException {
+        StringBuilder sb = new StringBuilder("{\n");
+        synchronized (this) {
+            sb.append("  \"label\": ");
+            Metrics.quote(sb, label);
+            sb.append(",\n  \"pid\": ").append(proc.pid());
+            sb.append(",\n  \"startedAt\": \"").append(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ").format(new Date(startedAt))).append('"');
+            sb.append(",\n  \"durationMillis\": ").append((System.nanoTime() - startNanos) / 1_000_000);
+            sb.append(",\n  \"exitCode\": ").append(exitCode);
+            for (Map.Entry<String, String> e : info.entrySet()) {
+                sb.append(",\n  ");
+                Metrics.quote(sb, e.getKey());
+                sb.append(": ");
+                Metrics.quote(sb, e.getValue());
+            }
+            sb.append(",\n  \"intervalSamples\": ").append(sampleCount);
+            sb.append(String.format(Locale.ROOT, ",\n  \"cpuPercent\": {\"mean\": %.1f, \"max\": %.1f}", sampleCount == 0 ? 0 : cpuSum / sampleCount, cpuMax));
+            sb.append(",\n  \"rssKbMax\": ").append(rssMax);
+            sb.append(",\n  \"threadsMax\": ").append(threadsMax);
+            sb.append(",\n  \"gcPauses\": {");
+            String sep = "";
+            for (Map.Entry<String, long[]> e : gcPauses.entrySet()) {
+                long[] agg = e.getValue();
+                sb.append(sep).append("\n    ");
+                Metrics.quote(sb, e.getKey());
+                sb.append(String.format(Locale.ROOT, ": {\"count\": %d, \"totalMillis\": %.3f, \"maxMillis\": %.3f}", agg[0], agg[1] / 1000.0, agg[2] / 1000.0));
+                sep = ",";
+            }
+            sb.append(gcPauses.isEmpty() ? "}" : "\n  }");
+            sb.append(",\n  \"samples\": [");
+            sep = "\n    ";
+            for (Sample s : samples) {
+                sb.append(sep).append(String.format(Locale.ROOT, "[%d, %.1f, %d, %d]", s.millis, s.cpuPercent, s.rssKb, s.threads));
+                sep = ",\n    ";
+            }
+            sb.append(samples.isEmpty() ? "]" : "\n  ]");
+        }
+        sb.append("\n}\n");
+        FileUtil.mkdirs(dir);
+        String name = label.replaceAll("[^\\p{L}\\p{N}._-]", "_") + "-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(startedAt)) + ".json";
+        File file = new File(dir, name);
+        Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,82 @@
+package org.example;
+
+// Порівняння версій за semver: числові частини — як числа, pre-release (-beta.1) молодший за реліз,
+// метадані збірки (+build.5) не враховуються. Лексичне сортування ставить 0.9 вище за 0.16.
+public final class SemanticVersion implements Comparable<SemanticVersion> {
+    private final String raw;
+    private final String[] core;
+    private final String[] pre;
+
+    private SemanticVersion(String raw) {
+        this.raw = raw;
+        String s = raw;
+        int plus = s.indexOf('+');
+        if (plus >= 0) s = s.substring(0, plus);
+        int dash = s.indexOf('-');
+        this.pre = dash >= 0 ? s.substring(dash + 1).split("\\.") : new String[0];
+        this.core = (dash >= 0 ? s.substring(0, dash) : s).split("\\.");
+    }
+
+    public static SemanticVersion parse(String version) {
+        return new SemanticVersion(version);
+    }
+
+    public static int compare(String a, String b) {
+        return parse(a).compareTo(parse(b));
+    }
+
+    @Override
+    public int compareTo(SemanticVersion o) {
+        int c = compareParts(core, o.core, true);
+        if (c != 0) return c;
+        if (pre.length == 0 || o.pre.length == 0) return Integer.compare(pre.length == 0 ? 1 : 0, o.pre.length == 0 ? 1 : 0);
+        return compareParts(pre, o.pre, false);
+    }
+
+    // core: відсутні частини дорівнюють 0 (1.21 == 1.21.0); pre-release: коротший список молодший
+    private static int compareParts(String[] a, String[] b, boolean padWithZero) {
+        int n = Math.max(a.length, b.length);
+        for (int i = 0; i < n; i++) {
+            if (i >= a.length || i >= b.length) {
+                if (!padWithZero) return Integer.compare(a.length, b.length);
+            }
+            String x = i < a.length ? a[i] : "0";
+            String y = i < b.length ? b[i] : "0";
+            int c = comparePart(x, y);
+            if (c != 0) return c;
+        }
+        return 0;
+    }
+
+    private static int comparePart(String x, String y) {
+        boolean xn = isNumeric(x);
+        boolean yn = isNumeric(y);
+        if (xn && yn) {
+            x = stripLeadingZeros(x);
+            y = stripLeadingZeros(y);
+            int c = Integer.compare(x.length(), y.length());
+            return c != 0 ? c : x.compareTo(y);
+        }
+        if (xn != yn) return xn ? -1 : 1;
+        return x.compareTo(y);
+    }
+
+    private static String stripLeadingZeros(String s) {
+        int i = 0;
+        while (i < s.length() - 1 && s.charAt(i) == '0') i++;
+        return s.substring(i);
+    }
+
+    private static boolean isNumeric(String s) {
+        if (s.isEmpty()) return false;
+        for (int i = 0; i < s.length(); i++) {
+            if (!Character.isDigit(s.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return raw;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+
+// Мініграфік останніх замірів ProcessMonitor: RSS (синій, масштаб за максимумом) і CPU (помаранчевий,
+// 100% = одне ядро, масштаб до кількості ядер). Перемальовується лише на EDT через repaint().
+public class Sparkline extends JComponent {
+    private static final long serialVersionUID = 1L;
+    private static final Color RSS = new Color(0x3070C0);
+    private static final Color CPU = new Color(0xE08020);
+    private final ProcessMonitor monitor;
+    private final int points;
+
+    public Sparkline(ProcessMonitor monitor, int points) {
+        this.monitor = monitor;
+        this.points = points;
+        setPreferredSize(new Dimension(points * 2, 28));
+        setMinimumSize(new Dimension(60, 20));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        List<ProcessMonitor.Sample> all = monitor.samples();
+        List<ProcessMonitor.Sample> shown = all.subList(Math.max(0, all.size() - points), all.size());
+        int w = getWidth();
+        int h = getHeight() - 2;
+        g.setColor(getBackground() != null ? getBackground() : Color.WHITE);
+        g.fillRect(0, 0, w, getHeight());
+        if (shown.size() < 2) return;
+        long rssMax = 1;
+        for (ProcessMonitor.Sample s : shown) rssMax = Math.max(rssMax, s.rssKb);
+        double cpuMax = 100.0 * Runtime.getRuntime().availableProcessors();
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        int n = shown.size();
+        int[] xs = new int[n];
+        int[] rss = new int[n];
+        int[] cpu = new int[n];
+        for (int i = 0; i < n; i++) {
+            ProcessMonitor.Sample s = shown.get(i);
+            xs[i] = (int) ((long) i * (w - 1) / (points - 1));
+            rss[i] = 1 + h - (int) (Math.max(0, s.rssKb) * h / rssMax);
+            cpu[i] = 1 + h - (int) (Math.min(s.cpuPercent, cpuMax) * h / cpuMax);
+        }
+        g2.setColor(RSS);
+        g2.drawPolyline(xs, rss, n);
+        g2.setColor(CPU);
+        g2.drawPolyline(xs, cpu, n);
+    }
+}
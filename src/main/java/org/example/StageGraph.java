@@ -0,0 +1,186 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Граф етапів на CompletableFuture: етап стартує, щойно завершились усі його залежності, незалежні етапи
+// йдуть паралельно. Помилка будь-якого етапу або cancel() скасовує решту (робочі потоки переривалися).
+// Для кожного етапу фіксуються початок і кінець; report() дає таблицю часів і критичний шлях.
+public class StageGraph implements AutoCloseable {
+    public interface Body<T> {
+        T run() throws Exception;
+    }
+
+    public static final class Stage<T> {
+        final String name;
+        final List<Stage<?>> deps;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        volatile long startNanos;
+        volatile long endNanos;
+        volatile Thread thread;
+
+        private Stage(String name, List<Stage<?>> deps) {
+            this.name = name;
+            this.deps = deps;
+        }
+
+        // Результат залежності всередині тіла етапу: на цей момент вона вже завершилась успішно
+        public T get() {
+            return future.join();
+        }
+
+        long millis() {
+            return endNanos > 0 && startNanos > 0 ? (endNanos - startNanos) / 1_000_000 : 0;
+        }
+    }
+
+    private final ExecutorService pool = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "pl-stage");
+        t.setDaemon(true);
+        return t;
+    });
+    private final List<Stage<?>> stages = new CopyOnWriteArrayList<>();
+    private final long originNanos = System.nanoTime();
+    private volatile boolean cancelled;
+    private volatile Throwable firstError;
+
+    public <T> Stage<T> stage(String name, Body<T> body, Stage<?>... deps) {
+        List<Stage<?>> depList = new ArrayList<>();
+        for (Stage<?> d : deps) {
+            if (d != null) depList.add(d);
+        }
+        Stage<T> stage = new Stage<>(name, depList);
+        stages.add(stage);
+        CompletableFuture<?>[] depFutures = new CompletableFuture<?>[depList.size()];
+        for (int i = 0; i < depFutures.length; i++) depFutures[i] = depList.get(i).future;
+        CompletableFuture.allOf(depFutures).whenComplete((ignored, err) -> {
+            if (err != null || cancelled) {
+                stage.future.cancel(false);
+                return;
+            }
+            try {
+                pool.execute(() -> run(stage, body));
+            } catch (RejectedExecutionException ex) {
+                stage.future.cancel(false);
+            }
+        });
+        return stage;
+    }
+
+    private <T> void run(Stage<T> stage, Body<T> body) {
+        stage.thread = Thread.currentThread();
+        stage.startNanos = System.nanoTime();
+        LauncherEvents.LaunchStage event = new LauncherEvents.LaunchStage();
+        event.stage = stage.name;
+        event.begin();
+        try {
+            if (cancelled) throw new CancellationException();
+            T value = body.run();
+            finish(stage, event, false);
+            stage.future.complete(value);
+        } catch (Throwable ex) {
+            finish(stage, event, true);
+            stage.future.completeExceptionally(ex);
+            if (!cancelled && !(ex instanceof CancellationException)) {
+                synchronized (this) {
+                    if (firstError == null) firstError = ex;
+                }
+                cancel();
+            }
+        } finally {
+            stage.thread = null;
+            // потік повертається в пул — прапорець переривання не має дістатися наступному етапу
+            Thread.interrupted();
+        }
+    }
+
+    // до завершення future, щоб той, хто чекає на етап, уже бачив його у метриках
+    private static void finish(Stage<?> stage, LauncherEvents.LaunchStage event, boolean failed) {
+        stage.endNanos = System.nanoTime();
+        event.failed = failed;
+        event.commit();
+        Metrics.record("stage." + stage.name + ".ms", stage.millis());
+    }
+
+    public void cancel() {
+        cancelled = true;
+        for (Stage<?> s : stages) {
+            Thread t = s.thread;
+            if (t != null) {
+                t.interrupt();
+            } else if (s.startNanos == 0) {
+                s.future.cancel(false);
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Чекає на етап; повертає першу справжню помилку графа, а не наслідкове скасування залежних етапів
+    public <T> T await(Stage<T> stage) throws IOException {
+        try {
+            return stage.future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw new InterruptedIOException("Запуск скасовано");
+        } catch (ExecutionException | CancellationException ex) {
+            // етапи, що вже виконуються, мають встигнути завершитись, щоб звіт мав повні часи
+            for (Stage<?> s : stages) {
+                try {
+                    s.future.get(5, TimeUnit.SECONDS);
+                } catch (Exception ignored) {}
+            }
+            Throwable error = firstError != null ? firstError : ex instanceof ExecutionException ? ex.getCause() : null;
+            if (error == null) throw new InterruptedIOException("Запуск скасовано");
+            if (error instanceof IOException io) throw io;
+            if (error instanceof RuntimeException re) throw re;
+            throw new IOException(error.getMessage(), error);
+        }
+    }
+
+    // Таблиця етапів за часом старту та критичний шлях: від етапу target назад через залежність,
+    // що завершилась найпізніше, — саме вона тримала старт наступного етапу
+    public String report(Stage<?> target) {
+        List<Stage<?>> sorted = new ArrayList<>(stages);
+        sorted.sort(Comparator.comparingLong(s -> s.startNanos == 0 ? Long.MAX_VALUE : s.startNanos));
+        StringBuilder sb = new StringBuilder();
+        for (Stage<?> s : sorted) {
+            sb.append(String.format("  %-16s", s.name));
+            if (s.startNanos == 0) {
+                sb.append(" не запускався\n");
+                continue;
+            }
+            sb.append(String.format(" +%5d мс", (s.startNanos - originNanos) / 1_000_000));
+            if (s.endNanos == 0) {
+                sb.append("  виконується\n");
+            } else {
+                sb.append(String.format("  %6d мс%s\n", s.millis(),
+                        s.future.isCompletedExceptionally() ? "  (помилка або скасовано)" : ""));
+            }
+        }
+        Deque<Stage<?>> path = new ArrayDeque<>();
+        for (Stage<?> s = target; s != null; ) {
+            path.addFirst(s);
+            Stage<?> latest = null;
+            for (Stage<?> d : s.deps) {
+                if (latest == null || d.endNanos > latest.endNanos) latest = d;
+            }
+            s = latest;
+        }
+        StringJoiner chain = new StringJoiner(" → ");
+        for (Stage<?> s : path) chain.add(s.name + " " + s.millis() + " мс");
+        long total = target.endNanos > 0 ? (target.endNanos - originNanos) / 1_000_000 : (System.nanoTime() - originNanos) / 1_000_000;
+        sb.append("  Критичний шлях: ").append(chain).append(" (разом ").append(total).append(" мс)");
+        return sb.toString();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
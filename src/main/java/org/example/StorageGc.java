@@ -0,0 +1,301 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+// Збирання сміття на диску. Живий набір — встановлені версії (маніфест у кеші та client jar) і версії екземплярів:
+// client jar, бібліотеки й natives (для Fabric — лише профіль loader, з яким версію встановлено), індекс і об'єкти ресурсів.
+// Файли поза живим набором видаляються; об'єкт сховища без жодного живого посилання — теж. Лічильники посилань
+// беруться з індексу сховища (записи L), тож libraries/ обходиться лише з deep. Бюджет диска: поки живий набір
+// більший за нього, версії без екземплярів вилучаються за давністю останнього запуску (LRU).
+public class StorageGc {
+    public static final File LAUNCHES_FILE = new File("cache", "launches.properties");
+
+    public static class Report {
+        public final List<String> versionsEvicted = new ArrayList<>();
+        public final List<String> versionsKept = new ArrayList<>();
+        public int filesDeleted;
+        public int objectsEvicted;
+        public long bytesFreed;
+        public long liveBytes;
+        public long millis;
+        public boolean dryRun;
+    }
+
+    // Файли однієї версії: шлях → розмір і ключ вмісту (sha1, хеш ресурсу або шлях для файлів без хешу)
+    private static class Version {
+        final String id;
+        final boolean pinned;
+        final long lastUsed;
+        final Set<String> paths = new HashSet<>();
+        final Map<String, Long> content = new HashMap<>();
+        final Set<String> profiles = new HashSet<>();
+
+        Version(String id, boolean pinned, long lastUsed) {
+            this.id = id;
+            this.pinned = pinned;
+            this.lastUsed = lastUsed;
+        }
+
+        void add(File file, String sha1, long size) {
+            String path = file.getAbsolutePath();
+            paths.add(path);
+            content.put(sha1 != null ? sha1 : path, Math.max(0, size));
+        }
+    }
+
+    private final ArtifactStore store;
+    private final ManifestCache manifests;
+    private final FabricResolver fabric;
+    private final AssetDownloader assets;
+    private final Instances instances;
+
+    public StorageGc(ArtifactStore store, ManifestCache manifests, FabricResolver fabric, AssetDownloader assets, Instances instances) {
+        this.store = store;
+        this.manifests = manifests;
+        this.fabric = fabric;
+        this.assets = assets;
+        this.instances = instances;
+    }
+
+    // Час останнього запуску версії — для LRU за бюджетом
+    public static synchronized void recordLaunch(String version) {
+        Properties props = FileUtil.loadProperties(LAUNCHES_FILE);
+        props.setProperty(version, Long.toString(System.currentTimeMillis()));
+        try {
+            FileUtil.storeProperties(LAUNCHES_FILE, props);
+        } catch (IOException ignored) {}
+    }
+
+    // budgetBytes <= 0 — без бюджету; dryRun — лише звіт, нічого не видаляється
+    public Report run(long budgetBytes, boolean deep, boolean dryRun) throws IOException {
+        long t0 = System.nanoTime();
+        Report report = new Report();
+        report.dryRun = dryRun;
+        Closeable exclusive = dryRun ? null : store.tryExclusive();
+        if (!dryRun && exclusive == null) {
+            throw new IOException("Сховищем користується інший лаунчер — закрийте його та повторіть очищення");
+        }
+        try {
+            List<Version> live = installedVersions();
+            evictOverBudget(live, budgetBytes, report);
+            sweep(live, deep, report);
+            report.liveBytes = footprint(live);
+            for (Version v : live) report.versionsKept.add(v.id);
+            if (!dryRun) {
+                for (String id : report.versionsEvicted) manifests.forget(id);
+            }
+        } finally {
+            if (exclusive != null) exclusive.close();
+        }
+        report.millis = (System.nanoTime() - t0) / 1_000_000;
+        Metrics.add("gc.files.deleted", report.filesDeleted);
+        Metrics.add("gc.bytes.freed", report.bytesFreed);
+        Metrics.record("gc.ms", report.millis);
+        return report;
+    }
+
+    private List<Version> installedVersions() throws IOException {
+        Set<String> pinned = new HashSet<>();
+        for (Instances.Instance inst : instances.list()) pinned.add(inst.version);
+        Properties launches = FileUtil.loadProperties(LAUNCHES_FILE);
+        Set<String> ids = new TreeSet<>(manifests.cachedVersionIds());
+        ids.addAll(pinned);
+        File workDir = new File("").getAbsoluteFile();
+        File[] jars = workDir.listFiles(f -> isClientJar(f, workDir));
+        if (jars != null) {
+            for (File jar : jars) ids.add(jar.getName().substring("minecraft-".length(), jar.getName().length() - "-client.jar".length()));
+        }
+        List<Version> out = new ArrayList<>();
+        for (String id : ids) {
+            File client = GameInstaller.clientJar(id);
+            VersionManifest manifest = manifests.cachedVersion(id);
+            if (!client.isFile() && (manifest == null || !pinned.contains(id))) continue;
+            if (manifest == null) {
+                // jar встановлено до кешу маніфестів — без маніфесту живий набір невідомий, тож без нього ніяк
+                // (помилка тут зупиняє очищення ще до видалення будь-чого)
+                manifest = manifests.version(GameInstaller.VERSION_MANIFEST_INDEX, id);
+            }
+            long lastUsed = Math.max(Long.parseLong(launches.getProperty(id, "0")), client.lastModified());
+            Version v = new Version(id, pinned.contains(id), lastUsed);
+            if (manifest.client != null) v.add(client, manifest.client.sha1, manifest.client.size);
+            List<VersionManifest> chain = new ArrayList<>();
+            String loader = fabric.liveLoader(id);
+            if (loader != null) {
+                chain.add(fabric.profile(id, loader));
+                v.profiles.add(fabric.profileFile(id, loader).getAbsolutePath());
+            }
+            chain.add(manifest);
+            LibraryResolver.Resolved resolved = new LibraryResolver(Map.of()).resolve(chain.toArray(new VersionManifest[0]));
+            List<VersionManifest.Artifact> artifacts = new ArrayList<>(resolved.classpath);
+            artifacts.addAll(resolved.natives);
+            for (VersionManifest.Artifact a : artifacts) {
+                v.add(new File(GameInstaller.LIBS_DIR, a.path.replace("/", File.separator)), a.sha1, a.size);
+            }
+            if (manifest.assetIndex != null) {
+                v.add(assets.indexFile(manifest.assetIndex), manifest.assetIndex.sha1, manifest.assetIndex.size);
+                if (assets.indexFile(manifest.assetIndex).isFile()) {
+                    for (ParallelDownloader.Task t : assets.objectTasks(manifest.assetIndex)) v.add(t.dest, t.sha1, t.size);
+                }
+            }
+            out.add(v);
+        }
+        return out;
+    }
+
+    // Найдавніше запущені версії без екземплярів вилучаються, доки живий набір не вкладеться в бюджет;
+    // остання запущена версія лишається завжди
+    private void evictOverBudget(List<Version> live, long budgetBytes, Report report) {
+        if (budgetBytes <= 0) return;
+        List<Version> candidates = new ArrayList<>();
+        Version newest = null;
+        for (Version v : live) {
+            if (newest == null || v.lastUsed > newest.lastUsed) newest = v;
+        }
+        for (Version v : live) {
+            if (!v.pinned && v != newest) candidates.add(v);
+        }
+        candidates.sort(Comparator.comparingLong(v -> v.lastUsed));
+        for (Version v : candidates) {
+            if (footprint(live) <= budgetBytes) break;
+            live.remove(v);
+            report.versionsEvicted.add(v.id);
+        }
+    }
+
+    // Спільні файли (бібліотеки, ресурси) рахуються один раз
+    private static long footprint(List<Version> versions) {
+        Map<String, Long> content = new HashMap<>();
+        for (Version v : versions) content.putAll(v.content);
+        long total = 0;
+        for (long size : content.values()) total += size;
+        return total;
+    }
+
+    private void sweep(List<Version> live, boolean deep, Report report) throws IOException {
+        Set<String> livePaths = new HashSet<>();
+        Set<String> liveContent = new HashSet<>();
+        Set<String> liveIds = new HashSet<>();
+        Set<String> liveProfiles = new HashSet<>();
+        for (Version v : live) {
+            livePaths.addAll(v.paths);
+            liveContent.addAll(v.content.keySet());
+            liveIds.add(v.id);
+            liveProfiles.addAll(v.profiles);
+        }
+        File libs = GameInstaller.LIBS_DIR.getAbsoluteFile();
+        File assetIndexes = new File(assets.getAssetsDir(), "indexes").getAbsoluteFile();
+        File workDir = new File("").getAbsoluteFile();
+
+        // посилання сховища поза живим набором; посилання в чужих теках лишаються і рахуються
+        Map<String, String> links = store.links();
+        Map<String, Integer> refs = new HashMap<>();
+        for (Map.Entry<String, String> e : links.entrySet()) {
+            File dest = new File(e.getKey());
+            boolean managed = isUnder(dest, libs) || isUnder(dest, assetIndexes) || isClientJar(dest, workDir);
+            if (!managed || livePaths.contains(e.getKey())) {
+                refs.merge(e.getValue(), 1, Integer::sum);
+                continue;
+            }
+            delete(dest, false, report);
+            if (!report.dryRun) {
+                store.unlink(dest);
+                pruneEmpty(dest.getParentFile(), libs);
+            }
+        }
+        // об'єкти без жодного посилання, не потрібні живим версіям
+        for (Map.Entry<String, Long> e : store.objects().entrySet()) {
+            if (refs.containsKey(e.getKey()) || liveContent.contains(e.getKey())) continue;
+            report.objectsEvicted++;
+            report.bytesFreed += e.getValue();
+            if (!report.dryRun) store.evict(e.getKey());
+        }
+        // об'єкти ресурсів: 256 читань каталогів замість рекурсивного обходу
+        File[] buckets = new File(assets.getAssetsDir(), "objects").listFiles(File::isDirectory);
+        if (buckets != null) {
+            for (File bucket : buckets) {
+                File[] objects = bucket.listFiles();
+                if (objects == null) continue;
+                for (File object : objects) {
+                    if (!liveContent.contains(object.getName())) delete(object, true, report);
+                }
+            }
+        }
+        File[] jars = workDir.listFiles(f -> isClientJar(f, workDir));
+        if (jars != null) {
+            for (File jar : jars) {
+                // jar зі сховища вже оброблено разом з посиланнями; тут — лише старі, скопійовані напряму
+                if (!livePaths.contains(jar.getAbsolutePath()) && !links.containsKey(jar.getAbsolutePath())) delete(jar, true, report);
+            }
+        }
+        File[] natives = GameInstaller.NATIVES_DIR.listFiles(File::isDirectory);
+        if (natives != null) {
+            for (File dir : natives) {
+                if (!liveIds.contains(dir.getName())) deleteTree(dir, report);
+            }
+        }
+        for (String id : manifests.cachedVersionIds()) {
+            for (String loader : fabric.cachedLoaders(id)) {
+                File profile = fabric.profileFile(id, loader);
+                if (!liveProfiles.contains(profile.getAbsolutePath())) delete(profile, true, report);
+            }
+        }
+        if (deep) {
+            // файли без хешу (частина бібліотек Fabric) у сховище не потрапляють — лише повний обхід
+            deepSweep(libs, livePaths, libs, report);
+        }
+    }
+
+    private void deepSweep(File dir, Set<String> livePaths, File libs, Report report) throws IOException {
+        File[] children = dir.listFiles();
+        if (children == null) return;
+        for (File f : children) {
+            if (f.isDirectory()) {
+                deepSweep(f, livePaths, libs, report);
+            } else if (!livePaths.contains(f.getAbsolutePath())) {
+                delete(f, true, report);
+            }
+        }
+        if (!report.dryRun) pruneEmpty(dir, libs);
+    }
+
+    // countBytes = false для жорсткого посилання: місце звільнить вилучення об'єкта сховища
+    private static void delete(File file, boolean countBytes, Report report) throws IOException {
+        if (!file.isFile()) return;
+        long length = file.length();
+        if (!report.dryRun) Files.delete(file.toPath());
+        report.filesDeleted++;
+        if (countBytes) report.bytesFreed += length;
+    }
+
+    private static void deleteTree(File dir, Report report) throws IOException {
+        File[] children = dir.listFiles();
+        if (children != null) {
+            for (File f : children) {
+                if (f.isDirectory()) deleteTree(f, report);
+                else delete(f, true, report);
+            }
+        }
+        if (!report.dryRun) Files.deleteIfExists(dir.toPath());
+    }
+
+    private static void pruneEmpty(File dir, File root) {
+        while (dir != null && isUnder(dir, root) && !dir.equals(root)) {
+            String[] names = dir.list();
+            if (names == null || names.length > 0 || !dir.delete()) return;
+            dir = dir.getParentFile();
+        }
+    }
+
+    private static boolean isUnder(File file, File root) {
+        return file.getAbsolutePath().startsWith(root.getAbsolutePath() + File.separator);
+    }
+
+    private static boolean isClientJar(File file, File workDir) {
+        String name = file.getName();
+        return workDir.equals(file.getAbsoluteFile().getParentFile()) && name.startsWith("minecraft-") && name.endsWith("-client.jar");
+    }
+}
@@ -0,0 +1,78 @@
+package org.example;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Каталог версій гри замість зашитого списку: індекс версій розбирається один раз і тримається в пам'яті
+// (id → запис через HashMap у VersionIndex). Файл індексу ревалідується ManifestCache за TTL; повторний
+// розбір — лише коли файл на диску справді змінився. Нові релізи з'являються без перезбирання лаунчера.
+public class VersionCatalog {
+    public static final String RELEASE = "release";
+    public static final String SNAPSHOT = "snapshot";
+
+    private final ManifestCache cache;
+    private final String indexUrl;
+    private VersionIndex index;
+    private long loadedModified;
+    private long loadedLength;
+
+    VersionCatalog(ManifestCache cache, String indexUrl) {
+        this.cache = cache;
+        this.indexUrl = indexUrl;
+    }
+
+    public static VersionCatalog getDefault() {
+        return ManifestCache.getDefault().catalog(GameInstaller.VERSION_MANIFEST_INDEX);
+    }
+
+    public synchronized VersionIndex index() throws IOException {
+        return load(cache.indexFile(indexUrl));
+    }
+
+    // Уже розібраний індекс без звернення до диска чи мережі; null — у цьому процесі ще не завантажувався
+    public synchronized VersionIndex loaded() {
+        return index;
+    }
+
+    // Індекс з мережі незалежно від TTL (нова версія, якої ще немає в кешованому індексі)
+    public synchronized VersionIndex refresh() throws IOException {
+        return load(cache.refreshIndex(indexUrl));
+    }
+
+    private VersionIndex load(File file) throws IOException {
+        if (index == null || file.lastModified() != loadedModified || file.length() != loadedLength) {
+            try (InputStream in = new FileInputStream(file)) {
+                index = VersionIndex.parse(in);
+            }
+            loadedModified = file.lastModified();
+            loadedLength = file.length();
+        }
+        return index;
+    }
+
+    // null — такої версії немає навіть у щойно ревалідованому індексі
+    public VersionIndex.Entry entry(String id) throws IOException {
+        VersionIndex.Entry entry = index().entry(id);
+        return entry != null ? entry : refresh().entry(id);
+    }
+
+    // latest / latest-snapshot → конкретний id за полем latest індексу
+    public String resolve(String id) throws IOException {
+        if ("latest".equals(id)) return index().latestRelease;
+        if ("latest-snapshot".equals(id)) return index().latestSnapshot;
+        return id;
+    }
+
+    public List<String> ids(boolean snapshots) throws IOException {
+        List<String> ids = new ArrayList<>();
+        for (VersionIndex.Entry e : index().ofTypes(snapshots ? Set.of(RELEASE, SNAPSHOT) : Set.of(RELEASE))) {
+            ids.add(e.id);
+        }
+        return ids;
+    }
+}
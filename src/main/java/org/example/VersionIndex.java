@@ -0,0 +1,98 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+// Модель version_manifest_v2.json; versions — у порядку індексу (новіші першими), byId — пошук за id за O(1)
+public class VersionIndex {
+    public String latestRelease;
+    public String latestSnapshot;
+    public final List<Entry> versions = new ArrayList<>();
+    private final Map<String, Entry> byId = new HashMap<>();
+
+    public static class Entry {
+        public String id;
+        public String type;
+        public String url;
+        public String sha1;
+        public String releaseTime;
+    }
+
+    public static VersionIndex parse(InputStream in) throws IOException {
+        LauncherEvents.JsonParse event = new LauncherEvents.JsonParse();
+        event.document = "version-index";
+        event.begin();
+        long t0 = System.nanoTime();
+        try (JsonReader r = new JsonReader(in)) {
+            VersionIndex index = read(r);
+            event.items = index.versions.size();
+            return index;
+        } finally {
+            event.commit();
+            Metrics.recordNanos("json.version-index.ms", t0);
+        }
+    }
+
+    public static VersionIndex read(JsonReader r) throws IOException {
+        VersionIndex index = new VersionIndex();
+        r.beginObject();
+        while (r.hasNext()) {
+            switch (r.nextName()) {
+                case "latest" -> {
+                    r.beginObject();
+                    while (r.hasNext()) {
+                        switch (r.nextName()) {
+                            case "release" -> index.latestRelease = r.nextString();
+                            case "snapshot" -> index.latestSnapshot = r.nextString();
+                            default -> r.skipValue();
+                        }
+                    }
+                    r.endObject();
+                }
+                case "versions" -> {
+                    r.beginArray();
+                    while (r.hasNext()) {
+                        Entry e = readEntry(r);
+                        index.versions.add(e);
+                        if (e.id != null) index.byId.putIfAbsent(e.id, e);
+                    }
+                    r.endArray();
+                }
+                default -> r.skipValue();
+            }
+        }
+        r.endObject();
+        return index;
+    }
+
+    public Entry entry(String id) {
+        return byId.get(id);
+    }
+
+    // Записи заданих типів (release, snapshot, old_beta, old_alpha) у порядку індексу
+    public List<Entry> ofTypes(Set<String> types) {
+        List<Entry> out = new ArrayList<>();
+        for (Entry e : versions) {
+            if (types.contains(e.type)) out.add(e);
+        }
+        return out;
+    }
+
+    private static Entry readEntry(JsonReader r) throws IOException {
+        Entry e = new Entry();
+        r.beginObject();
+        while (r.hasNext()) {
+            switch (r.nextName()) {
+                case "id" -> e.id = r.nextString();
+                case "type" -> e.type = r.nextString();
+                case "url" -> e.url = r.nextString();
+                case "sha1" -> e.sha1 = r.nextString();
+                case "releaseTime" -> e.releaseTime = r.nextString();
+                default -> r.skipValue();
+            }
+        }
+        r.endObject();
+        return e;
+    }
+}
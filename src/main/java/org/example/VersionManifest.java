@@ -0,0 +1,273 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Типізована модель маніфесту версії (<version>.json від Mojang або профілю Fabric)
+public class VersionManifest {
+    public String id;
+    public String inheritsFrom;
+    public String type;
+    public String mainClass;
+    public String assets;
+    public Artifact client;
+    public AssetIndexRef assetIndex;
+    public int javaMajorVersion;
+    public final List<Library> libraries = new ArrayList<>();
+    public final List<Argument> jvmArguments = new ArrayList<>();
+    public final List<Argument> gameArguments = new ArrayList<>();
+
+    public static class Artifact {
+        public String path;
+        public String url;
+        public String sha1;
+        public long size;
+    }
+
+    public static class AssetIndexRef extends Artifact {
+        public String id;
+        public long totalSize;
+    }
+
+    public static class Library {
+        public String name;
+        // для бібліотек Fabric: базовий URL Maven-репозиторію
+        public String url;
+        public String sha1;
+        public long size;
+        public Artifact artifact;
+        public final Map<String, Artifact> classifiers = new HashMap<>();
+        public final Map<String, String> natives = new HashMap<>();
+        public final List<Rule> rules = new ArrayList<>();
+    }
+
+    public static class Rule {
+        public String action;
+        public String osName;
+        public String osArch;
+        public String osVersion;
+        public final Map<String, Boolean> features = new HashMap<>();
+    }
+
+    public static class Argument {
+        public final List<String> values = new ArrayList<>();
+        public final List<Rule> rules = new ArrayList<>();
+    }
+
+    public static VersionManifest parse(InputStream in) throws IOException {
+        LauncherEvents.JsonParse event = new LauncherEvents.JsonParse();
+        event.document = "version-manifest";
+        event.begin();
+        long t0 = System.nanoTime();
+        try (JsonReader r = new JsonReader(in)) {
+            VersionManifest m = read(r);
+            event.items = m.libraries.size();
+            return m;
+        } finally {
+            event.commit();
+            Metrics.recordNanos("json.version-manifest.ms", t0);
+        }
+    }
+
+    public static VersionManifest read(JsonReader r) throws IOException {
+        VersionManifest m = new VersionManifest();
+        r.beginObject();
+        while (r.hasNext()) {
+            switch (r.nextName()) {
+                case "id" -> m.id = r.nextString();
+                case "inheritsFrom" -> m.inheritsFrom = r.nextString();
+                case "type" -> m.type = r.nextString();
+                case "mainClass" -> m.mainClass = r.nextString();
+                case "assets" -> m.assets = r.nextString();
+                case "assetIndex" -> {
+                    m.assetIndex = new AssetIndexRef();
+                    r.beginObject();
+                    while (r.hasNext()) {
+                        String name = r.nextName();
+                        switch (name) {
+                            case "id" -> m.assetIndex.id = r.nextString();
+                            case "totalSize" -> m.assetIndex.totalSize = r.nextLong();
+                            default -> readArtifactField(r, name, m.assetIndex);
+                        }
+                    }
+                    r.endObject();
+                }
+                case "downloads" -> {
+                    r.beginObject();
+                    while (r.hasNext()) {
+                        if (r.nextName().equals("client")) {
+                            m.client = readArtifact(r);
+                        } else {
+                            r.skipValue();
+                        }
+                    }
+                    r.endObject();
+                }
+                case "javaVersion" -> {
+                    r.beginObject();
+                    while (r.hasNext()) {
+                        if (r.nextName().equals("majorVersion")) {
+                            m.javaMajorVersion = r.nextInt();
+                        } else {
+                            r.skipValue();
+                        }
+                    }
+                    r.endObject();
+                }
+                case "libraries" -> {
+                    r.beginArray();
+                    while (r.hasNext()) m.libraries.add(readLibrary(r));
+                    r.endArray();
+                }
+                case "arguments" -> {
+                    r.beginObject();
+                    while (r.hasNext()) {
+                        switch (r.nextName()) {
+                            case "jvm" -> readArguments(r, m.jvmArguments);
+                            case "game" -> readArguments(r, m.gameArguments);
+                            default -> r.skipValue();
+                        }
+                    }
+                    r.endObject();
+                }
+                default -> r.skipValue();
+            }
+        }
+        r.endObject();
+        return m;
+    }
+
+    private static Artifact readArtifact(JsonReader r) throws IOException {
+        Artifact a = new Artifact();
+        r.beginObject();
+        while (r.hasNext()) readArtifactField(r, r.nextName(), a);
+        r.endObject();
+        return a;
+    }
+
+    private static void readArtifactField(JsonReader r, String name, Artifact a) throws IOException {
+        switch (name) {
+            case "path" -> a.path = r.nextString();
+            case "url" -> a.url = r.nextString();
+            case "sha1" -> a.sha1 = r.nextString();
+            case "size" -> a.size = r.nextLong();
+            default -> r.skipValue();
+        }
+    }
+
+    private static Library readLibrary(JsonReader r) throws IOException {
+        Library lib = new Library();
+        r.beginObject();
+        while (r.hasNext()) {
+            switch (r.nextName()) {
+                case "name" -> lib.name = r.nextString();
+                case "url" -> lib.url = r.nextString();
+                case "sha1" -> lib.sha1 = r.nextString();
+                case "size" -> lib.size = r.nextLong();
+                case "rules" -> readRules(r, lib.rules);
+                case "natives" -> {
+                    r.beginObject();
+                    while (r.hasNext()) {
+                        String os = r.nextName();
+                        lib.natives.put(os, r.nextString());
+                    }
+                    r.endObject();
+                }
+                case "downloads" -> {
+                    r.beginObject();
+                    while (r.hasNext()) {
+                        switch (r.nextName()) {
+                            case "artifact" -> lib.artifact = readArtifact(r);
+                            case "classifiers" -> {
+                                r.beginObject();
+                                while (r.hasNext()) {
+                                    String classifier = r.nextName();
+                                    lib.classifiers.put(classifier, readArtifact(r));
+                                }
+                                r.endObject();
+                            }
+                            default -> r.skipValue();
+                        }
+                    }
+                    r.endObject();
+                }
+                default -> r.skipValue();
+            }
+        }
+        r.endObject();
+        return lib;
+    }
+
+    private static void readRules(JsonReader r, List<Rule> rules) throws IOException {
+        r.beginArray();
+        while (r.hasNext()) {
+            Rule rule = new Rule();
+            r.beginObject();
+            while (r.hasNext()) {
+                switch (r.nextName()) {
+                    case "action" -> rule.action = r.nextString();
+                    case "os" -> {
+                        r.beginObject();
+                        while (r.hasNext()) {
+                            switch (r.nextName()) {
+                                case "name" -> rule.osName = r.nextString();
+                                case "arch" -> rule.osArch = r.nextString();
+                                case "version" -> rule.osVersion = r.nextString();
+                                default -> r.skipValue();
+                            }
+                        }
+                        r.endObject();
+                    }
+                    case "features" -> {
+                        r.beginObject();
+                        while (r.hasNext()) {
+                            String feature = r.nextName();
+                            rule.features.put(feature, r.nextBoolean());
+                        }
+                        r.endObject();
+                    }
+                    default -> r.skipValue();
+                }
+            }
+            r.endObject();
+            rules.add(rule);
+        }
+        r.endArray();
+    }
+
+    private static void readArguments(JsonReader r, List<Argument> out) throws IOException {
+        r.beginArray();
+        while (r.hasNext()) {
+            Argument arg = new Argument();
+            if (r.peek() == JsonReader.Token.BEGIN_OBJECT) {
+                r.beginObject();
+                while (r.hasNext()) {
+                    switch (r.nextName()) {
+                        case "rules" -> readRules(r, arg.rules);
+                        case "value" -> readStringOrArray(r, arg.values);
+                        default -> r.skipValue();
+                    }
+                }
+                r.endObject();
+            } else {
+                arg.values.add(r.nextString());
+            }
+            out.add(arg);
+        }
+        r.endArray();
+    }
+
+    private static void readStringOrArray(JsonReader r, List<String> out) throws IOException {
+        if (r.peek() == JsonReader.Token.BEGIN_ARRAY) {
+            r.beginArray();
+            while (r.hasNext()) out.add(r.nextString());
+            r.endArray();
+        } else {
+            out.add(r.nextString());
+        }
+    }
+}
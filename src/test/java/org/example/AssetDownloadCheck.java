@@ -0,0 +1,76 @@
+package org.example;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Тисячі дрібних об'єктів ресурсів з локального сервера із затримкою: AssetDownloader через пул
+// keep-alive з'єднань ParallelDownloader. Друкує об'єкти/с і КБ/с для 1 потоку та для типового
+// числа потоків; перевіряє вміст, розкладку assets/objects/<xx>/<hash> і пропуск наявних об'єктів.
+public class AssetDownloadCheck {
+    private static final int OBJECTS = 2000;
+    private static final long LATENCY_MS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int jobs = (args.length > 0 ? Integer.parseInt(args[0]) : ParallelDownloader.DEFAULT_JOBS) * 2;
+        try (LocalHttpServer server = new LocalHttpServer().latency(LATENCY_MS)) {
+            // AssetDownloader читає адресу ресурсів при ініціалізації класу
+            System.setProperty("pl.assets.url", server.url("res/"));
+            List<byte[]> objects = new ArrayList<>();
+            StringBuilder index = new StringBuilder("{\"objects\": {");
+            for (int i = 0; i < OBJECTS; i++) {
+                byte[] data = Check.randomBytes(i, 512 + (i * 97) % 8192);
+                String hash = Check.sha1(data);
+                objects.add(data);
+                server.put("res/" + hash.substring(0, 2) + "/" + hash, data);
+                if (i > 0) index.append(", ");
+                index.append("\"minecraft/sounds/s").append(i).append(".ogg\": {\"hash\": \"").append(hash)
+                        .append("\", \"size\": ").append(data.length).append('}');
+            }
+            // той самий об'єкт під другим шляхом завантажується один раз
+            String dup = Check.sha1(objects.get(0));
+            index.append(", \"minecraft/lang/dup.json\": {\"hash\": \"").append(dup).append("\", \"size\": ").append(objects.get(0).length).append("}}}");
+            byte[] indexBytes = index.toString().getBytes(StandardCharsets.UTF_8);
+            server.put("indexes/check.json", indexBytes);
+            VersionManifest.AssetIndexRef ref = new VersionManifest.AssetIndexRef();
+            ref.id = "check";
+            ref.url = server.url("indexes/check.json");
+            ref.sha1 = Check.sha1(indexBytes);
+            ref.size = indexBytes.length;
+
+            double serial = run(server, ref, objects, 1);
+            double parallel = run(server, ref, objects, jobs);
+            Check.that(parallel >= serial * 3, "паралельно щонайменше втричі більше об'єктів/с (x" + Math.round(parallel / serial) + ")");
+        }
+    }
+
+    // об'єктів/с
+    private static double run(LocalHttpServer server, VersionManifest.AssetIndexRef ref, List<byte[]> objects, int jobs) throws Exception {
+        File dir = Check.tempDir("pl-assets");
+        try {
+            ArtifactStore store = new ArtifactStore(new File(dir, "store"));
+            AssetDownloader assets = new AssetDownloader(new File(dir, "assets"), store);
+            int before = server.requests();
+            AssetDownloader.Stats stats = assets.download(ref, new ParallelDownloader(jobs, store), new DownloadProgress());
+            System.out.printf("%d потоків: %d об'єктів за %d мс — %.0f об'єктів/с, %.0f КБ/с%n", jobs, stats.objectsDownloaded,
+                    stats.millis, stats.objectsPerSecond(), stats.bytesPerSecond() / 1024);
+            Check.that(stats.objectsDownloaded == OBJECTS && server.requests() - before == OBJECTS + 1,
+                    jobs + " потоків: " + OBJECTS + " об'єктів і індекс одним запитом кожен (запитів " + (server.requests() - before) + ")");
+            boolean intact = true;
+            for (byte[] data : objects) {
+                String hash = Check.sha1(data);
+                File f = new File(dir, "assets/objects/" + hash.substring(0, 2) + "/" + hash);
+                intact &= f.isFile() && Check.sha1(f).equals(hash);
+            }
+            Check.that(intact, jobs + " потоків: усі об'єкти на місці й цілі");
+            double perSecond = stats.objectsPerSecond();
+            before = server.requests();
+            stats = assets.download(ref, new ParallelDownloader(jobs, store), new DownloadProgress());
+            Check.that(stats.objectsDownloaded == 0 && server.requests() == before, jobs + " потоків: повторний запуск без мережі");
+            return perSecond;
+        } finally {
+            Check.deleteTree(dir);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+// Спільне для перевірок у src/test: кожна — звичайний main, що завершується з кодом 1 при першій невідповідності.
+// Запуск: javac -d out src/main/java/org/example/*.java src/test/java/org/example/*.java
+//         (cd "$(mktemp -d)" && java -cp <out> org.example.<Назва>Check)
+// Тимчасова робоча тека — бо Mirrors і Metrics пишуть у cache/ та logs/ поточної теки.
+final class Check {
+    private Check() {}
+
+    static void that(boolean condition, String message) {
+        if (!condition) {
+            System.err.println("FAIL: " + message);
+            System.exit(1);
+        }
+        System.out.println("ok: " + message);
+    }
+
+    static File tempDir(String prefix) throws IOException {
+        return Files.createTempDirectory(prefix).toFile();
+    }
+
+    static void deleteTree(File f) {
+        File[] children = f.listFiles();
+        if (children != null) {
+            for (File c : children) deleteTree(c);
+        }
+        f.delete();
+    }
+
+    static byte[] randomBytes(long seed, int size) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    static String sha1(byte[] data) {
+        return ArtifactStore.toHex(ArtifactStore.newSha1().digest(data));
+    }
+
+    static String sha1(File file) throws IOException {
+        return sha1(Files.readAllBytes(file.toPath()));
+    }
+}
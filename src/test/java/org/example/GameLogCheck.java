@@ -0,0 +1,121 @@
+package org.example;
+
+import javax.swing.*;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// GameLog під навантаженням: фальшивий дочірній процес (ця ж JVM з аргументом pump) друкує мільйони рядків
+// у stdout і stderr. Перевіряє, що вікно лишається обмеженим, файл з ротаціями містить безперервний хвіст
+// виводу аж до останнього рядка, watchOnce спрацьовує рівно раз при маркерах з обох потоків, мовчазна гра
+// все одно потрапляє на диск за секунду, а два одночасні логи з тим самим ім'ям пишуть у різні файли.
+// Аргумент (необов'язково): кількість рядків, типово 2 000 000.
+public class GameLogCheck {
+    private static final int MAX_LINES = 2000;
+    private static final String MARKER = "Created: 1024x1024x4 minecraft:textures/atlas/blocks.png-atlas";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("pump")) {
+            pump(Integer.parseInt(args[1]));
+            return;
+        }
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        File dir = Check.tempDir("pl-gamelog");
+        try {
+            stress(dir, lines);
+            idleFlush(dir);
+            sharedName(dir);
+        } finally {
+            Check.deleteTree(dir);
+        }
+    }
+
+    // Дочірній процес: рядки з номером у stdout, кожен тисячний — ще й у stderr, маркер в обох потоках
+    private static void pump(int lines) {
+        PrintStream out = new PrintStream(new java.io.FileOutputStream(java.io.FileDescriptor.out), false);
+        for (int i = 0; i < lines; i++) {
+            out.print("[12:00:00] [Render thread/INFO]: line ");
+            out.println(i);
+            if (i % 1000 == 0) System.err.println("[12:00:00] [Worker-Main-1/WARN]: err " + i);
+            if (i == lines / 2) {
+                out.println(MARKER);
+                System.err.println(MARKER);
+            }
+        }
+        out.flush();
+    }
+
+    private static void stress(File dir, int lines) throws Exception {
+        JTextArea area = new JTextArea();
+        File requested = new File(dir, "logs/game.log");
+        GameLog log = new GameLog(area, MAX_LINES, requested);
+        AtomicInteger fired = new AtomicInteger();
+        log.watchOnce(MARKER, fired::incrementAndGet);
+        ProcessBuilder pb = new ProcessBuilder(new File(System.getProperty("java.home"), "bin/java").getPath(),
+                "-cp", System.getProperty("java.class.path"), GameLogCheck.class.getName(), "pump", String.valueOf(lines));
+        long t0 = System.nanoTime();
+        Process proc = pb.start();
+        log.attach(proc, "", "[err] ");
+        proc.waitFor();
+        log.close();
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        SwingUtilities.invokeAndWait(() -> {});
+        System.out.printf("%d рядків за %.2f с — %.0f рядків/с%n", lines, seconds, lines / seconds);
+
+        Check.that(area.getLineCount() <= MAX_LINES + 1, "у вікні " + area.getLineCount() + " рядків з " + MAX_LINES);
+        Check.that(fired.get() == 1, "watchOnce спрацював " + fired.get() + " раз(и) на маркери з stdout і stderr");
+
+        // від найстарішої ротації до поточного файлу номери рядків stdout ідуть підряд до останнього
+        long expected = -1;
+        boolean contiguous = true;
+        long kept = 0;
+        for (int i = 3; i >= 0; i--) {
+            File f = i == 0 ? log.file() : new File(log.file().getPath() + "." + i);
+            if (!f.exists()) continue;
+            Check.that(f.length() <= 16L * 1024 * 1024 + 64 * 1024, f.getName() + ": " + f.length() + " байт");
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = r.readLine()) != null) {
+                    int at = line.lastIndexOf(": line ");
+                    if (at < 0 || line.startsWith("[err] ")) continue;
+                    long n = Long.parseLong(line.substring(at + 7));
+                    if (expected >= 0 && n != expected) contiguous = false;
+                    expected = n + 1;
+                    kept++;
+                }
+            }
+        }
+        Check.that(!new File(log.file().getPath() + ".4").exists(), "ротацій не більше трьох");
+        Check.that(contiguous && expected == lines, "файл: " + kept + " рядків поспіль, останній " + (expected - 1));
+    }
+
+    private static void idleFlush(File dir) throws Exception {
+        GameLog log = new GameLog(new JTextArea(), MAX_LINES, new File(dir, "logs/idle.log"));
+        log.append("[Render thread/INFO]: Loaded 1 mods");
+        Thread.sleep(1600);
+        String onDisk = log.file().exists() ? new String(Files.readAllBytes(log.file().toPath()), StandardCharsets.UTF_8) : "";
+        Check.that(onDisk.contains("Loaded 1 mods"), "мовчазна гра: рядок на диску за секунду без нових записів");
+        log.close();
+    }
+
+    private static void sharedName(File dir) throws Exception {
+        File requested = new File(dir, "logs/launcher-game-1.21.5.log");
+        GameLog a = new GameLog(new JTextArea(), MAX_LINES, requested);
+        GameLog b = new GameLog(new JTextArea(), MAX_LINES, requested);
+        a.append("a");
+        b.append("b");
+        a.close();
+        b.close();
+        Check.that(a.file().equals(requested) && !b.file().equals(requested), "друга гра тієї ж версії пише в " + b.file().getName());
+        Check.that(Files.readAllLines(a.file().toPath()).equals(java.util.Collections.singletonList("a"))
+                && Files.readAllLines(b.file().toPath()).equals(java.util.Collections.singletonList("b")), "рядки двох ігор не перемішуються");
+        GameLog c = new GameLog(new JTextArea(), MAX_LINES, requested);
+        c.close();
+        Check.that(c.file().equals(requested), "після завершення гри ім'я знову вільне");
+    }
+}
@@ -0,0 +1,138 @@
+package org.example;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// JsonReader проти старого substring-парсера: однаковий результат на індексі версій і маніфесті версії,
+// коректні екрановані лапки та час одного розбору після прогріву (мікробенчмарк без JMH).
+// Аргументи (необов'язково): справжні version_manifest_v2.json і <версія>.json; інакше — синтетичні
+// документи того ж розміру й форми.
+public class JsonReaderCheck {
+    private static final int WARMUP = 30;
+    private static final int ROUNDS = 50;
+
+    public static void main(String[] args) throws Exception {
+        byte[] index = args.length > 0 ? Files.readAllBytes(Paths.get(args[0])) : syntheticIndex(900);
+        byte[] version = args.length > 1 ? Files.readAllBytes(Paths.get(args[1])) : syntheticVersion(90);
+
+        Check.that(indexIds(LegacyJsonParser.parse(in(index))).equals(indexIds(JsonReader.parse(in(index)))),
+                "індекс версій: id і sha1 збігаються (" + indexIds(JsonReader.parse(in(index))).size() + " записів)");
+        Check.that(legacyLibraries(LegacyJsonParser.parse(in(version))).equals(libraries(VersionManifest.parse(in(version)))),
+                "маніфест версії: шляхи, url і sha1 бібліотек збігаються");
+
+        byte[] escaped = "{\"id\":\"a \\\"quoted\\\" name\",\"next\":\"b\"}".getBytes(StandardCharsets.UTF_8);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> parsed = (Map<String, Object>) JsonReader.parse(in(escaped));
+        Check.that("a \"quoted\" name".equals(parsed.get("id")) && "b".equals(parsed.get("next")), "екрановані лапки розбираються");
+
+        double legacyIndex = bench(() -> LegacyJsonParser.parse(in(index)));
+        double readerIndex = bench(() -> JsonReader.parse(in(index)));
+        double legacyVersion = bench(() -> LegacyJsonParser.parse(in(version)));
+        double readerVersion = bench(() -> VersionManifest.parse(in(version)));
+        System.out.printf("індекс %d КБ: старий %.3f мс, JsonReader %.3f мс (x%.1f)%n",
+                index.length / 1024, legacyIndex, readerIndex, legacyIndex / readerIndex);
+        System.out.printf("маніфест %d КБ: старий %.3f мс, VersionManifest %.3f мс (x%.1f)%n",
+                version.length / 1024, legacyVersion, readerVersion, legacyVersion / readerVersion);
+        Check.that(readerIndex < legacyIndex && readerVersion < legacyVersion, "JsonReader швидший за старий парсер");
+    }
+
+    private interface Parse {
+        Object run() throws IOException;
+    }
+
+    // середній час одного розбору, мс
+    private static double bench(Parse parse) throws IOException {
+        Object sink = null;
+        for (int i = 0; i < WARMUP; i++) sink = parse.run();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) sink = parse.run();
+        double ms = (System.nanoTime() - t0) / 1e6 / ROUNDS;
+        if (sink == null) throw new IllegalStateException();
+        return ms;
+    }
+
+    private static ByteArrayInputStream in(byte[] data) {
+        return new ByteArrayInputStream(data);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> indexIds(Object root) {
+        List<String> out = new ArrayList<>();
+        for (Object o : (List<Object>) ((Map<String, Object>) root).get("versions")) {
+            Map<String, Object> v = (Map<String, Object>) o;
+            out.add(v.get("id") + " " + v.get("sha1") + " " + v.get("url"));
+        }
+        return out;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> legacyLibraries(Map<String, Object> manifest) {
+        List<String> out = new ArrayList<>();
+        for (Object o : (List<Object>) manifest.get("libraries")) {
+            Map<String, Object> lib = (Map<String, Object>) o;
+            Map<String, Object> downloads = (Map<String, Object>) lib.get("downloads");
+            if (downloads == null || !downloads.containsKey("artifact")) continue;
+            Map<String, Object> a = (Map<String, Object>) downloads.get("artifact");
+            out.add(a.get("path") + " " + a.get("url") + " " + a.get("sha1") + " " + a.get("size"));
+        }
+        return out;
+    }
+
+    private static List<String> libraries(VersionManifest manifest) {
+        List<String> out = new ArrayList<>();
+        for (VersionManifest.Library lib : manifest.libraries) {
+            VersionManifest.Artifact a = lib.artifact;
+            if (a != null) out.add(a.path + " " + a.url + " " + a.sha1 + " " + a.size);
+        }
+        return out;
+    }
+
+    private static String sha1(String seed) {
+        return Check.sha1(seed.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Форма version_manifest_v2.json: latest + масив версій з url, sha1 і датами, з відступами як у Mojang
+    static byte[] syntheticIndex(int versions) {
+        StringBuilder sb = new StringBuilder("{\n  \"latest\": {\n    \"release\": \"1.21.5\",\n    \"snapshot\": \"25w20a\"\n  },\n  \"versions\": [\n");
+        for (int i = 0; i < versions; i++) {
+            String id = i % 3 == 0 ? "1." + (i / 20) + "." + (i % 20) : (20 + i / 50) + "w" + (i % 50) + "a";
+            String sha1 = sha1(id);
+            if (i > 0) sb.append(",\n");
+            sb.append("    {\n      \"id\": \"").append(id).append("\",\n      \"type\": \"").append(i % 3 == 0 ? "release" : "snapshot")
+                    .append("\",\n      \"url\": \"https://piston-meta.mojang.com/v1/packages/").append(sha1).append('/').append(id)
+                    .append(".json\",\n      \"time\": \"2025-05-1").append(i % 10).append("T12:00:00+00:00\",\n      \"releaseTime\": \"2025-05-1")
+                    .append(i % 10).append("T10:00:00+00:00\",\n      \"sha1\": \"").append(sha1).append("\",\n      \"complianceLevel\": 1\n    }");
+        }
+        return sb.append("\n  ]\n}\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Форма <версія>.json: бібліотеки з downloads.artifact і правилами ОС, client jar, індекс ресурсів
+    static byte[] syntheticVersion(int libraries) {
+        StringBuilder sb = new StringBuilder("{\n  \"id\": \"1.21.5\",\n  \"type\": \"release\",\n  \"mainClass\": \"net.minecraft.client.main.Main\",\n");
+        sb.append("  \"assetIndex\": {\"id\": \"24\", \"sha1\": \"").append(sha1("assets")).append("\", \"size\": 450000, \"totalSize\": 700000000, \"url\": \"https://piston-meta.mojang.com/v1/packages/")
+                .append(sha1("assets")).append("/24.json\"},\n  \"assets\": \"24\",\n");
+        sb.append("  \"downloads\": {\"client\": {\"sha1\": \"").append(sha1("client")).append("\", \"size\": 28000000, \"url\": \"https://piston-data.mojang.com/v1/objects/")
+                .append(sha1("client")).append("/client.jar\"}},\n  \"javaVersion\": {\"component\": \"java-runtime-delta\", \"majorVersion\": 21},\n  \"libraries\": [\n");
+        String[] os = {"linux", "osx", "windows"};
+        for (int i = 0; i < libraries; i++) {
+            String path = "org/lwjgl/lwjgl-part" + i + "/3.3.3/lwjgl-part" + i + "-3.3.3" + (i % 4 == 0 ? "-natives-" + os[i % 3] : "") + ".jar";
+            if (i > 0) sb.append(",\n");
+            sb.append("    {\n      \"downloads\": {\n        \"artifact\": {\n          \"path\": \"").append(path)
+                    .append("\",\n          \"sha1\": \"").append(sha1(path)).append("\",\n          \"size\": ").append(1000 + i * 37)
+                    .append(",\n          \"url\": \"https://libraries.minecraft.net/").append(path).append("\"\n        }\n      },\n      \"name\": \"org.lwjgl:lwjgl-part")
+                    .append(i).append(":3.3.3\"");
+            if (i % 4 == 0) {
+                sb.append(",\n      \"rules\": [\n        {\n          \"action\": \"allow\",\n          \"os\": {\n            \"name\": \"").append(os[i % 3]).append("\"\n          }\n        }\n      ]");
+            }
+            sb.append("\n    }");
+        }
+        sb.append("\n  ]\n}\n");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
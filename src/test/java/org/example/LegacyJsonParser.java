@@ -0,0 +1,121 @@
+package org.example;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+// Розбір JSON із LauncherApp до переходу на JsonReader (substring і рекурсія по вкладених рядках) —
+// лише як база для порівняння в JsonReaderCheck.
+final class LegacyJsonParser {
+    private LegacyJsonParser() {}
+
+    // як downloadJsonMap: усі рядки документа склеюються в один StringBuilder
+    static Map<String, Object> parse(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        do {
+            line = r.readLine();
+            if (line != null) sb.append(line);
+        } while (line != null);
+        return parseJsonObject(sb.toString());
+    }
+
+    static Map<String, Object> parseJsonObject(String json) {
+        Map<String, Object> map = new HashMap<>();
+        json = json.trim();
+        if (json.startsWith("{")) json = json.substring(1);
+        if (json.endsWith("}")) json = json.substring(0, json.length() - 1);
+        int i = 0;
+        while (i < json.length()) {
+            while (i < json.length() && Character.isWhitespace(json.charAt(i))) i++;
+            if (i >= json.length()) break;
+            if (json.charAt(i) == ',') { i++; continue; }
+            if (json.charAt(i) == '"') {
+                int keyStart = ++i;
+                while (i < json.length() && json.charAt(i) != '"') i++;
+                String key = json.substring(keyStart, i);
+                i++; // skip "
+                while (i < json.length() && (json.charAt(i) == ':' || Character.isWhitespace(json.charAt(i)))) i++;
+                if (i < json.length() && json.charAt(i) == '[') {
+                    // array
+                    int arrStart = i;
+                    int depth = 0;
+                    do {
+                        if (json.charAt(i) == '[') depth++;
+                        else if (json.charAt(i) == ']') depth--;
+                        i++;
+                    } while (i < json.length() && depth > 0);
+                    String arrStr = json.substring(arrStart, i);
+                    map.put(key, parseJsonArray(arrStr));
+                } else if (i < json.length() && json.charAt(i) == '{') {
+                    // object
+                    int objStart = i;
+                    int depth = 0;
+                    do {
+                        if (json.charAt(i) == '{') depth++;
+                        else if (json.charAt(i) == '}') depth--;
+                        i++;
+                    } while (i < json.length() && depth > 0);
+                    String objStr = json.substring(objStart, i);
+                    map.put(key, parseJsonObject(objStr));
+                } else {
+                    // value
+                    int valStart = i;
+                    if (json.charAt(i) == '"') {
+                        valStart++;
+                        i++;
+                        while (i < json.length() && json.charAt(i) != '"') i++;
+                        String val = json.substring(valStart, i);
+                        map.put(key, val);
+                        i++;
+                    } else {
+                        while (i < json.length() && json.charAt(i) != ',' && json.charAt(i) != '}') i++;
+                        String val = json.substring(valStart, i).trim();
+                        map.put(key, val);
+                    }
+                }
+            } else {
+                i++;
+            }
+        }
+        return map;
+    }
+
+    static java.util.List<Object> parseJsonArray(String json) {
+        java.util.List<Object> list = new java.util.ArrayList<>();
+        json = json.trim();
+        if (json.startsWith("[")) json = json.substring(1);
+        if (json.endsWith("]")) json = json.substring(0, json.length() - 1);
+        int i = 0;
+        while (i < json.length()) {
+            while (i < json.length() && Character.isWhitespace(json.charAt(i))) i++;
+            if (i >= json.length()) break;
+            if (json.charAt(i) == ',') { i++; continue; }
+            if (json.charAt(i) == '{') {
+                int objStart = i;
+                int depth = 0;
+                do {
+                    if (json.charAt(i) == '{') depth++;
+                    else if (json.charAt(i) == '}') depth--;
+                    i++;
+                } while (i < json.length() && depth > 0);
+                String objStr = json.substring(objStart, i);
+                list.add(parseJsonObject(objStr));
+            } else if (json.charAt(i) == '"') {
+                int valStart = ++i;
+                while (i < json.length() && json.charAt(i) != '"') i++;
+                String val = json.substring(valStart, i);
+                list.add(val);
+                i++;
+            } else {
+                int valStart = i;
+                while (i < json.length() && json.charAt(i) != ',' && json.charAt(i) != ']') i++;
+                String val = json.substring(valStart, i).trim();
+                if (!val.isEmpty()) list.add(val);
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,183 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Локальна заміна CDN для перевірок: файли з пам'яті, затримка на запит, обмеження швидкості,
+// обрив з'єднання посеред тіла, зависання посеред тіла чи на HEAD, ігнорування Range та примусовий код відповіді.
+public class LocalHttpServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService pool = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "test-http");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+    // шлях → скільки байтів віддати перед обривом (спрацьовує один раз)
+    private final Map<String, Long> dropAfter = new ConcurrentHashMap<>();
+    // шлях → {скільки байтів віддати, скільки мс мовчати перед обривом} (спрацьовує один раз)
+    private final Map<String, long[]> stallAfter = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final LongAdder bytesSent = new LongAdder();
+    private volatile long latencyMs;
+    private volatile long headLatencyMs;
+    private volatile long bytesPerSecond;
+    private volatile boolean ignoreRange;
+    private volatile int forcedStatus;
+
+    static {
+        // інакше заголовки й тіло йдуть окремими пакетами і Nagle додає ~40 мс до кожної відповіді
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    public LocalHttpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        server.setExecutor(pool);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/" + path;
+    }
+
+    public String base() {
+        return url("");
+    }
+
+    public LocalHttpServer put(String path, byte[] data) {
+        files.put("/" + path, data);
+        return this;
+    }
+
+    public LocalHttpServer latency(long ms) {
+        latencyMs = ms;
+        return this;
+    }
+
+    public LocalHttpServer throttle(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        return this;
+    }
+
+    public LocalHttpServer dropOnce(String path, long afterBytes) {
+        dropAfter.put("/" + path, afterBytes);
+        return this;
+    }
+
+    // Віддати afterBytes і мовчати ms (довше за тайм-аут читання клієнта), потім обірвати з'єднання
+    public LocalHttpServer stallOnce(String path, long afterBytes, long ms) {
+        stallAfter.put("/" + path, new long[] {afterBytes, ms});
+        return this;
+    }
+
+    // Додаткова затримка лише для HEAD
+    public LocalHttpServer headLatency(long ms) {
+        headLatencyMs = ms;
+        return this;
+    }
+
+    public LocalHttpServer ignoreRange(boolean ignore) {
+        ignoreRange = ignore;
+        return this;
+    }
+
+    // 0 — звичайна відповідь
+    public LocalHttpServer status(int code) {
+        forcedStatus = code;
+        return this;
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    public long bytesSent() {
+        return bytesSent.sum();
+    }
+
+    private void handle(HttpExchange ex) {
+        try {
+            requests.incrementAndGet();
+            if (latencyMs > 0) Thread.sleep(latencyMs);
+            String path = ex.getRequestURI().getPath();
+            byte[] data = files.get(path);
+            boolean head = "HEAD".equals(ex.getRequestMethod());
+            if (head && headLatencyMs > 0) Thread.sleep(headLatencyMs);
+            if (forcedStatus != 0 || data == null) {
+                ex.sendResponseHeaders(forcedStatus != 0 ? forcedStatus : 404, -1);
+                return;
+            }
+            long from = 0;
+            long to = data.length - 1;
+            int code = 200;
+            String range = ex.getRequestHeaders().getFirst("Range");
+            if (range != null && !ignoreRange && range.startsWith("bytes=")) {
+                String[] p = range.substring(6).split("-", -1);
+                from = Long.parseLong(p[0]);
+                if (!p[1].isEmpty()) to = Math.min(to, Long.parseLong(p[1]));
+                if (from >= data.length) {
+                    ex.getResponseHeaders().set("Content-Range", "bytes */" + data.length);
+                    ex.sendResponseHeaders(416, -1);
+                    return;
+                }
+                code = 206;
+                ex.getResponseHeaders().set("Content-Range", "bytes " + from + "-" + to + "/" + data.length);
+            }
+            ex.getResponseHeaders().set("Accept-Ranges", "bytes");
+            long length = to - from + 1;
+            if (head) {
+                ex.getResponseHeaders().set("Content-Length", Long.toString(data.length));
+                ex.sendResponseHeaders(200, -1);
+                return;
+            }
+            ex.sendResponseHeaders(code, length);
+            Long drop = dropAfter.remove(path);
+            long[] stall = stallAfter.remove(path);
+            long limit = drop != null ? Math.min(drop, length) : length;
+            if (stall != null) limit = Math.min(stall[0], limit);
+            OutputStream out = ex.getResponseBody();
+            long t0 = System.nanoTime();
+            for (long sent = 0; sent < limit; ) {
+                int n = (int) Math.min(16 * 1024, limit - sent);
+                // до запису: клієнт може дочитати останній блок і перевірити лічильник раніше, ніж write поверне
+                bytesSent.add(n);
+                out.write(data, (int) (from + sent), n);
+                sent += n;
+                long rate = bytesPerSecond;
+                if (rate > 0) {
+                    long dueNanos = sent * 1_000_000_000L / rate;
+                    long sleep = (dueNanos - (System.nanoTime() - t0)) / 1_000_000;
+                    if (sleep > 0) Thread.sleep(sleep);
+                }
+            }
+            out.flush();
+            if (stall != null) Thread.sleep(stall[1]);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ignored) {
+            // клієнт закрив з'єднання
+        } finally {
+            try {
+                // недописане тіло фіксованої довжини — сервер закриває з'єднання, клієнт бачить обрив
+                ex.close();
+            } catch (RuntimeException ignored) {}
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        pool.shutdownNow();
+    }
+}
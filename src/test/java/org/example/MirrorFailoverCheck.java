@@ -0,0 +1,112 @@
+package org.example;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+// Дзеркала з різною штучною затримкою й одне недоступне: порядок за пробними HEAD, рівно один HEAD на дзеркало
+// при одночасних завантаженнях, перехід на наступне дзеркало при 503, при пошкодженому вмісті та при тайм-ауті
+// читання, і зниження дзеркала з помилками в порядку спроб.
+public class MirrorFailoverCheck {
+    private static final long READ_TIMEOUT_MS = 1000;
+
+    public static void main(String[] args) throws Exception {
+        // до першого звертання до HttpDownloader: тайм-аути читаються при ініціалізації класу
+        System.setProperty("pl.download.readTimeout", Long.toString(READ_TIMEOUT_MS));
+        System.setProperty("pl.download.mirrorReadTimeout", Long.toString(READ_TIMEOUT_MS));
+        File dir = Check.tempDir("pl-mirrors");
+        LocalHttpServer dead = new LocalHttpServer();
+        String deadBase = dead.base();
+        dead.close();
+        try (LocalHttpServer origin = new LocalHttpServer().latency(200);
+             LocalHttpServer fast = new LocalHttpServer().latency(5);
+             LocalHttpServer medium = new LocalHttpServer().latency(50)) {
+            byte[] jar = Check.randomBytes(1, 1024 * 1024);
+            byte[] bad = Check.randomBytes(2, 300 * 1024);
+            for (LocalHttpServer s : List.of(origin, fast, medium)) {
+                s.put("lib/a.jar", jar).put("lib/bad.jar", bad);
+            }
+            fast.put("lib/bad.jar", Check.randomBytes(3, bad.length));
+            File config = new File(dir, "mirrors.txt");
+            Files.write(config.toPath(), (origin.base() + " " + deadBase + " " + medium.base() + " " + fast.base() + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            Mirrors mirrors = new Mirrors(config, new File(dir, "stats.properties"));
+            // у лаунчері до першого пробного HEAD уже був запит індексу версій; інакше ініціалізація
+            // HTTP-клієнта (~100 мс) потрапляє в затримку кожного з паралельних пробних запитів
+            try (LocalHttpServer warmup = new LocalHttpServer()) {
+                HttpDownloader.open(warmup.base(), "HEAD").getResponseCode();
+            }
+
+            // 16 потоків одночасно питають порядок — кожне дзеркало отримує один HEAD
+            List<List<String>> orders = new ArrayList<>();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                Thread t = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    List<String> order = mirrors.candidates(origin.url("lib/a.jar"));
+                    synchronized (orders) {
+                        orders.add(order);
+                    }
+                });
+                t.start();
+                threads.add(t);
+            }
+            start.countDown();
+            for (Thread t : threads) t.join();
+            Check.that(origin.requests() == 1 && fast.requests() == 1 && medium.requests() == 1,
+                    "одночасні запити: HEAD на дзеркало " + origin.requests() + "/" + fast.requests() + "/" + medium.requests());
+            List<String> expected = List.of(fast.url("lib/a.jar"), medium.url("lib/a.jar"), origin.url("lib/a.jar"), deadBase + "lib/a.jar");
+            boolean same = true;
+            for (List<String> order : orders) same &= order.equals(expected);
+            Check.that(orders.size() == 16 && same, "порядок за затримкою: 5 мс, 50 мс, 200 мс, недоступне");
+
+            HttpDownloader downloader = new HttpDownloader(mirrors);
+            HttpDownloader.Result r = downloader.download(origin.url("lib/a.jar"), new File(dir, "a.part"), jar.length, Check.sha1(jar), n -> {});
+            Check.that(Check.sha1(jar).equals(r.sha1) && fast.requests() == 2 && origin.requests() == 1, "завантажено з найшвидшого дзеркала");
+
+            // найшвидше дзеркало віддає пошкоджений вміст — той самий файл береться з наступного
+            r = downloader.download(origin.url("lib/bad.jar"), new File(dir, "bad.part"), bad.length, Check.sha1(bad), n -> {});
+            Check.that(Check.sha1(bad).equals(r.sha1) && medium.requests() > 1, "пошкоджений вміст — перехід на наступне дзеркало");
+
+            // найшвидше дзеркало відповідає 503 — перехід, прогрес без подвоєнь, дзеркало опускається нижче
+            fast.status(503);
+            LongAdder counted = new LongAdder();
+            int mediumBefore = medium.requests();
+            r = downloader.download(origin.url("lib/a.jar"), new File(dir, "a2.part"), jar.length, Check.sha1(jar), counted::add);
+            Check.that(Check.sha1(jar).equals(r.sha1) && medium.requests() > mediumBefore, "503 — завантажено з іншого дзеркала");
+            Check.that(counted.sum() == jar.length, "503 — прогрес " + counted.sum() + "/" + jar.length);
+            List<String> after = mirrors.candidates(origin.url("lib/a.jar"));
+            Check.that(after.indexOf(medium.url("lib/a.jar")) < after.indexOf(fast.url("lib/a.jar")),
+                    "дзеркало з помилками опустилося нижче: " + after);
+            Check.that(after.get(after.size() - 1).startsWith(deadBase), "недоступне дзеркало лишається останнім");
+
+            // тепер перше — medium, і воно зависає: тайм-аут читання означає перехід, а не скасування
+            fast.status(0);
+            medium.latency(READ_TIMEOUT_MS * 3);
+            counted.reset();
+            int fastBefore = fast.requests();
+            long t0 = System.nanoTime();
+            r = downloader.download(origin.url("lib/a.jar"), new File(dir, "a3.part"), jar.length, Check.sha1(jar), counted::add);
+            long millis = (System.nanoTime() - t0) / 1_000_000;
+            Check.that(Check.sha1(jar).equals(r.sha1) && fast.requests() > fastBefore,
+                    "тайм-аут першого дзеркала — завантажено з наступного за " + millis + " мс");
+            Check.that(counted.sum() == jar.length, "тайм-аут — прогрес " + counted.sum() + "/" + jar.length);
+            try (InputStream in = mirrors.open(origin.url("lib/a.jar"), "GET", c -> {}).getInputStream()) {
+                Check.that(Check.sha1(in.readAllBytes()).equals(Check.sha1(jar)), "Mirrors.open: тайм-аут — перехід на наступне дзеркало");
+            }
+            medium.latency(50);
+        } finally {
+            Check.deleteTree(dir);
+        }
+    }
+}
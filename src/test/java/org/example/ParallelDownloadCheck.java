@@ -0,0 +1,59 @@
+package org.example;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+// Холодне встановлення бібліотек з локального сервера із затримкою на запит: послідовно (1 потік)
+// проти паралельного ParallelDownloader. Перевіряє вміст файлів, підсумковий прогрес і прискорення.
+public class ParallelDownloadCheck {
+    private static final int LIBRARIES = 80;
+    private static final long LATENCY_MS = 40;
+
+    public static void main(String[] args) throws Exception {
+        int jobs = args.length > 0 ? Integer.parseInt(args[0]) : ParallelDownloader.DEFAULT_JOBS;
+        try (LocalHttpServer server = new LocalHttpServer().latency(LATENCY_MS)) {
+            List<byte[]> contents = new ArrayList<>();
+            long total = 0;
+            for (int i = 0; i < LIBRARIES; i++) {
+                byte[] data = Check.randomBytes(i, 32 * 1024 + i * 2048);
+                contents.add(data);
+                server.put("maven/lib" + i + ".jar", data);
+                total += data.length;
+            }
+            long serial = run(server, contents, 1, total);
+            long parallel = run(server, contents, jobs, total);
+            double speedup = (double) serial / Math.max(1, parallel);
+            System.out.printf("%d бібліотек, %d МБ: 1 потік %d мс, %d потоків %d мс (x%.1f)%n",
+                    LIBRARIES, total / 1024 / 1024, serial, jobs, parallel, speedup);
+            Check.that(speedup >= Math.min(jobs, 4) * 0.75, "паралельне завантаження швидше щонайменше у " + Math.min(jobs, 4) * 0.75 + " раза");
+        }
+    }
+
+    private static long run(LocalHttpServer server, List<byte[]> contents, int jobs, long total) throws Exception {
+        File dir = Check.tempDir("pl-parallel");
+        try {
+            ArtifactStore store = new ArtifactStore(new File(dir, "store"));
+            List<ParallelDownloader.Task> tasks = new ArrayList<>();
+            for (int i = 0; i < contents.size(); i++) {
+                byte[] data = contents.get(i);
+                tasks.add(new ParallelDownloader.Task(server.url("maven/lib" + i + ".jar"),
+                        new File(dir, "libraries/lib" + i + ".jar"), data.length, Check.sha1(data)));
+            }
+            DownloadProgress progress = new DownloadProgress();
+            long t0 = System.nanoTime();
+            new ParallelDownloader(jobs, store).downloadAll(tasks, progress);
+            long millis = (System.nanoTime() - t0) / 1_000_000;
+            for (int i = 0; i < contents.size(); i++) {
+                ParallelDownloader.Task t = tasks.get(i);
+                if (!Check.sha1(contents.get(i)).equals(Check.sha1(t.dest))) Check.that(false, "вміст " + t.dest.getName());
+            }
+            DownloadProgress.Snapshot snap = progress.snapshot();
+            Check.that(snap.bytesDone == total && snap.bytesTotal == total, jobs + " потоків: прогрес " + snap.bytesDone + "/" + total + " байт");
+            Check.that(snap.filesDone == contents.size(), jobs + " потоків: файлів " + snap.filesDone + "/" + contents.size());
+            return millis;
+        } finally {
+            Check.deleteTree(dir);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.example;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Канал прогресу: кількість подій EDT при вибірці таймером 20 Гц проти однієї події на кожне читання
+// (стара схема), відсутність алокацій у DownloadProgress.add та точність bytesDone після повторів —
+// Range, проігнорованого сервером, і переходу на інше дзеркало.
+public class ProgressCheck {
+    private static final int FPS = 20;
+
+    public static void main(String[] args) throws Exception {
+        File dir = Check.tempDir("pl-progress");
+        try (LocalHttpServer server = new LocalHttpServer().throttle(64L * 1024 * 1024)) {
+            sampling(server, dir);
+            allocation();
+            rollback(server, dir);
+        } finally {
+            Check.deleteTree(dir);
+        }
+    }
+
+    private static void sampling(LocalHttpServer server, File dir) throws Exception {
+        List<ParallelDownloader.Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            byte[] data = Check.randomBytes(i, 4 * 1024 * 1024);
+            server.put("big/" + i, data);
+            tasks.add(new ParallelDownloader.Task(server.url("big/" + i), new File(dir, "sampling/" + i + ".jar"), data.length, Check.sha1(data)));
+        }
+        DownloadProgress progress = new DownloadProgress();
+        // стара схема: кожен виклик add з потоку завантаження — окремий invokeLater
+        AtomicInteger reads = new AtomicInteger();
+        ArtifactStore store = new ArtifactStore(new File(dir, "store"));
+        AtomicInteger edtEvents = new AtomicInteger();
+        long[] lastBytes = {-1};
+        Timer timer = new Timer(1000 / FPS, e -> {
+            DownloadProgress.Snapshot snap = progress.snapshot();
+            if (snap.bytesDone == lastBytes[0]) return;
+            lastBytes[0] = snap.bytesDone;
+            edtEvents.incrementAndGet();
+        });
+        timer.start();
+        long t0 = System.nanoTime();
+        ParallelDownloader downloader = new ParallelDownloader(8, store);
+        DownloadProgress counting = new DownloadProgress() {
+            @Override
+            public void add(long n) {
+                reads.incrementAndGet();
+                progress.add(n);
+            }
+
+            @Override
+            public void addWork(long bytes, int files) {
+                progress.addWork(bytes, files);
+            }
+        };
+        downloader.downloadAll(tasks, counting);
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        Thread.sleep(2 * 1000 / FPS);
+        timer.stop();
+        System.out.printf("64 МБ за %.2f с: читань (подій EDT у старій схемі) %d, кадрів таймера %d%n", seconds, reads.get(), edtEvents.get());
+        Check.that(edtEvents.get() <= seconds * FPS + 3, "подій EDT не більше " + FPS + " за секунду");
+        Check.that(reads.get() > edtEvents.get() * 10, "подій EDT щонайменше вдесятеро менше, ніж читань");
+        Check.that(progress.snapshot().bytesDone == progress.snapshot().bytesTotal, "прогрес дійшов до 100%");
+    }
+
+    private static void allocation() {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        DownloadProgress progress = new DownloadProgress();
+        long tid = Thread.currentThread().getId();
+        for (int i = 0; i < 100_000; i++) progress.add(8192);
+        long before = mx.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < 1_000_000; i++) progress.add(8192);
+        long allocated = mx.getThreadAllocatedBytes(tid) - before;
+        Check.that(allocated < 64 * 1024, "1 млн DownloadProgress.add алокують " + allocated + " байт");
+    }
+
+    private static void rollback(LocalHttpServer origin, File dir) throws Exception {
+        byte[] data = Check.randomBytes(42, 3 * 1024 * 1024);
+        origin.put("jar", data);
+
+        // .part від минулого запуску, а сервер віддає 200 замість 206 — завантаження починається з нуля
+        origin.ignoreRange(true);
+        File part = new File(dir, "range.part");
+        try (OutputStream out = new FileOutputStream(part)) {
+            out.write(data, 0, data.length / 2);
+        }
+        DownloadProgress progress = new DownloadProgress();
+        progress.addWork(data.length, 1);
+        HttpDownloader plain = new HttpDownloader(new Mirrors(new File(dir, "none.txt"), new File(dir, "stats0.properties")));
+        plain.download(origin.url("jar"), part, data.length, Check.sha1(data), progress);
+        origin.ignoreRange(false);
+        Check.that(progress.snapshot().bytesDone == data.length, "Range проігноровано: прогрес " + progress.snapshot().bytesDone + "/" + data.length);
+
+        // LAN-вузол віддає пошкоджений вміст — перехід на джерело
+        try (LocalHttpServer peer = new LocalHttpServer()) {
+            peer.put("objects/" + Check.sha1(data), Check.randomBytes(43, data.length));
+            File config = new File(dir, "mirrors.txt");
+            Files.write(config.toPath(), ("peer " + peer.base() + "\n").getBytes(StandardCharsets.UTF_8));
+            HttpDownloader mirrored = new HttpDownloader(new Mirrors(config, new File(dir, "stats1.properties")));
+            progress = new DownloadProgress();
+            progress.addWork(data.length, 1);
+            HttpDownloader.Result r = mirrored.download(origin.url("jar"), new File(dir, "failover.part"), data.length, Check.sha1(data), progress);
+            Check.that(Check.sha1(data).equals(r.sha1) && peer.requests() > 0, "пошкоджений вміст вузла — завантажено з джерела");
+            Check.that(progress.snapshot().bytesDone == data.length, "перехід на інше дзеркало: прогрес " + progress.snapshot().bytesDone + "/" + data.length);
+
+            // усі дзеркала відмовили — у прогресі не лишається нічого від невдалих спроб
+            origin.status(503);
+            LongAdder failed = new LongAdder();
+            try {
+                mirrored.download(origin.url("jar"), new File(dir, "failed.part"), data.length, Check.sha1(data), failed::add);
+                Check.that(false, "завантаження з усіх несправних дзеркал має впасти");
+            } catch (java.io.IOException expected) {
+                Check.that(failed.sum() == 0, "невдале завантаження: прогрес " + failed.sum());
+            } finally {
+                origin.status(0);
+            }
+        }
+
+        // скасування посеред файлу (переривання потоку) — зараховані байти теж знімаються
+        origin.throttle(2L * 1024 * 1024);
+        HttpDownloader cancelled = new HttpDownloader(new Mirrors(new File(dir, "none.txt"), new File(dir, "stats2.properties")));
+        LongAdder partial = new LongAdder();
+        Throwable[] thrown = new Throwable[1];
+        Thread worker = new Thread(() -> {
+            try {
+                cancelled.download(origin.url("jar"), new File(dir, "cancel.part"), data.length, Check.sha1(data), partial::add);
+            } catch (Throwable t) {
+                thrown[0] = t;
+            }
+        });
+        worker.start();
+        Thread.sleep(300);
+        long before = partial.sum();
+        worker.interrupt();
+        worker.join();
+        origin.throttle(64L * 1024 * 1024);
+        Check.that(before > 0 && thrown[0] instanceof InterruptedIOException && partial.sum() == 0,
+                "скасування: прогрес " + before + " -> " + partial.sum() + " (" + thrown[0] + ")");
+    }
+}
@@ -0,0 +1,105 @@
+package org.example;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.LongAdder;
+
+// Продовження завантажень HttpDownloader: обрив посеред тіла, .part від перерваного запуску,
+// сегментоване завантаження великого файлу з обривом одного сегмента та з .seg від перерваного запуску,
+// зависання сервера посеред тіла (тайм-аут читання) та HEAD, що не відповідає. У кожному випадку сервер
+// віддає кожен байт один раз (плюс хвіст уже надісланого буфера), а хеш збігається.
+public class ResumeCheck {
+    private static final long READ_TIMEOUT_MS = 1000;
+
+    public static void main(String[] args) throws Exception {
+        // до першого звертання до HttpDownloader: тайм-аути читаються при ініціалізації класу
+        System.setProperty("pl.download.readTimeout", Long.toString(READ_TIMEOUT_MS));
+        File dir = Check.tempDir("pl-resume");
+        try (LocalHttpServer server = new LocalHttpServer().throttle(40L * 1024 * 1024)) {
+            HttpDownloader downloader = new HttpDownloader(new Mirrors(new File(dir, "none.txt"), new File(dir, "stats.properties")));
+
+            byte[] jar = Check.randomBytes(1, 3 * 1024 * 1024);
+            server.put("client.jar", jar).dropOnce("client.jar", 2 * 1024 * 1024);
+            File part = new File(dir, "client.jar.part");
+            LongAdder counted = new LongAdder();
+            HttpDownloader.Result r = downloader.download(server.url("client.jar"), part, jar.length, Check.sha1(jar), counted::add);
+            Check.that(Check.sha1(jar).equals(r.sha1) && r.length == jar.length, "обрив на 2 МБ: вміст цілий");
+            Check.that(server.requests() == 2, "обрив на 2 МБ: один повторний запит з Range (запитів " + server.requests() + ")");
+            Check.that(server.bytesSent() == jar.length, "обрив на 2 МБ: надіслано " + server.bytesSent() + " з " + jar.length + " байт");
+            Check.that(counted.sum() == jar.length, "обрив на 2 МБ: прогрес " + counted.sum() + " байт");
+
+            // .part від попереднього запуску лаунчера
+            File leftover = new File(dir, "leftover.part");
+            try (OutputStream out = new FileOutputStream(leftover)) {
+                out.write(jar, 0, jar.length / 3);
+            }
+            long sentBefore = server.bytesSent();
+            r = downloader.download(server.url("client.jar"), leftover, jar.length, Check.sha1(jar), n -> {});
+            long sent = server.bytesSent() - sentBefore;
+            Check.that(Check.sha1(jar).equals(r.sha1), ".part з минулого запуску: вміст цілий");
+            Check.that(sent == jar.length - jar.length / 3, ".part з минулого запуску: догружено " + sent + " байт");
+
+            byte[] big = Check.randomBytes(2, 12 * 1024 * 1024);
+            server.put("big.jar", big).dropOnce("big.jar", 1024 * 1024);
+            File bigPart = new File(dir, "big.jar.part");
+            sentBefore = server.bytesSent();
+            int requestsBefore = server.requests();
+            long t0 = System.nanoTime();
+            r = downloader.download(server.url("big.jar"), bigPart, big.length, Check.sha1(big), n -> {});
+            long millis = (System.nanoTime() - t0) / 1_000_000;
+            sent = server.bytesSent() - sentBefore;
+            Check.that(Check.sha1(big).equals(r.sha1), "сегменти (" + HttpDownloader.SEGMENTS + "): вміст цілий за " + millis + " мс");
+            Check.that(sent == big.length, "сегменти: надіслано " + sent + " з " + big.length + " байт");
+            Check.that(server.requests() - requestsBefore == 1 + HttpDownloader.SEGMENTS + 1,
+                    "сегменти: HEAD + " + HttpDownloader.SEGMENTS + " GET + 1 повтор (запитів " + (server.requests() - requestsBefore) + ")");
+            Check.that(!new File(bigPart.getPath() + ".seg").exists(), "сегменти: файл стану прибрано");
+
+            // .seg від перерваного запуску: частина першого й третього сегментів уже на диску — хеш
+            // рахується під час запису, тож і префікс, і сегмент попереду фронту мають потрапити в нього
+            File resumedPart = new File(dir, "resumed.jar.part");
+            long chunk = (big.length + HttpDownloader.SEGMENTS - 1) / HttpDownloader.SEGMENTS;
+            StringBuilder seg = new StringBuilder().append(big.length).append('\n');
+            try (RandomAccessFile raf = new RandomAccessFile(resumedPart, "rw")) {
+                for (int i = 0; i < HttpDownloader.SEGMENTS; i++) {
+                    long start = i * chunk;
+                    long end = Math.min(big.length, start + chunk) - 1;
+                    long done = i == 0 ? 1024 * 1024 : i == 2 ? 2 * 1024 * 1024 : 0;
+                    raf.seek(start);
+                    raf.write(big, (int) start, (int) done);
+                    seg.append(start).append(' ').append(end).append(' ').append(done).append('\n');
+                }
+            }
+            Files.writeString(new File(resumedPart.getPath() + ".seg").toPath(), seg);
+            sentBefore = server.bytesSent();
+            r = downloader.download(server.url("big.jar"), resumedPart, big.length, Check.sha1(big), n -> {});
+            sent = server.bytesSent() - sentBefore;
+            Check.that(Check.sha1(big).equals(r.sha1) && r.length == big.length, "сегменти з .seg: вміст і хеш цілі");
+            Check.that(sent == big.length - 3 * 1024 * 1024, "сегменти з .seg: догружено " + sent + " байт");
+
+            // сервер замовк посеред тіла — тайм-аут читання, продовження з Range
+            server.stallOnce("client.jar", 1024 * 1024, READ_TIMEOUT_MS * 3);
+            sentBefore = server.bytesSent();
+            requestsBefore = server.requests();
+            counted.reset();
+            r = downloader.download(server.url("client.jar"), new File(dir, "stall.part"), jar.length, Check.sha1(jar), counted::add);
+            sent = server.bytesSent() - sentBefore;
+            Check.that(Check.sha1(jar).equals(r.sha1), "зависання посеред тіла: вміст цілий");
+            Check.that(server.requests() - requestsBefore == 2 && sent == jar.length,
+                    "зависання посеред тіла: повтор з Range (запитів " + (server.requests() - requestsBefore) + ", надіслано " + sent + ")");
+            Check.that(counted.sum() == jar.length, "зависання посеред тіла: прогрес " + counted.sum() + " байт");
+
+            // HEAD не відповідає — звичайний GET замість сегментів
+            server.headLatency(READ_TIMEOUT_MS * 3);
+            requestsBefore = server.requests();
+            r = downloader.download(server.url("big.jar"), new File(dir, "nohead.part"), big.length, Check.sha1(big), n -> {});
+            server.headLatency(0);
+            Check.that(Check.sha1(big).equals(r.sha1) && server.requests() - requestsBefore == 2,
+                    "тайм-аут HEAD: один GET (запитів " + (server.requests() - requestsBefore) + ")");
+        } finally {
+            Check.deleteTree(dir);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+// Дедуплікація в ArtifactStore: дві «версії» зі спільними бібліотеками завантажують кожен об'єкт один раз,
+// файли версій — жорсткі посилання на той самий об'єкт; індекс переживає перезапуск; вміст
+// з невірним хешем у сховище не потрапляє.
+public class StoreDedupCheck {
+    private static final int SHARED = 20;
+    private static final int OWN = 10;
+
+    public static void main(String[] args) throws Exception {
+        File dir = Check.tempDir("pl-dedup");
+        try (LocalHttpServer server = new LocalHttpServer()) {
+            List<byte[]> shared = new ArrayList<>();
+            for (int i = 0; i < SHARED; i++) {
+                shared.add(Check.randomBytes(i, 64 * 1024));
+                server.put("shared/" + i, shared.get(i));
+            }
+            File storeDir = new File(dir, "store");
+            ArtifactStore store = new ArtifactStore(storeDir);
+            List<ParallelDownloader.Task> a = tasks(server, shared, "a", dir);
+            List<ParallelDownloader.Task> b = tasks(server, shared, "b", dir);
+            ParallelDownloader downloader = new ParallelDownloader(8, store);
+            downloader.downloadAll(a, new DownloadProgress());
+            int afterA = server.requests();
+            downloader.downloadAll(b, new DownloadProgress());
+            int forB = server.requests() - afterA;
+            Check.that(afterA == SHARED + OWN, "версія a: " + afterA + " запитів на " + (SHARED + OWN) + " файлів");
+            Check.that(forB == OWN, "версія b: лише " + OWN + " власних файлів із мережі (запитів " + forB + ")");
+            Check.that(store.objects().size() == SHARED + 2 * OWN, "об'єктів у сховищі " + store.objects().size());
+            boolean linked = true;
+            for (int i = 0; i < SHARED; i++) {
+                linked &= Files.isSameFile(a.get(i).dest.toPath(), b.get(i).dest.toPath());
+            }
+            Check.that(linked, "спільні файли обох версій — один inode");
+
+            // одночасний fetch того самого об'єкта кількома потоками — одне завантаження
+            byte[] hot = Check.randomBytes(99, 256 * 1024);
+            server.put("hot", hot);
+            int before = server.requests();
+            List<ParallelDownloader.Task> same = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                same.add(new ParallelDownloader.Task(server.url("hot"), new File(dir, "hot/" + i + ".jar"), hot.length, Check.sha1(hot)));
+            }
+            downloader.downloadAll(same, new DownloadProgress());
+            Check.that(server.requests() - before == 1, "8 одночасних fetch одного sha1 — запитів " + (server.requests() - before));
+
+            ArtifactStore reopened = new ArtifactStore(storeDir);
+            Check.that(reopened.isInstalled(b.get(0).dest, Check.sha1(shared.get(0))), "індекс після перезапуску бачить посилання");
+
+            byte[] good = Check.randomBytes(7, 4096);
+            server.put("corrupt", Check.randomBytes(8, 4096));
+            String sha1 = Check.sha1(good);
+            try {
+                store.fetch(server.url("corrupt"), sha1, good.length, new File(dir, "corrupt.jar"), null);
+                Check.that(false, "невірний вміст відхилено");
+            } catch (IOException expected) {
+                Check.that(!store.contains(sha1) && !store.objectFile(sha1).exists(), "невірний вміст відхилено й не закомічено");
+            }
+        } finally {
+            Check.deleteTree(dir);
+        }
+    }
+
+    private static List<ParallelDownloader.Task> tasks(LocalHttpServer server, List<byte[]> shared, String version, File dir) {
+        List<ParallelDownloader.Task> tasks = new ArrayList<>();
+        for (int i = 0; i < shared.size(); i++) {
+            byte[] data = shared.get(i);
+            tasks.add(new ParallelDownloader.Task(server.url("shared/" + i), new File(dir, version + "/libraries/shared" + i + ".jar"),
+                    data.length, Check.sha1(data)));
+        }
+        for (int i = 0; i < OWN; i++) {
+            byte[] data = Check.randomBytes(version.hashCode() * 100L + i, 48 * 1024);
+            server.put(version + "/" + i, data);
+            tasks.add(new ParallelDownloader.Task(server.url(version + "/" + i), new File(dir, version + "/libraries/own" + i + ".jar"),
+                    data.length, Check.sha1(data)));
+        }
+        return tasks;
+    }
+}